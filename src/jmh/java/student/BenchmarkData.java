@@ -0,0 +1,66 @@
+package student;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Collections of any size for the benchmarks.
+ *
+ * The bundled collection has 753 rows and is used as is. Other sizes are written by
+ * {@link CatalogGenerator} with its default seed, so every run measures the same data.
+ * Sizes up to 50 million rows work, given the heap for them, for example with
+ * {@code -p rows=50000000}.
+ */
+final class BenchmarkData {
+    /** The bundled collection, on the classpath. */
+    static final String COLLECTION = "/collection.csv";
+    /** Rows in the bundled collection. */
+    static final int BUNDLED_ROWS = 753;
+
+    /** private constructor to prevent instantiation. */
+    private BenchmarkData() {
+    }
+
+    /**
+     * Writes a collection csv with a given number of rows to a temporary file.
+     *
+     * @param rows the number of rows
+     * @return the file, to be deleted by the caller
+     * @throws IOException if the file can not be written
+     */
+    static Path writeCsv(int rows) throws IOException {
+        if (rows != BUNDLED_ROWS) {
+            return new CatalogGenerator().writeTemp(rows);
+        }
+        Path file = Files.createTempFile("bench-collection", ".csv");
+        try (InputStream in = BenchmarkData.class.getResourceAsStream(COLLECTION)) {
+            if (in == null) {
+                throw new IOException("No such file " + COLLECTION);
+            }
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return file;
+    }
+
+    /**
+     * Loads a catalog with a given number of rows.
+     *
+     * @param rows the number of rows
+     * @return the catalog
+     * @throws IOException if the temporary csv can not be written
+     */
+    static GameCatalog catalog(int rows) throws IOException {
+        if (rows == BUNDLED_ROWS) {
+            return GamesLoader.loadCatalog(COLLECTION);
+        }
+        Path file = writeCsv(rows);
+        try {
+            return GamesLoader.loadCatalog(file.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares hashing games with the cached id and name hash against the reflection based
+ * equals and hashCode BoardGame used before.
+ *
+ * Each benchmark fills a set with the whole collection, as GamesLoader, GameList and the
+ * filter dedupe do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardGameIdentityBenchmark {
+    /** The games of the collection, in file order. */
+    private List<BoardGame> games;
+    /** The same games, hashed by reflection. */
+    private List<ReflectiveGame> reflective;
+
+    /**
+     * Loads the collection.
+     */
+    @Setup
+    public void setUp() {
+        games = GamesLoader.loadCatalog("/collection.csv").games();
+        reflective = new ArrayList<>(games.size());
+        for (BoardGame game : games) {
+            reflective.add(new ReflectiveGame(game));
+        }
+    }
+
+    /**
+     * Fills a hash set using the cached hash.
+     *
+     * @return the set
+     */
+    @Benchmark
+    public Set<BoardGame> cachedHashSet() {
+        return new HashSet<>(games);
+    }
+
+    /**
+     * Fills a hash set using reflection.
+     *
+     * @return the set
+     */
+    @Benchmark
+    public Set<ReflectiveGame> reflectionHashSet() {
+        return new HashSet<>(reflective);
+    }
+
+    /**
+     * Dedupes the games in order, as Filters does, using the cached hash.
+     *
+     * @return the set
+     */
+    @Benchmark
+    public Set<BoardGame> cachedLinkedHashSet() {
+        return new LinkedHashSet<>(games);
+    }
+
+    /**
+     * Dedupes the games in order, as Filters did, using reflection.
+     *
+     * @return the set
+     */
+    @Benchmark
+    public Set<ReflectiveGame> reflectionLinkedHashSet() {
+        return new LinkedHashSet<>(reflective);
+    }
+
+    /**
+     * A game with the old reflection based equals and hashCode.
+     */
+    public static final class ReflectiveGame {
+        /** The game. */
+        private final BoardGame game;
+
+        /**
+         * Wraps a game.
+         *
+         * @param game the game
+         */
+        ReflectiveGame(BoardGame game) {
+            this.game = game;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ReflectiveGame && EqualsBuilder.reflectionEquals(game,
+                    ((ReflectiveGame) obj).game, List.of("nameKey", "hash", "minPlayers",
+                            "maxPlayers", "maxPlayTime", "minPlayTime", "difficulty", "rank",
+                            "averageRating", "yearPublished"));
+        }
+
+        @Override
+        public int hashCode() {
+            return HashCodeBuilder.reflectionHashCode(game, List.of("nameKey", "hash",
+                    "minPlayers", "maxPlayers", "maxPlayTime", "minPlayTime", "difficulty",
+                    "rank", "averageRating", "yearPublished"));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package student;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Filters#controller} on single filters, one per operator, and on a filter of
+ * several terms, over both the list of games and the catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+    /** Rows in the collection. */
+    @Param({"753", "10000", "1000000"})
+    private int rows;
+
+    /** The filter to run. */
+    @Param({"minplayers==2", "minplayers!=2", "maxplayers<4", "maxplayers<=4", "rating>7",
+        "rating>=7", "name~=the", "name>=m",
+        "minplayers>=2,maxplayers<=4,rating>7,name~=the"})
+    private String filter;
+
+    /** The games, for the list controller. */
+    private List<BoardGame> games;
+    /** The catalog, for the bitmap controller. */
+    private GameCatalog catalog;
+    /** Every ordinal of the catalog. */
+    private OrdinalBitmap all;
+    /** The filter helper. */
+    private Filters filters;
+
+    /**
+     * Loads the collection.
+     *
+     * @throws IOException if the collection can not be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        catalog = BenchmarkData.catalog(rows);
+        games = catalog.games();
+        all = catalog.all();
+        filters = new Filters();
+    }
+
+    /**
+     * Filters the list of games.
+     *
+     * @return the matching games
+     */
+    @Benchmark
+    public List<BoardGame> listController() {
+        return filters.controller(filter, games);
+    }
+
+    /**
+     * Filters the catalog using its columns and indexes.
+     *
+     * @return the matching ordinals
+     */
+    @Benchmark
+    public OrdinalBitmap catalogController() {
+        return filters.controller(filter, catalog, all);
+    }
+}
@@ -0,0 +1,119 @@
+package student;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures adding games to and removing games from a {@link GameList}.
+ *
+ * Every call starts from an empty list, so removing also pays for filling the list first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameListBenchmark {
+    /** Rows in the collection. */
+    @Param({"753", "10000", "1000000"})
+    private int rows;
+
+    /** The games, as the filtered stream the list adds from. */
+    private List<BoardGame> games;
+    /** The list. */
+    private GameList list;
+    /** Name of the last game, the worst case for adding by name. */
+    private String lastName;
+    /** A range of about half the games. */
+    private String half;
+
+    /**
+     * Loads the collection.
+     *
+     * @throws IOException if the collection can not be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        GameCatalog catalog = BenchmarkData.catalog(rows);
+        games = catalog.games();
+        list = new GameList(catalog.registry());
+        lastName = games.get(games.size() - 1).getName();
+        half = "1-" + games.size() / 2;
+    }
+
+    /**
+     * Adds every game.
+     *
+     * @return the number of games in the list
+     */
+    @Benchmark
+    public int addAll() {
+        list.clear();
+        list.addToList(IGameList.ADD_ALL, games.stream());
+        return list.count();
+    }
+
+    /**
+     * Adds a range of games by position.
+     *
+     * @return the number of games in the list
+     */
+    @Benchmark
+    public int addRange() {
+        list.clear();
+        list.addToList(half, games.stream());
+        return list.count();
+    }
+
+    /**
+     * Adds one game by name.
+     *
+     * @return the number of games in the list
+     */
+    @Benchmark
+    public int addByName() {
+        list.clear();
+        list.addToList(lastName, games.stream());
+        return list.count();
+    }
+
+    /**
+     * Adds every game and removes a range of them by position.
+     *
+     * @return the number of games left in the list
+     */
+    @Benchmark
+    public int removeRange() {
+        list.clear();
+        list.addToList(IGameList.ADD_ALL, games.stream());
+        list.removeFromList(half);
+        return list.count();
+    }
+
+    /**
+     * Adds every game and removes them all.
+     *
+     * @return the number of games left in the list
+     */
+    @Benchmark
+    public int removeAll() {
+        list.clear();
+        list.addToList(IGameList.ADD_ALL, games.stream());
+        list.removeFromList(IGameList.ADD_ALL);
+        return list.count();
+    }
+}
@@ -0,0 +1,89 @@
+package student;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading a collection csv from disk, as a set of games and as a catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoaderBenchmark {
+    /** Rows in the collection. */
+    @Param({"753", "10000", "1000000"})
+    private int rows;
+
+    /** The csv file. */
+    private Path file;
+
+    /**
+     * Writes the csv.
+     *
+     * @throws IOException if the file can not be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        file = BenchmarkData.writeCsv(rows);
+    }
+
+    /**
+     * Deletes the csv.
+     *
+     * @throws IOException if the file can not be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Loads the games into a set.
+     *
+     * @return the games
+     */
+    @Benchmark
+    public Set<BoardGame> loadGamesFile() {
+        return GamesLoader.loadGamesFile(file.toString());
+    }
+
+    /**
+     * Loads the games into a catalog, building its columns and trigram index.
+     *
+     * @return the catalog
+     */
+    @Benchmark
+    public GameCatalog loadCatalog() {
+        return GamesLoader.loadCatalog(file.toString());
+    }
+
+    /**
+     * Loads the games into a catalog, parsing on every core.
+     *
+     * @return the load report
+     */
+    @Benchmark
+    public LoadReport loadCatalogParallel() {
+        return GamesLoader.loadCatalogParallel(file.toString(),
+                Runtime.getRuntime().availableProcessors());
+    }
+}
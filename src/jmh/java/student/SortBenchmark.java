@@ -0,0 +1,92 @@
+package student;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures sorting the whole collection on every column, with {@link Planner#sortGames} and
+ * by walking the catalog's sorted order.
+ *
+ * sortGames sorts in place, so each call sorts a fresh copy of the games in file order, and the
+ * copy is part of the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+    /** Rows in the collection. */
+    @Param({"753", "10000", "1000000"})
+    private int rows;
+
+    /** The column to sort on. */
+    @Param({"name", "rating", "yearpublished", "rank", "difficulty", "minplayers", "maxplayers",
+        "minplaytime", "maxplaytime"})
+    private String column;
+
+    /** The games, in file order. */
+    private List<BoardGame> games;
+    /** The catalog. */
+    private GameCatalog catalog;
+    /** The column to sort on. */
+    private GameData sortOn;
+
+    /**
+     * Loads the collection, and builds the column's index so it is not part of the time.
+     *
+     * @throws IOException if the collection can not be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        catalog = BenchmarkData.catalog(rows);
+        games = catalog.games();
+        sortOn = GameData.fromString(column);
+        catalog.sorted(catalog.all(), sortOn, true);
+    }
+
+    /**
+     * Sorts a copy of the games ascending.
+     *
+     * @return the sorted games
+     */
+    @Benchmark
+    public List<BoardGame> sortGamesAscending() {
+        return Planner.sortGames(new ArrayList<>(games), column, true);
+    }
+
+    /**
+     * Sorts a copy of the games descending.
+     *
+     * @return the sorted games
+     */
+    @Benchmark
+    public List<BoardGame> sortGamesDescending() {
+        return Planner.sortGames(new ArrayList<>(games), column, false);
+    }
+
+    /**
+     * Orders every ordinal by walking the column's index.
+     *
+     * @return the sorted ordinals
+     */
+    @Benchmark
+    public int[] catalogSorted() {
+        return catalog.sorted(catalog.all(), sortOn, true);
+    }
+}
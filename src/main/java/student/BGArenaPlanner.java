@@ -1,5 +1,8 @@
 package student;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
 
 /**
  * Main entry point for the program.
@@ -7,6 +10,14 @@ package student;
 public final class BGArenaPlanner {
     /** default location of collection - relative to the resources directory. */
     private static final String DEFAULT_COLLECTION = "/collection.csv";
+    /** system property naming a binary snapshot of the collection, so later starts skip parsing. */
+    private static final String SNAPSHOT_PROPERTY = "bgarena.snapshot";
+    /** argument that starts the HTTP server instead of the console. */
+    private static final String SERVER_FLAG = "--server";
+    /** argument that runs a file of queries instead of the console. */
+    private static final String BATCH_FLAG = "--batch";
+    /** argument that prints the column statistics instead of starting the console. */
+    private static final String STATS_FLAG = "--stats";
 
     /** private constructor as static class. */
     private BGArenaPlanner() {
@@ -16,11 +27,50 @@ public final class BGArenaPlanner {
     /**
      * Main entry point for the program.
      * 
-     * @param args command line arguments - not used at this time.
+     * @param args command line arguments - {@code --server [port]} serves the planner over HTTP
+     *             and {@code --batch input output [threads]} runs a file of queries, and
+     *             {@code --stats} prints the column statistics, instead of starting the
+     *             console. The metrics are registered over JMX in every mode, and a batch run
+     *             prints them when it is done. A snapshot of the collection is only kept when
+     *             {@code -Dbgarena.snapshot=file} names a file, which should be somewhere only
+     *             this user can write, as it is loaded as the catalog when it matches the csv.
      */
     public static void main(String[] args) {
-        Planner planner = new Planner(GamesLoader.loadGamesFile(DEFAULT_COLLECTION));
-        IGameList list = new GameList();
+        Metrics.register();
+        String snapshot = System.getProperty(SNAPSHOT_PROPERTY, "");
+        GameCatalog catalog = snapshot.isBlank() ? GamesLoader.loadCatalog(DEFAULT_COLLECTION)
+                : GamesLoader.loadCatalog(DEFAULT_COLLECTION, Path.of(snapshot));
+        if (args.length > 0 && SERVER_FLAG.equals(args[0])) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : PlannerServer.DEFAULT_PORT;
+            try {
+                PlannerServer server = new PlannerServer(new PlannerSessions(catalog),
+                        new InetSocketAddress(port));
+                server.start();
+                System.out.println("Serving the planner on port " + server.getPort());
+            } catch (IOException e) {
+                System.err.println("Could not start the server: " + e.getMessage());
+            }
+            return;
+        }
+        if (args.length > 2 && BATCH_FLAG.equals(args[0])) {
+            int threads = args.length > 3 ? Integer.parseInt(args[3])
+                    : Runtime.getRuntime().availableProcessors();
+            try {
+                BatchRunner.Report report = new BatchRunner(catalog, threads)
+                        .run(Path.of(args[1]), Path.of(args[2]));
+                System.out.println(report);
+                System.out.print(Metrics.global().dump());
+            } catch (IOException e) {
+                System.err.println("Could not run the batch: " + e.getMessage());
+            }
+            return;
+        }
+        if (args.length > 0 && STATS_FLAG.equals(args[0])) {
+            System.out.print(catalog.statsReport());
+            return;
+        }
+        Planner planner = new Planner(catalog);
+        IGameList list = new GameList(catalog.registry());
         ConsoleApp app = new ConsoleApp(list, planner);
         app.start();
     }
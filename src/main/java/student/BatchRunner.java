@@ -0,0 +1,253 @@
+package student;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+
+/**
+ * Runs a file of filter queries without the console, in parallel over one shared catalog.
+ *
+ * Each line is one query in the syntax the console's filter command takes (see
+ * {@link FilterQuery}), run on its own from the whole catalog. Blank lines and lines starting
+ * with # are skipped. The output has a block per query, in input order: a tab separated
+ * header line of {@code #}, the line number, the number of games, the microseconds taken and
+ * the query, followed by the names of the games found, one per line. A query that can not be
+ * parsed has {@code error} and the reason in place of its counts. The last line sums up the
+ * run.
+ *
+ * Queries are written as soon as they and every query before them are done, and only a few
+ * queries per thread are run ahead of the next one to write, so the games found are held for a
+ * bounded window of queries rather than the whole file.
+ */
+public final class BatchRunner {
+    /** Queries run ahead of the next one to write, per thread. */
+    private static final int WINDOW_PER_THREAD = 4;
+
+    /** The catalog every query runs on. */
+    private final GameCatalog catalog;
+    /** The number of threads to run queries on. */
+    private final int parallelism;
+
+    /**
+     * Creates a runner.
+     *
+     * @param catalog     the catalog to query
+     * @param parallelism the number of threads to run queries on
+     */
+    public BatchRunner(GameCatalog catalog, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.catalog = catalog;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * The outcome of one query.
+     */
+    private static final class Outcome {
+        /** The line the query was on, from 1. */
+        private final int line;
+        /** The query text. */
+        private final String query;
+        /** The games found, in order, null on error. */
+        private final List<BoardGame> games;
+        /** Time taken to run the query, in nanoseconds. */
+        private final long nanos;
+        /** Why the query failed, null if it ran. */
+        private final String error;
+
+        /**
+         * Constructor for an outcome.
+         *
+         * @param line  the line the query was on
+         * @param query the query text
+         * @param games the games found, null on error
+         * @param nanos the time taken
+         * @param error why the query failed, null if it ran
+         */
+        Outcome(int line, String query, List<BoardGame> games, long nanos, String error) {
+            this.line = line;
+            this.query = query;
+            this.games = games;
+            this.nanos = nanos;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Summary of a batch run.
+     */
+    public static final class Report {
+        /** The number of queries run. */
+        private final int queries;
+        /** The number of queries that could not be parsed. */
+        private final int errors;
+        /** The wall time of the run, writing included, in nanoseconds. */
+        private final long elapsedNanos;
+
+        /**
+         * Constructor for a report.
+         *
+         * @param queries      the number of queries run
+         * @param errors       the number of queries that could not be parsed
+         * @param elapsedNanos the wall time of the run
+         */
+        Report(int queries, int errors, long elapsedNanos) {
+            this.queries = queries;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Get the number of queries run.
+         *
+         * @return the number of queries
+         */
+        public int getQueries() {
+            return queries;
+        }
+
+        /**
+         * Get the number of queries that could not be parsed.
+         *
+         * @return the number of errors
+         */
+        public int getErrors() {
+            return errors;
+        }
+
+        /**
+         * Get the wall time of the run.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Get the throughput of the run.
+         *
+         * @return queries per second
+         */
+        public double queriesPerSecond() {
+            return elapsedNanos == 0 ? 0 : queries * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d queries, %d errors, %.1f ms, %.0f queries/s", queries, errors,
+                    elapsedNanos / 1e6, queriesPerSecond());
+        }
+    }
+
+    /**
+     * Runs every query in a file and writes the results.
+     *
+     * @param input  the file of queries, one per line
+     * @param output the file to write, replaced if it exists
+     * @return the summary of the run
+     * @throws IOException if a file can not be read or written
+     */
+    public Report run(Path input, Path output) throws IOException {
+        List<String> lines = Files.readAllLines(input, StandardCharsets.UTF_8);
+        List<Integer> numbers = new ArrayList<>();
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                numbers.add(i + 1);
+                queries.add(line);
+            }
+        }
+
+        long start = System.nanoTime();
+        int window = WINDOW_PER_THREAD * parallelism;
+        Deque<ForkJoinTask<Outcome>> pending = new ArrayDeque<>(window);
+        int errors = 0;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            int next = 0;
+            while (next < queries.size() || !pending.isEmpty()) {
+                while (next < queries.size() && pending.size() < window) {
+                    int line = numbers.get(next);
+                    String query = queries.get(next++);
+                    pending.add(pool.submit(() -> run(line, query)));
+                }
+                Outcome o = pending.poll().get();
+                if (o.error != null) {
+                    errors++;
+                }
+                write(out, o);
+            }
+            Report report = new Report(queries.size(), errors, System.nanoTime() - start);
+            out.write("# " + report);
+            out.newLine();
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted running queries", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed running queries", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes the block of one query.
+     *
+     * @param out the output
+     * @param o   the outcome of the query
+     * @throws IOException if the output can not be written
+     */
+    private static void write(BufferedWriter out, Outcome o) throws IOException {
+        out.write("# " + o.line + "\t");
+        if (o.error != null) {
+            out.write("error\t" + o.error);
+        } else {
+            out.write(o.games.size() + "\t" + o.nanos / 1000);
+        }
+        out.write("\t" + o.query);
+        out.newLine();
+        if (o.games != null) {
+            for (BoardGame g : o.games) {
+                out.write(g.getName());
+                out.newLine();
+            }
+        }
+    }
+
+    /**
+     * Runs one query from the whole catalog.
+     *
+     * @param line  the line the query was on
+     * @param query the query text
+     * @return the outcome
+     */
+    private Outcome run(int line, String query) {
+        long start = System.nanoTime();
+        FilterQuery parsed;
+        try {
+            parsed = FilterQuery.parse(query);
+        } catch (IllegalArgumentException e) {
+            return new Outcome(line, query, null, 0, e.getMessage());
+        }
+        Stream<BoardGame> games = parsed.run(new Planner(catalog, 0));
+        long listed = System.nanoTime();
+        List<BoardGame> found = games == null ? List.of() : games.toList();
+        Metrics.global().time(Metrics.Stage.MATERIALIZE, listed);
+        return new Outcome(line, query, found, System.nanoTime() - start, null);
+    }
+}
@@ -1,9 +1,6 @@
 package student;
 
-
-import java.util.List;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import java.util.Objects;
 
 /**
  * Data Class for the Board Game Object.
@@ -14,6 +11,8 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 public class BoardGame {
     /** Name of the board game. */
     private final String name;
+    /** Normalized name (case folded, no whitespace), used for sorting and searching by name. */
+    private final String nameKey;
     /** Unique identifier of the board game. */
     private final int id;
     /** Minimum number of players. */
@@ -32,6 +31,8 @@ public class BoardGame {
     private final double averageRating;
     /** Year the game was published. */
     private final int yearPublished;
+    /** Hash of the id and name, computed once as games are hashed on every set insert. */
+    private final int hash;
 
     /**
      * Constructor for the BoardGame object.
@@ -50,6 +51,7 @@ public class BoardGame {
     public BoardGame(String name, int id, int minPlayers, int maxPlayers, int minPlayTime,
             int maxPlayTime, double difficulty, int rank, double averageRating, int yearPublished) {
         this.name = name;
+        this.nameKey = NameKey.of(name);
         this.id = id; // purposefully kept hidden, so not used in filters or sorting
         this.minPlayers = minPlayers;
         this.maxPlayers = maxPlayers;
@@ -59,6 +61,7 @@ public class BoardGame {
         this.rank = rank;
         this.averageRating = averageRating;
         this.yearPublished = yearPublished;
+        this.hash = (17 * 37 + id) * 37 + (name == null ? 0 : name.hashCode());
     }
 
     /**
@@ -70,6 +73,18 @@ public class BoardGame {
         return name;
     }
 
+    /**
+     * Get the normalized name of the game.
+     * 
+     * The key is computed once, with whitespace removed and the case folded, so comparing two
+     * keys orders games by name without any string work.
+     * 
+     * @return normalized name of the game
+     */
+    public String getNameKey() {
+        return nameKey;
+    }
+
     /**
      * Get the unique identifier of the game.
      * 
@@ -205,33 +220,36 @@ public class BoardGame {
     /**
      * Check if two BoardGame objects are equal.
      * 
-     * Two BoardGame objects are considered equal if all fields are equal, except for the following:
-     * - minPlayers - maxPlayers - maxPlayTime - minPlayTime - difficulty - rank - averageRating -
-     * yearPublished
+     * Two BoardGame objects are considered equal if their id and name are equal. The following
+     * fields are not compared: - minPlayers - maxPlayers - maxPlayTime - minPlayTime - difficulty
+     * - rank - averageRating - yearPublished
      * 
      * @param obj object to compare
      * @return true if the objects are equal, false otherwise
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj, // exclude the following fields
-                List.of("minPlayers", "maxPlayers", "maxPlayTime", "minPlayTime", "difficulty",
-                        "rank", "averageRating", "yearPublished"));
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof BoardGame)) {
+            return false;
+        }
+        BoardGame other = (BoardGame) obj;
+        return hash == other.hash && id == other.id && Objects.equals(name, other.name);
     }
 
     /**
      * Get the hash code of the object.
      * 
-     * The hash code is based on all fields, except for the following: - minPlayers - maxPlayers -
-     * maxPlayTime - minPlayTime - difficulty - rank - averageRating - yearPublished
+     * The hash code is based on the id and name only, and is the same value the earlier
+     * reflection based hash gave, so hashed collections keep their iteration order.
      * 
      * @return hash code of the object
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this, // exclude the following fields
-                List.of("minPlayers", "maxPlayers", "maxPlayTime", "minPlayTime", "difficulty",
-                        "rank", "averageRating", "yearPublished"));
+        return hash;
     }
 
 
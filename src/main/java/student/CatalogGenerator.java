@@ -0,0 +1,306 @@
+package student;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Writes synthetic collections of any size, for scale tests and benchmarks.
+ *
+ * Output is a csv with the same 48 column header as the bundled collection, so it loads with
+ * {@link GamesLoader} like the real file. Each row is drawn from a random row of the bundled
+ * collection, which keeps its mix of values and how they go together (min players never above
+ * max players, unranked games, games without a year), and then varied: ratings, weights, play
+ * times, ranks and years are jittered within the ranges the real file uses, names are made of
+ * words from the real names, and ids are numbered from 1 so every game is distinct.
+ *
+ * The output only depends on the seed and the row count, so the same sizes can be reproduced
+ * anywhere. From the command line: {@code CatalogGenerator rows file [seed]}.
+ */
+public final class CatalogGenerator {
+    /** Seed used when none is given. */
+    public static final long DEFAULT_SEED = 20240501L;
+    /** The collection whose rows are drawn from. */
+    private static final String TEMPLATE = "/collection.csv";
+    /** Fields in every row. */
+    private static final int FIELDS = 48;
+
+    /** The header of the bundled collection. */
+    private final String header;
+    /** The fields of each row of the bundled collection. */
+    private final List<String[]> rows;
+    /** Every word of every real name, repeated as often as it is used. */
+    private final List<String> words;
+    /** File column of each GameData, by ordinal. */
+    private final int[] columns = new int[GameData.values().length];
+    /** The seed. */
+    private final long seed;
+
+    /**
+     * Creates a generator with the default seed.
+     */
+    public CatalogGenerator() {
+        this(DEFAULT_SEED);
+    }
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed the seed, the same seed always gives the same collection
+     */
+    public CatalogGenerator(long seed) {
+        this.seed = seed;
+        byte[] bytes;
+        try (InputStream in = CatalogGenerator.class.getResourceAsStream(TEMPLATE)) {
+            if (in == null) {
+                throw new IllegalStateException("No such file " + TEMPLATE);
+            }
+            bytes = in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + TEMPLATE, e);
+        }
+        CsvReader reader = new CsvReader(ByteBuffer.wrap(bytes), true);
+        reader.skipByteOrderMark();
+        reader.next();
+        String[] names = fields(reader);
+        this.header = String.join(",", names);
+        for (GameData col : GameData.values()) {
+            columns[col.ordinal()] = List.of(names).indexOf(col.getColumnName());
+        }
+        this.rows = new ArrayList<>();
+        this.words = new ArrayList<>();
+        while (reader.next()) {
+            if (reader.fieldCount() == FIELDS) {
+                String[] row = fields(reader);
+                rows.add(row);
+                for (String word : row[columns[GameData.NAME.ordinal()]].split(" ")) {
+                    if (!word.isEmpty()) {
+                        words.add(word);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes every field of the current record.
+     *
+     * @param reader the reader, positioned on a record
+     * @return the fields
+     */
+    private static String[] fields(CsvReader reader) {
+        String[] fields = new String[reader.fieldCount()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = reader.text(i);
+        }
+        return fields;
+    }
+
+    /**
+     * Writes a collection to a file.
+     *
+     * @param file the file, replaced if it exists
+     * @param rows the number of games
+     * @throws IOException if the file can not be written
+     */
+    public void write(Path file, long rows) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            write(out, rows);
+        }
+    }
+
+    /**
+     * Writes a collection to a temporary file.
+     *
+     * @param rows the number of games
+     * @return the file, to be deleted by the caller
+     * @throws IOException if the file can not be written
+     */
+    public Path writeTemp(long rows) throws IOException {
+        Path file = Files.createTempFile("catalog-" + rows + "-", ".csv");
+        write(file, rows);
+        return file;
+    }
+
+    /**
+     * Writes a collection.
+     *
+     * @param out  where to write the csv
+     * @param rows the number of games
+     * @throws IOException if the csv can not be written
+     */
+    public void write(Writer out, long rows) throws IOException {
+        if (rows < 0 || rows > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Rows must be between 0 and "
+                    + Integer.MAX_VALUE);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder line = new StringBuilder(512);
+        out.write(header);
+        out.write('\n');
+        for (long id = 1; id <= rows; id++) {
+            String[] row = this.rows.get(random.nextInt(this.rows.size())).clone();
+            vary(row, id, random);
+            line.setLength(0);
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                quote(line, row[i]);
+            }
+            line.append('\n');
+            out.append(line);
+        }
+    }
+
+    /**
+     * Varies a row drawn from the real collection into a new game.
+     *
+     * @param row    the fields, changed in place
+     * @param id     the id of the new game
+     * @param random the random source
+     */
+    private void vary(String[] row, long id, SplittableRandom random) {
+        set(row, GameData.ID, Long.toString(id));
+        set(row, GameData.NAME, name(random));
+
+        double rating = parse(row, GameData.RATING);
+        set(row, GameData.RATING, round(clamp(rating + random.nextGaussian() * 0.25, 1, 10)));
+        double weight = parse(row, GameData.DIFFICULTY);
+        if (weight > 0) {
+            double jittered = weight + random.nextGaussian() * 0.2;
+            set(row, GameData.DIFFICULTY, round(clamp(jittered, 1, 5)));
+        }
+        int rank = (int) parse(row, GameData.RANK);
+        if (rank > 0) {
+            int spread = Math.max(1, rank / 20);
+            set(row, GameData.RANK, Integer.toString(Math.max(1,
+                    rank + random.nextInt(-spread, spread + 1))));
+        }
+        // scale both play times together so min stays at or below max
+        double scale = 1 + random.nextInt(-2, 3) * 0.25;
+        for (GameData col : new GameData[] {GameData.MIN_TIME, GameData.MAX_TIME}) {
+            long minutes = Math.round(parse(row, col) * scale / 5) * 5;
+            set(row, col, Long.toString(minutes));
+        }
+        int year = (int) parse(row, GameData.YEAR);
+        if (year > 1900) {
+            set(row, GameData.YEAR, Integer.toString(Math.min(2025,
+                    year + random.nextInt(-3, 4))));
+        }
+    }
+
+    /**
+     * Makes a name from words of the real names, with as many words as a random real name.
+     *
+     * @param random the random source
+     * @return the name
+     */
+    private String name(SplittableRandom random) {
+        String model = rows.get(random.nextInt(rows.size()))[columns[GameData.NAME.ordinal()]];
+        int count = Math.max(1, model.split(" ").length);
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                name.append(' ');
+            }
+            name.append(words.get(random.nextInt(words.size())));
+        }
+        return name.toString();
+    }
+
+    /**
+     * Sets a field of a row.
+     *
+     * @param row   the fields
+     * @param col   the column
+     * @param value the new text
+     */
+    private void set(String[] row, GameData col, String value) {
+        row[columns[col.ordinal()]] = value;
+    }
+
+    /**
+     * Reads a numeric field of a row.
+     *
+     * @param row the fields
+     * @param col the column
+     * @return the value, 0 if the field is empty
+     */
+    private double parse(String[] row, GameData col) {
+        String text = row[columns[col.ordinal()]];
+        return text.isEmpty() ? 0 : Double.parseDouble(text);
+    }
+
+    /**
+     * Keeps a value in a range.
+     *
+     * @param value the value
+     * @param min   the smallest allowed
+     * @param max   the largest allowed
+     * @return the value, moved into the range
+     */
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Formats a value with the five decimals the real file uses.
+     *
+     * @param value the value
+     * @return the text
+     */
+    private static String round(double value) {
+        return Double.toString(Math.round(value * 100000) / 100000.0);
+    }
+
+    /**
+     * Appends a field, quoted if it holds a comma, quote or line break.
+     *
+     * @param line  the line so far
+     * @param field the field
+     */
+    private static void quote(StringBuilder line, String field) {
+        boolean needs = false;
+        for (int i = 0; i < field.length() && !needs; i++) {
+            char c = field.charAt(i);
+            needs = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needs) {
+            line.append(field);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    /**
+     * Writes a collection from the command line.
+     *
+     * @param args the number of rows, the file to write, and optionally the seed
+     * @throws IOException if the file can not be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CatalogGenerator rows file [seed]");
+            return;
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        new CatalogGenerator(seed).write(Path.of(args[1]), Long.parseLong(args[0]));
+    }
+}
@@ -0,0 +1,282 @@
+package student;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary snapshot of a {@link GameCatalog}, so a catalog can be loaded without parsing csv.
+ *
+ * The layout is a versioned header, a dictionary of the distinct names, and then one fixed
+ * width array per column, in catalog order:
+ *
+ * <pre>
+ * int magic, int version
+ * long source size, long source modified time, long source hash
+ * int rows, int names
+ * int[names + 1] name offsets, byte[] UTF-8 names
+ * int[rows] name numbers
+ * int[rows] id, min players, max players, min time, max time, rank, year
+ * double[rows] difficulty, rating
+ * </pre>
+ *
+ * The header records the csv it was built from. A snapshot whose source no longer matches is
+ * stale and is not loaded.
+ */
+final class CatalogSnapshot {
+    /** Marks a snapshot file, "BGCS". */
+    private static final int MAGIC = 0x42474353;
+    /** Bumped whenever the layout changes, so old snapshots are rebuilt. */
+    private static final int VERSION = 1;
+    /** Bytes before the name offsets. */
+    private static final int HEADER = 4 + 4 + 8 + 8 + 8 + 4 + 4;
+    /** Int columns per row. */
+    private static final int INTS = 7;
+    /** Double columns per row. */
+    private static final int DOUBLES = 2;
+    /** Bytes to hash at once. */
+    private static final int HASH_WINDOW = 1 << 26;
+
+    /** private constructor to prevent instantiation. */
+    private CatalogSnapshot() {
+    }
+
+    /**
+     * Identifies the exact csv a snapshot was built from.
+     */
+    static final class Fingerprint {
+        /** Size of the csv in bytes. */
+        private final long size;
+        /** Last modified time in milliseconds, 0 for a classpath resource. */
+        private final long modified;
+        /** CRC-32C of the csv bytes. */
+        private final long hash;
+
+        /**
+         * Constructor for a fingerprint.
+         *
+         * @param size     size of the csv in bytes
+         * @param modified last modified time in milliseconds
+         * @param hash     hash of the csv bytes
+         */
+        Fingerprint(long size, long modified, long hash) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+
+        /**
+         * Computes the fingerprint of a csv source.
+         *
+         * @param source   the csv data
+         * @param modified last modified time of the csv, 0 if unknown
+         * @return the fingerprint
+         * @throws IOException if the data can not be read
+         */
+        static Fingerprint of(CsvSource source, long modified) throws IOException {
+            CRC32C crc = new CRC32C();
+            long size = source.size();
+            for (long pos = 0; pos < size; pos += HASH_WINDOW) {
+                crc.update(source.map(pos, (int) Math.min(HASH_WINDOW, size - pos)));
+            }
+            return new Fingerprint(size, modified, crc.getValue());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) obj;
+            return size == other.size && modified == other.modified && hash == other.hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 * 31 + Long.hashCode(modified) * 31
+                    + Long.hashCode(hash);
+        }
+    }
+
+    /**
+     * Writes a snapshot of a catalog. The file is replaced in one step, so a reader never
+     * sees half a snapshot.
+     *
+     * @param catalog the catalog
+     * @param source  the fingerprint of the csv the catalog was loaded from
+     * @param file    the snapshot file
+     * @throws IOException if the file can not be written
+     */
+    static void write(GameCatalog catalog, Fingerprint source, Path file) throws IOException {
+        int rows = catalog.size();
+        Map<String, Integer> numbers = new HashMap<>();
+        List<byte[]> names = new ArrayList<>();
+        int[] nameOf = new int[rows];
+        long nameBytes = 0;
+        for (int i = 0; i < rows; i++) {
+            String name = catalog.get(i).getName();
+            Integer number = numbers.get(name);
+            if (number == null) {
+                number = names.size();
+                numbers.put(name, number);
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                names.add(bytes);
+                nameBytes += bytes.length;
+            }
+            nameOf[i] = number;
+        }
+
+        long total = HEADER + 4L * (names.size() + 1) + nameBytes
+                + (long) rows * (4 + 4 * INTS + 8 * DOUBLES);
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Catalog too large for a snapshot");
+        }
+        ByteBuffer buf = ByteBuffer.allocate((int) total);
+        buf.putInt(MAGIC).putInt(VERSION);
+        buf.putLong(source.size).putLong(source.modified).putLong(source.hash);
+        buf.putInt(rows).putInt(names.size());
+        int offset = 0;
+        for (byte[] name : names) {
+            buf.putInt(offset);
+            offset += name.length;
+        }
+        buf.putInt(offset);
+        for (byte[] name : names) {
+            buf.put(name);
+        }
+        for (int n : nameOf) {
+            buf.putInt(n);
+        }
+        for (GameData col : intColumns()) {
+            for (int i = 0; i < rows; i++) {
+                buf.putInt((int) catalog.value(i, col));
+            }
+        }
+        for (GameData col : doubleColumns()) {
+            for (int i = 0; i < rows; i++) {
+                buf.putDouble(catalog.value(i, col));
+            }
+        }
+        buf.flip();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Loads a snapshot, if it is there and was built from the given csv.
+     *
+     * @param file   the snapshot file
+     * @param source the fingerprint of the csv
+     * @return the catalog, or null if the snapshot is missing, stale or damaged
+     */
+    static GameCatalog read(Path file, Fingerprint source) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION
+                    || !source.equals(new Fingerprint(buf.getLong(), buf.getLong(),
+                            buf.getLong()))) {
+                return null;
+            }
+            int rows = buf.getInt();
+            int count = buf.getInt();
+            if (rows < 0 || count < 0 || count > rows
+                    || (long) HEADER + 4L * (count + 1) > size) {
+                return null;
+            }
+            int[] offsets = new int[count + 1];
+            for (int i = 0; i <= count; i++) {
+                offsets[i] = buf.getInt();
+            }
+            int base = buf.position();
+            long expected = (long) base + offsets[count]
+                    + (long) rows * (4 + 4 * INTS + 8 * DOUBLES);
+            if (expected != size) {
+                return null;
+            }
+            String[] names = new String[count];
+            byte[] bytes = new byte[64];
+            for (int i = 0; i < count; i++) {
+                int len = offsets[i + 1] - offsets[i];
+                if (len < 0) {
+                    return null;
+                }
+                if (bytes.length < len) {
+                    bytes = new byte[len];
+                }
+                buf.get(base + offsets[i], bytes, 0, len);
+                names[i] = new String(bytes, 0, len, StandardCharsets.UTF_8);
+            }
+            buf.position(base + offsets[count]);
+
+            int nameStart = buf.position();
+            int intStart = nameStart + 4 * rows;
+            int doubleStart = intStart + 4 * INTS * rows;
+            List<BoardGame> games = new ArrayList<>(rows);
+            int[] ints = new int[INTS];
+            for (int i = 0; i < rows; i++) {
+                int name = buf.getInt(nameStart + 4 * i);
+                if (name < 0 || name >= count) {
+                    return null;
+                }
+                for (int c = 0; c < INTS; c++) {
+                    ints[c] = buf.getInt(intStart + 4 * (c * rows + i));
+                }
+                double difficulty = buf.getDouble(doubleStart + 8 * i);
+                double rating = buf.getDouble(doubleStart + 8 * (rows + i));
+                games.add(new BoardGame(names[name], ints[0], ints[1], ints[2], ints[3], ints[4],
+                        difficulty, ints[5], rating, ints[6]));
+            }
+            return GameCatalog.of(games);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the int columns, in the order they are stored.
+     *
+     * @return id, min players, max players, min time, max time, rank and year
+     */
+    private static GameData[] intColumns() {
+        return new GameData[] {GameData.ID, GameData.MIN_PLAYERS, GameData.MAX_PLAYERS,
+                GameData.MIN_TIME, GameData.MAX_TIME, GameData.RANK, GameData.YEAR};
+    }
+
+    /**
+     * Get the double columns, in the order they are stored.
+     *
+     * @return difficulty and rating
+     */
+    private static GameData[] doubleColumns() {
+        return new GameData[] {GameData.DIFFICULTY, GameData.RATING};
+    }
+}
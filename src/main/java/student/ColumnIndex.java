@@ -0,0 +1,202 @@
+package student;
+
+import java.util.Arrays;
+
+/**
+ * Sorted secondary index over one numeric column of a {@link GameCatalog}.
+ *
+ * The index is the permutation of game ordinals that puts the column in ascending order (ties
+ * are kept in ordinal order), along with the column values in that same order. Any range
+ * predicate ({@code >, >=, <, <=, ==}) is then two binary searches, and the matching games are
+ * a contiguous slice of the permutation. Not equals is the two slices either side of the equal
+ * range.
+ */
+public final class ColumnIndex implements SortOrder {
+    /** The column the index is built on. */
+    private final GameData column;
+    /** Game ordinals, in ascending column order. */
+    private final int[] order;
+    /** Column values, in ascending order, so keys[i] is the value of order[i]. */
+    private final double[] keys;
+
+    /**
+     * Constructor for the index. Use {@link #build(GameCatalog, GameData)} to create one.
+     *
+     * @param column the indexed column
+     * @param order  the sorted permutation of ordinals
+     * @param keys   the column values in sorted order
+     */
+    private ColumnIndex(GameData column, int[] order, double[] keys) {
+        this.column = column;
+        this.order = order;
+        this.keys = keys;
+    }
+
+    /**
+     * Builds the index for one numeric column of a catalog.
+     *
+     * @param catalog the catalog to index
+     * @param column  the numeric column to index
+     * @return the new index
+     */
+    static ColumnIndex build(GameCatalog catalog, GameData column) {
+        int n = catalog.size();
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = catalog.value(i, column);
+        }
+        int[] order = catalog.allOrdinals();
+        sort(order, values, new int[n], 0, n);
+        double[] keys = new double[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = values[order[i]];
+        }
+        return new ColumnIndex(column, order, keys);
+    }
+
+    /**
+     * Stable merge sort of ordinals by their value, without boxing.
+     *
+     * @param ords   the ordinals to sort
+     * @param values the values, indexed by ordinal
+     * @param tmp    scratch space, at least as long as ords
+     * @param from   first position to sort, inclusive
+     * @param to     last position to sort, exclusive
+     */
+    private static void sort(int[] ords, double[] values, int[] tmp, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(ords, values, tmp, from, mid);
+        sort(ords, values, tmp, mid, to);
+        if (values[ords[mid - 1]] <= values[ords[mid]]) {
+            return; // already in order
+        }
+        System.arraycopy(ords, from, tmp, from, to - from);
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < mid && values[tmp[i]] <= values[tmp[j]])) {
+                ords[k] = tmp[i++];
+            } else {
+                ords[k] = tmp[j++];
+            }
+        }
+    }
+
+    /**
+     * Get the indexed column.
+     *
+     * @return the column
+     */
+    public GameData getColumn() {
+        return column;
+    }
+
+    /**
+     * Get the number of games in the index.
+     *
+     * @return the number of games
+     */
+    @Override
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * Get the ordinal at a position in sorted order.
+     *
+     * @param position the position, 0 is the smallest value
+     * @return the ordinal of the game
+     */
+    @Override
+    public int ordinalAt(int position) {
+        return order[position];
+    }
+
+    /**
+     * Checks if two positions have equal keys.
+     *
+     * @param a the first position
+     * @param b the second position
+     * @return true if the keys are equal
+     */
+    @Override
+    public boolean sameKey(int a, int b) {
+        return keys[a] == keys[b];
+    }
+
+    /**
+     * Finds the first position whose value is greater than or equal to the given value.
+     *
+     * @param value the value to search for
+     * @return the position, size() if every value is smaller
+     */
+    public int lowerBound(double value) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Finds the first position whose value is strictly greater than the given value.
+     *
+     * @param value the value to search for
+     * @return the position, size() if no value is greater
+     */
+    public int upperBound(double value) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Counts the games matching a term, without building the result.
+     *
+     * @param term a numeric term on this column
+     * @return the number of matching games
+     */
+    public int count(FilterTerm term) {
+        int from = lowerBound(term.getLow());
+        int to = Math.max(from, upperBound(term.getHigh()));
+        return term.isNegated() ? keys.length - (to - from) : to - from;
+    }
+
+    /**
+     * Finds the games matching a term.
+     *
+     * @param term a numeric term on this column
+     * @return the ordinals of the matching games, in ascending ordinal order
+     */
+    public int[] select(FilterTerm term) {
+        int from = lowerBound(term.getLow());
+        int to = Math.max(from, upperBound(term.getHigh()));
+        int[] res;
+        if (term.isNegated()) {
+            res = new int[keys.length - (to - from)];
+            System.arraycopy(order, 0, res, 0, from);
+            System.arraycopy(order, to, res, from, keys.length - to);
+        } else {
+            res = Arrays.copyOfRange(order, from, to);
+        }
+        Arrays.sort(res);
+        return res;
+    }
+}
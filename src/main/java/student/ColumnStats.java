@@ -0,0 +1,335 @@
+package student;
+
+import java.util.Arrays;
+
+/**
+ * Statistics of one numeric column of a {@link GameCatalog}: min, max, distinct values, zero
+ * and missing (NaN) counts, and an equi-depth histogram.
+ *
+ * The histogram cuts the sorted values into buckets of about the same number of games, so
+ * crowded ranges get narrow buckets and sparse ones wide buckets. Each bucket keeps its lowest
+ * and highest value, its games and its distinct values, which is enough to estimate how many
+ * games a filter term matches without reading the column: whole buckets inside the range count
+ * in full, a bucket the range cuts counts in proportion to the part it covers, and an equals
+ * term counts a bucket's games over its distinct values. For whole number columns the part
+ * covered counts the whole numbers in it, so a range ending on a bucket's edge still counts the
+ * games on that edge.
+ *
+ * Statistics are built once, when the catalog is, and never change.
+ */
+public final class ColumnStats {
+    /** Most buckets in a histogram. */
+    public static final int DEFAULT_BUCKETS = 32;
+
+    /** The column. */
+    private final GameData column;
+    /** True if the column holds whole numbers. */
+    private final boolean integral;
+    /** Games in the catalog. */
+    private final int count;
+    /** Games with no value (NaN). */
+    private final int nulls;
+    /** Games with a value of 0, which the collection uses for unknown. */
+    private final int zeros;
+    /** Distinct values, not counting NaN. */
+    private final int distinct;
+    /** Lowest value of each bucket. */
+    private final double[] lows;
+    /** Highest value of each bucket. */
+    private final double[] highs;
+    /** Games in each bucket. */
+    private final int[] counts;
+    /** Distinct values in each bucket. */
+    private final int[] distincts;
+
+    /**
+     * Constructor for the statistics. Use {@link #build(GameData, double[], int)} to get them.
+     *
+     * @param column    the column
+     * @param count     games in the catalog
+     * @param nulls     games with no value
+     * @param zeros     games with a value of 0
+     * @param distinct  distinct values
+     * @param lows      lowest value of each bucket
+     * @param highs     highest value of each bucket
+     * @param counts    games in each bucket
+     * @param distincts distinct values in each bucket
+     */
+    private ColumnStats(GameData column, int count, int nulls, int zeros, int distinct,
+            double[] lows, double[] highs, int[] counts, int[] distincts) {
+        this.column = column;
+        this.integral = GameCatalog.isIntColumn(column);
+        this.count = count;
+        this.nulls = nulls;
+        this.zeros = zeros;
+        this.distinct = distinct;
+        this.lows = lows;
+        this.highs = highs;
+        this.counts = counts;
+        this.distincts = distincts;
+    }
+
+    /**
+     * Builds the statistics of a column.
+     *
+     * @param column  the column
+     * @param values  the column values, sorted in place
+     * @param buckets the most buckets in the histogram
+     * @return the statistics
+     */
+    static ColumnStats build(GameData column, double[] values, int buckets) {
+        Arrays.parallelSort(values); // NaN sorts last, small arrays sort on this thread
+        int n = values.length;
+        int valued = n;
+        while (valued > 0 && Double.isNaN(values[valued - 1])) {
+            valued--;
+        }
+        int zeros = 0;
+        int distinct = 0;
+        for (int i = 0; i < valued; i++) {
+            if (values[i] == 0) {
+                zeros++;
+            }
+            if (i == 0 || values[i] != values[i - 1]) {
+                distinct++;
+            }
+        }
+
+        // cut at equal ranks, then move each cut past equal values so a value is in one bucket
+        int b = Math.min(buckets, valued);
+        double[] lows = new double[b];
+        double[] highs = new double[b];
+        int[] counts = new int[b];
+        int[] distincts = new int[b];
+        int k = 0;
+        int from = 0;
+        for (int i = 0; i < b && from < valued; i++) {
+            int to = (int) ((long) valued * (i + 1) / b);
+            to = Math.max(to, from + 1);
+            while (to < valued && values[to] == values[to - 1]) {
+                to++;
+            }
+            lows[k] = values[from];
+            highs[k] = values[to - 1];
+            counts[k] = to - from;
+            int d = 1;
+            for (int j = from + 1; j < to; j++) {
+                if (values[j] != values[j - 1]) {
+                    d++;
+                }
+            }
+            distincts[k] = d;
+            k++;
+            from = to;
+        }
+        return new ColumnStats(column, n, n - valued, zeros, distinct, Arrays.copyOf(lows, k),
+                Arrays.copyOf(highs, k), Arrays.copyOf(counts, k), Arrays.copyOf(distincts, k));
+    }
+
+    /**
+     * Estimates how many games of the catalog a term matches.
+     *
+     * @param term a term on this column
+     * @return the estimate, from 0 to the number of games
+     * @throws IllegalArgumentException if the term is on another column
+     */
+    public int estimate(FilterTerm term) {
+        if (term.getColumn() != column) {
+            throw new IllegalArgumentException("Term " + term + " is not on " + column);
+        }
+        double inRange = term.getLow() == term.getHigh() ? equal(term.getLow())
+                : range(term.getLow(), term.getHigh());
+        double matches = term.isNegated() ? count - nulls - inRange : inRange;
+        return (int) Math.max(0, Math.min(count, Math.round(matches)));
+    }
+
+    /**
+     * Estimates the fraction of games a term matches.
+     *
+     * @param term a term on this column
+     * @return the selectivity, from 0 to 1
+     */
+    public double selectivity(FilterTerm term) {
+        return count == 0 ? 0 : (double) estimate(term) / count;
+    }
+
+    /**
+     * Estimates the games with a value.
+     *
+     * @param value the value
+     * @return the estimate
+     */
+    private double equal(double value) {
+        for (int i = 0; i < counts.length; i++) {
+            if (value >= lows[i] && value <= highs[i]) {
+                return (double) counts[i] / distincts[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Estimates the games with a value in a range, assuming values are spread evenly within
+     * each bucket, over the whole numbers of a bucket for whole number columns.
+     *
+     * @param low  the lowest value, inclusive
+     * @param high the highest value, inclusive
+     * @return the estimate
+     */
+    private double range(double low, double high) {
+        double matches = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (high < lows[i] || low > highs[i]) {
+                continue;
+            }
+            if (low <= lows[i] && high >= highs[i]) {
+                matches += counts[i];
+            } else if (lows[i] == highs[i]) {
+                matches += counts[i]; // one value, and the range holds it
+            } else if (integral) {
+                double covered = Math.floor(Math.min(high, highs[i]))
+                        - Math.ceil(Math.max(low, lows[i])) + 1;
+                matches += counts[i] * Math.max(covered, 0) / (highs[i] - lows[i] + 1);
+            } else {
+                double covered = Math.min(high, highs[i]) - Math.max(low, lows[i]);
+                matches += counts[i] * Math.max(covered, 0) / (highs[i] - lows[i]);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Get the column.
+     *
+     * @return the column
+     */
+    public GameData getColumn() {
+        return column;
+    }
+
+    /**
+     * Get the number of games in the catalog.
+     *
+     * @return the number of games
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Get the number of games with no value.
+     *
+     * @return the number of NaN values, always 0 for whole number columns
+     */
+    public int getNulls() {
+        return nulls;
+    }
+
+    /**
+     * Get the number of games with a value of 0.
+     *
+     * @return the number of zeros
+     */
+    public int getZeros() {
+        return zeros;
+    }
+
+    /**
+     * Get the number of distinct values.
+     *
+     * @return the number of distinct values, not counting NaN
+     */
+    public int getDistinct() {
+        return distinct;
+    }
+
+    /**
+     * Get the lowest value.
+     *
+     * @return the minimum, NaN if no game has a value
+     */
+    public double getMin() {
+        return lows.length == 0 ? Double.NaN : lows[0];
+    }
+
+    /**
+     * Get the highest value.
+     *
+     * @return the maximum, NaN if no game has a value
+     */
+    public double getMax() {
+        return highs.length == 0 ? Double.NaN : highs[highs.length - 1];
+    }
+
+    /**
+     * Get the number of buckets in the histogram.
+     *
+     * @return the number of buckets
+     */
+    public int getBuckets() {
+        return counts.length;
+    }
+
+    /**
+     * Get the lowest value of a bucket.
+     *
+     * @param bucket the bucket, from 0
+     * @return the value
+     */
+    public double getBucketLow(int bucket) {
+        return lows[bucket];
+    }
+
+    /**
+     * Get the highest value of a bucket.
+     *
+     * @param bucket the bucket, from 0
+     * @return the value
+     */
+    public double getBucketHigh(int bucket) {
+        return highs[bucket];
+    }
+
+    /**
+     * Get the number of games in a bucket.
+     *
+     * @param bucket the bucket, from 0
+     * @return the number of games
+     */
+    public int getBucketCount(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * Get the number of distinct values in a bucket.
+     *
+     * @param bucket the bucket, from 0
+     * @return the number of distinct values
+     */
+    public int getBucketDistinct(int bucket) {
+        return distincts[bucket];
+    }
+
+    /**
+     * Get the statistics as one line, without the histogram.
+     *
+     * @return the text
+     */
+    @Override
+    public String toString() {
+        return String.format("%-14s %10d %12s %12s %10d %10d %8d %8d", column.getColumnName(),
+                count, format(getMin()), format(getMax()), distinct, zeros, nulls,
+                counts.length);
+    }
+
+    /**
+     * Formats a value without a fraction when it has none.
+     *
+     * @param value the value
+     * @return the text
+     */
+    private static String format(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value)
+                ? Long.toString((long) value) : String.format("%.4f", value);
+    }
+}
@@ -132,34 +132,37 @@ public class ConsoleApp {
                 printOutput("%s%n", ConsoleText.FILTERED_CLEAR);
                 return; // leave early.
             }
-            if (filter.contains(ConsoleText.CMD_SORT_OPTION.toString())) {
-                // break it up, figure out sort
-                boolean ascending = true; // default
-                String[] parts = filter.split(ConsoleText.CMD_SORT_OPTION.toString());
-                if (parts.length == 2) {
-                    String sort = parts[1];
-                    if (sort.contains(ConsoleText.CMD_SORT_OPTION_DIRECTION_ASC.toString())) {
-                        ascending = true;
-                        sort = sort.substring(0,
-                                sort.indexOf(ConsoleText.CMD_SORT_OPTION_DIRECTION_ASC.toString()));
-                    } else if (sort
-                            .contains(ConsoleText.CMD_SORT_OPTION_DIRECTION_DESC.toString())) {
-                        ascending = false;
-                        sort = sort.substring(0, sort
-                                .indexOf(ConsoleText.CMD_SORT_OPTION_DIRECTION_DESC.toString()));
-                    }
-                    try {
-                        sortON = GameData.fromString(sort);
-                    } catch (IllegalArgumentException e) {
-                        printOutput("%s%n", ConsoleText.INVALID);
-                        return; // leave early.
-                    }
+            if (filter.equalsIgnoreCase(ConsoleText.CMD_BACK.toString())) {
+                if (!planner.back()) {
+                    printOutput("%s%n", ConsoleText.NOTHING_TO_UNDO);
+                    return; // leave early.
                 }
-
-                result = planner.filter(parts[0], sortON, ascending);  // NOTICE: sortON and ascending are used here.
-            } else {
-                result = planner.filter(filter); // default sort
+                printOutput("%s%n", ConsoleText.FILTERED_BACK);
+                // show the stage as it was, in its own sort order and with its info column
+                GameData restored = planner.getHistory().sortOn();
+                printFilterStream(planner.getCurList(), restored == null ? sortON : restored);
+                return; // leave early.
+            }
+            boolean explain = filter.startsWith(ConsoleText.CMD_EXPLAIN.toString());
+            if (explain) {
+                filter = filter.substring(ConsoleText.CMD_EXPLAIN.toString().length());
+            }
+            FilterQuery query;
+            try {
+                query = FilterQuery.parse(filter, ConsoleText.CMD_SORT_OPTION.toString(),
+                        ConsoleText.CMD_SORT_OPTION_DIRECTION_ASC.toString(),
+                        ConsoleText.CMD_SORT_OPTION_DIRECTION_DESC.toString());
+            } catch (IllegalArgumentException e) {
+                printOutput("%s%n", ConsoleText.INVALID);
+                return; // leave early.
+            }
+            if (explain) {
+                printOutput("%s", planner.explain(query.getFilter(), query.getSortOn(),
+                        query.isAscending()));
+                return; // leave early, the working set is unchanged.
             }
+            sortON = query.getSortOn();
+            result = query.run(planner);
         } else {
             printOutput("%s%n", ConsoleText.NO_FILTER);
             result = planner.filter("");
@@ -328,11 +331,11 @@ public class ConsoleApp {
         /** various commands and text. */
         WELCOME, HELP, INVALID, GOODBYE, PROMPT, NO_FILTER, NO_GAMES_LIST, FILTERED_CLEAR, LIST_HELP, FILTER_HELP,
         /** commands continued. */
-        INVALID_LIST, EASTER_EGG, CMD_EASTER_EGG,
+        INVALID_LIST, EASTER_EGG, CMD_EASTER_EGG, FILTERED_BACK, NOTHING_TO_UNDO,
         /** commands general. */
         CMD_EXIT, CMD_HELP, CMD_QUESTION, CMD_FILTER, CMD_LIST,
         /** commands specific to lists and filters. */
-        CMD_SHOW, CMD_ADD, CMD_REMOVE, CMD_CLEAR, CMD_SAVE,
+        CMD_SHOW, CMD_ADD, CMD_REMOVE, CMD_CLEAR, CMD_SAVE, CMD_BACK, CMD_EXPLAIN,
         /** more options on commands. */
         CMD_OPTION_ALL, CMD_SORT_OPTION, CMD_SORT_OPTION_DIRECTION_ASC, CMD_SORT_OPTION_DIRECTION_DESC;
 
@@ -0,0 +1,290 @@
+package student;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * One pass, quote aware tokenizer for UTF-8 csv data held in a {@link ByteBuffer}.
+ *
+ * Records follow RFC 4180: fields are split on commas, records end at LF or CRLF, and a field
+ * in double quotes may hold commas, line breaks and doubled quotes. The reader only records
+ * where each field starts and ends. Text and numbers are decoded when a field is asked for, so
+ * columns that are never read cost nothing.
+ *
+ * A buffer may be a window onto a larger file. If it is not the last window, a record that runs
+ * off the end is left unread, and {@link #position()} tells the caller where to start the next
+ * window.
+ */
+final class CsvReader {
+    /** Exact powers of ten, for the fast double path. */
+    private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+    /** Most significant digits that are exact in a double mantissa. */
+    private static final int MAX_DIGITS = 15;
+
+    /** The data. */
+    private final ByteBuffer buf;
+    /** End of the data. */
+    private final int limit;
+    /** True if the data ends with the end of the file. */
+    private final boolean last;
+    /** Start of the next record to read. */
+    private int pos;
+
+    /** Start of each field of the current record. */
+    private int[] starts = new int[64];
+    /** End of each field of the current record, exclusive of any closing quote. */
+    private int[] ends = new int[64];
+    /** True for fields that were quoted, and may hold doubled quotes. */
+    private boolean[] quoted = new boolean[64];
+    /** Number of fields in the current record. */
+    private int fields;
+    /** Scratch space for decoding text. */
+    private byte[] scratch = new byte[128];
+
+    /**
+     * Constructor for a reader over a buffer, from its position to its limit.
+     *
+     * @param buf  the csv data
+     * @param last true if the buffer holds the end of the file
+     */
+    CsvReader(ByteBuffer buf, boolean last) {
+        this.buf = buf;
+        this.limit = buf.limit();
+        this.last = last;
+        this.pos = buf.position();
+    }
+
+    /**
+     * Skips a UTF-8 byte order mark, if the data starts with one.
+     */
+    void skipByteOrderMark() {
+        if (limit - pos >= 3 && buf.get(pos) == (byte) 0xEF && buf.get(pos + 1) == (byte) 0xBB
+                && buf.get(pos + 2) == (byte) 0xBF) {
+            pos += 3;
+        }
+    }
+
+    /**
+     * Get the start of the first record that has not been read.
+     *
+     * @return the position in the buffer
+     */
+    int position() {
+        return pos;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return true if a record was read, false at the end of the data or if the rest of the
+     *         buffer is an incomplete record
+     */
+    boolean next() {
+        if (pos >= limit) {
+            return false;
+        }
+        fields = 0;
+        int p = pos;
+        while (true) {
+            int start;
+            int end;
+            boolean isQuoted = p < limit && buf.get(p) == '"';
+            if (isQuoted) {
+                start = ++p;
+                while (true) {
+                    if (p >= limit) {
+                        return incomplete();
+                    }
+                    if (buf.get(p) == '"') {
+                        if (p + 1 < limit && buf.get(p + 1) == '"') {
+                            p += 2;
+                            continue;
+                        }
+                        if (p + 1 >= limit && !last) {
+                            return incomplete(); // may be the first half of a doubled quote
+                        }
+                        break;
+                    }
+                    p++;
+                }
+                end = p++;
+                // be lenient about text after the closing quote
+                while (p < limit && !isDelimiter(buf.get(p))) {
+                    p++;
+                }
+            } else {
+                start = p;
+                while (p < limit && !isDelimiter(buf.get(p))) {
+                    p++;
+                }
+                end = p;
+            }
+            addField(start, end, isQuoted);
+
+            if (p >= limit) {
+                if (!last) {
+                    return incomplete();
+                }
+                pos = p;
+                return true;
+            }
+            byte b = buf.get(p++);
+            if (b == ',') {
+                continue;
+            }
+            if (b == '\r') {
+                if (p < limit && buf.get(p) == '\n') {
+                    p++;
+                } else if (p >= limit && !last) {
+                    return incomplete(); // the LF may be in the next window
+                }
+            }
+            pos = p;
+            return true;
+        }
+    }
+
+    /**
+     * Checks if a byte ends an unquoted field.
+     *
+     * @param b the byte
+     * @return true for a comma or line break
+     */
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '\n' || b == '\r';
+    }
+
+    /**
+     * Leaves the current record unread, as it runs off the end of the buffer.
+     *
+     * @return false, so next() can return it
+     */
+    private boolean incomplete() {
+        fields = 0;
+        return false;
+    }
+
+    /**
+     * Records a field of the current record.
+     *
+     * @param start    the first byte
+     * @param end      the end, exclusive
+     * @param isQuoted true if the field was quoted
+     */
+    private void addField(int start, int end, boolean isQuoted) {
+        if (fields == starts.length) {
+            starts = Arrays.copyOf(starts, fields * 2);
+            ends = Arrays.copyOf(ends, fields * 2);
+            quoted = Arrays.copyOf(quoted, fields * 2);
+        }
+        starts[fields] = start;
+        ends[fields] = end;
+        quoted[fields] = isQuoted;
+        fields++;
+    }
+
+    /**
+     * Get the number of fields in the current record.
+     *
+     * @return the number of fields
+     */
+    int fieldCount() {
+        return fields;
+    }
+
+    /**
+     * Decodes a field as text.
+     *
+     * @param field the index of the field
+     * @return the text, with doubled quotes in quoted fields collapsed
+     */
+    String text(int field) {
+        int start = starts[field];
+        int len = ends[field] - start;
+        if (scratch.length < len) {
+            scratch = new byte[Math.max(len, scratch.length * 2)];
+        }
+        int k = 0;
+        for (int i = 0; i < len; i++) {
+            byte b = buf.get(start + i);
+            scratch[k++] = b;
+            if (b == '"' && quoted[field]) {
+                i++; // skip the second quote of the pair
+            }
+        }
+        return new String(scratch, 0, k, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a field as an int, with the same rules as {@link Integer#parseInt(String)}.
+     *
+     * @param field the index of the field
+     * @return the value
+     * @throws NumberFormatException if the field is not an int
+     */
+    int parseInt(int field) {
+        int start = starts[field];
+        int end = ends[field];
+        boolean negative = start < end && buf.get(start) == '-';
+        int p = negative ? start + 1 : start;
+        // nine digits can not overflow, anything else takes the slow path
+        if (p == end || end - p > 9) {
+            return Integer.parseInt(text(field));
+        }
+        int value = 0;
+        for (; p < end; p++) {
+            int d = buf.get(p) - '0';
+            if (d < 0 || d > 9) {
+                return Integer.parseInt(text(field));
+            }
+            value = value * 10 + d;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a field as a double, with the same rules as {@link Double#parseDouble(String)}.
+     *
+     * Plain decimals with up to fifteen significant digits are converted directly, as both the
+     * digits and the power of ten are exact and a single division rounds correctly. Anything
+     * else goes through the JDK parser.
+     *
+     * @param field the index of the field
+     * @return the value
+     * @throws NumberFormatException if the field is not a number
+     */
+    double parseDouble(int field) {
+        int start = starts[field];
+        int end = ends[field];
+        boolean negative = start < end && buf.get(start) == '-';
+        int first = negative ? start + 1 : start;
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (int p = first; p < end; p++) {
+            byte b = buf.get(p);
+            if (b == '.' && scale < 0) {
+                scale = 0;
+                continue;
+            }
+            int d = b - '0';
+            if (d < 0 || d > 9 || digits == MAX_DIGITS) {
+                return Double.parseDouble(text(field));
+            }
+            mantissa = mantissa * 10 + d;
+            if (mantissa > 0) {
+                digits++;
+            }
+            if (scale >= 0) {
+                scale++;
+            }
+        }
+        if (first == end || scale == 0 || scale >= POW10.length) {
+            return Double.parseDouble(text(field));
+        }
+        double value = scale > 0 ? mantissa / POW10[scale] : mantissa;
+        return negative ? -value : value;
+    }
+}
@@ -0,0 +1,84 @@
+package student;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Random access to the bytes of a csv file, handed out as buffers over byte ranges.
+ *
+ * Files on disk are memory mapped, so a range costs nothing until it is read, and ranges may
+ * be read from many threads at once. Classpath resources are held in memory.
+ */
+interface CsvSource extends Closeable {
+
+    /**
+     * Get the size of the data.
+     *
+     * @return the number of bytes
+     */
+    long size();
+
+    /**
+     * Get a buffer over a range of the data.
+     *
+     * @param pos the first byte
+     * @param len the number of bytes, never past the end of the data
+     * @return a buffer whose position 0 is pos
+     * @throws IOException if the range can not be read
+     */
+    ByteBuffer map(long pos, int len) throws IOException;
+
+    /**
+     * Creates a source over an open file. Closing the source closes the file.
+     *
+     * @param channel the file
+     * @return the source
+     * @throws IOException if the size of the file can not be read
+     */
+    static CsvSource of(FileChannel channel) throws IOException {
+        long size = channel.size();
+        return new CsvSource() {
+            @Override
+            public long size() {
+                return size;
+            }
+
+            @Override
+            public ByteBuffer map(long pos, int len) throws IOException {
+                return channel.map(FileChannel.MapMode.READ_ONLY, pos, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    /**
+     * Creates a source over bytes in memory.
+     *
+     * @param bytes the data
+     * @return the source
+     */
+    static CsvSource of(byte[] bytes) {
+        return new CsvSource() {
+            @Override
+            public long size() {
+                return bytes.length;
+            }
+
+            @Override
+            public ByteBuffer map(long pos, int len) {
+                return ByteBuffer.wrap(bytes, (int) pos, len).slice();
+            }
+
+            @Override
+            public void close() {
+                // nothing to release
+            }
+        };
+    }
+}
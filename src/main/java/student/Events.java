@@ -0,0 +1,236 @@
+package student;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events for the life of a query and for loads.
+ *
+ * Each event is begun where its work starts and committed where it ends, so its duration is
+ * the time taken and it lines up with GC, allocation and lock events of the same thread in a
+ * recording. Fields are only filled in once {@code shouldCommit()} says the event is recorded,
+ * so while no recording asks for them the events cost a couple of checks.
+ *
+ * Enable them with, for example,
+ * {@code -XX:StartFlightRecording:filename=planner.jfr,settings=profile}, they are on by
+ * default with no threshold, or select them as {@code student.*} in JDK Mission Control.
+ */
+public final class Events {
+    /** Category every event is listed under. */
+    private static final String CATEGORY = "BGArena Planner";
+
+    /** private constructor to prevent instantiation. */
+    private Events() {
+    }
+
+    /**
+     * A planner narrowing its working set with a filter, from {@code Planner.filter}.
+     */
+    @Name("student.Query")
+    @Label("Planner Query")
+    @Category(CATEGORY)
+    @Description("A filter applied to a planner's working set, answered by a run or the cache")
+    @StackTrace(false)
+    public static final class Query extends Event {
+        /** The filter text. */
+        @Label("Filter")
+        String filter;
+
+        /** The column sorted on. */
+        @Label("Sort Column")
+        String sortColumn;
+
+        /** The sort direction. */
+        @Label("Ascending")
+        boolean ascending;
+
+        /** Games in the working set before the filter. */
+        @Label("Rows In")
+        int rowsIn;
+
+        /** Games in the working set after the filter. */
+        @Label("Rows Out")
+        int rowsOut;
+
+        /** True if the result came from the result cache. */
+        @Label("Cache Hit")
+        boolean cacheHit;
+
+        /**
+         * Commits the event, if it is recorded.
+         *
+         * @param filter    the filter text
+         * @param sortOn    the column sorted on
+         * @param ascending the sort direction
+         * @param rowsIn    games before the filter
+         * @param rowsOut   games after the filter
+         * @param cacheHit  true if the result came from the cache
+         */
+        void finish(String filter, GameData sortOn, boolean ascending, int rowsIn, int rowsOut,
+                boolean cacheHit) {
+            if (shouldCommit()) {
+                this.filter = filter;
+                this.sortColumn = sortOn.getColumnName();
+                this.ascending = ascending;
+                this.rowsIn = rowsIn;
+                this.rowsOut = rowsOut;
+                this.cacheHit = cacheHit;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Compiling and running a filter, from {@code Filters.controller}.
+     */
+    @Name("student.Filter")
+    @Label("Filter")
+    @Category(CATEGORY)
+    @Description("A filter string compiled into a plan and run over a set of games")
+    @StackTrace(false)
+    public static final class Filter extends Event {
+        /** The filter text. */
+        @Label("Filter")
+        String filter;
+
+        /** Terms in the compiled plan, unrecognized commands are dropped. */
+        @Label("Terms")
+        int terms;
+
+        /** Games the filter was run on. */
+        @Label("Rows In")
+        int rowsIn;
+
+        /** Games that matched. */
+        @Label("Rows Out")
+        int rowsOut;
+
+        /** Time to compile the plan, or find it in the plan cache. */
+        @Label("Parse Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long parseDuration;
+
+        /** Time to run the plan. */
+        @Label("Evaluate Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long evaluateDuration;
+
+        /**
+         * Commits the event, if it is recorded.
+         *
+         * @param filter   the filter text
+         * @param plan     the compiled plan
+         * @param rowsIn   games the filter was run on
+         * @param rowsOut  games that matched
+         * @param parse    time to compile, in nanoseconds
+         * @param evaluate time to run, in nanoseconds
+         */
+        void finish(String filter, FilterPlan plan, int rowsIn, int rowsOut, long parse,
+                long evaluate) {
+            if (shouldCommit()) {
+                this.filter = filter;
+                this.terms = plan.getTerms().size();
+                this.rowsIn = rowsIn;
+                this.rowsOut = rowsOut;
+                this.parseDuration = parse;
+                this.evaluateDuration = evaluate;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Ordering games on a column, from {@code Planner.sortGames} and the planner's views.
+     */
+    @Name("student.Sort")
+    @Label("Sort")
+    @Category(CATEGORY)
+    @Description("Games ordered on a column, in full or as the top of a page")
+    @StackTrace(false)
+    public static final class Sort extends Event {
+        /** The column sorted on. */
+        @Label("Column")
+        String column;
+
+        /** The sort direction. */
+        @Label("Ascending")
+        boolean ascending;
+
+        /** Games sorted. */
+        @Label("Rows")
+        int rows;
+
+        /** Games kept in order, fewer than rows for a page. */
+        @Label("Rows Out")
+        int rowsOut;
+
+        /**
+         * Commits the event, if it is recorded.
+         *
+         * @param column    the column sorted on
+         * @param ascending the sort direction
+         * @param rows      games sorted
+         * @param rowsOut   games kept in order
+         */
+        void finish(String column, boolean ascending, int rows, int rowsOut) {
+            if (shouldCommit()) {
+                this.column = column;
+                this.ascending = ascending;
+                this.rows = rows;
+                this.rowsOut = rowsOut;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Reading a collection file into games, from every {@code GamesLoader} load.
+     */
+    @Name("student.Load")
+    @Label("Load Collection")
+    @Category(CATEGORY)
+    @Description("A collection csv parsed into games")
+    @StackTrace(false)
+    public static final class Load extends Event {
+        /** The file loaded. */
+        @Label("File")
+        String file;
+
+        /** Size of the file. */
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        /** Rows loaded into games. */
+        @Label("Rows")
+        int rows;
+
+        /** Rows skipped as too short or holding a bad number. */
+        @Label("Rows Rejected")
+        int rejected;
+
+        /**
+         * Commits the event, if it is recorded.
+         *
+         * @param file     the file loaded
+         * @param bytes    size of the file
+         * @param rows     rows loaded into games
+         * @param rejected rows skipped
+         */
+        void finish(String file, long bytes, int rows, int rejected) {
+            if (shouldCommit()) {
+                this.file = file;
+                this.bytes = bytes;
+                this.rows = rows;
+                this.rejected = rejected;
+                commit();
+            }
+        }
+    }
+}
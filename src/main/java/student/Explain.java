@@ -0,0 +1,303 @@
+package student;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * How a filter ran: the terms it was parsed into, the commands that were dropped and why, the
+ * order the terms ran in, whether each was answered from an index or a scan, the rows in and out
+ * of each, and the time each stage took.
+ *
+ * Built by {@link Planner#explain(String, GameData, boolean)}, which runs the filter and the
+ * sort on the planner's working set without changing it.
+ */
+public final class Explain {
+    /** Column width of the term in the text form. */
+    private static final int TERM_WIDTH = 24;
+
+    /**
+     * How a step found its rows.
+     */
+    public enum Access {
+        /** The term's index was probed. */
+        INDEX,
+        /** The column was scanned over the working set. */
+        SCAN,
+        /** The term did not run, as an earlier one left no rows. */
+        SKIPPED
+    }
+
+    /**
+     * One term, as it ran.
+     */
+    public static final class Step {
+        /** The term. */
+        private final FilterTerm term;
+        /** Matches the term's index estimated over the whole catalog. */
+        private final int estimate;
+        /** How the term found its rows. */
+        private final Access access;
+        /** Rows the term was run on. */
+        private final int rowsIn;
+        /** Rows the term kept. */
+        private final int rowsOut;
+        /** Time the term took. */
+        private final long nanos;
+
+        /**
+         * Constructor for a step.
+         *
+         * @param term     the term
+         * @param estimate matches estimated over the catalog
+         * @param access   how the term found its rows
+         * @param rowsIn   rows the term was run on
+         * @param rowsOut  rows the term kept
+         * @param nanos    time the term took
+         */
+        Step(FilterTerm term, int estimate, Access access, int rowsIn, int rowsOut, long nanos) {
+            this.term = term;
+            this.estimate = estimate;
+            this.access = access;
+            this.rowsIn = rowsIn;
+            this.rowsOut = rowsOut;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Get the term.
+         *
+         * @return the term
+         */
+        public FilterTerm getTerm() {
+            return term;
+        }
+
+        /**
+         * Get the matches the term's index estimated over the whole catalog, which set the order.
+         *
+         * @return the estimate
+         */
+        public int getEstimate() {
+            return estimate;
+        }
+
+        /**
+         * Get how the term found its rows.
+         *
+         * @return the access path
+         */
+        public Access getAccess() {
+            return access;
+        }
+
+        /**
+         * Get the rows the term was run on.
+         *
+         * @return the rows in
+         */
+        public int getRowsIn() {
+            return rowsIn;
+        }
+
+        /**
+         * Get the rows the term kept.
+         *
+         * @return the rows out
+         */
+        public int getRowsOut() {
+            return rowsOut;
+        }
+
+        /**
+         * Get the time the term took.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+    /** The compiled filter. */
+    private final FilterPlan plan;
+    /** Time to compile the filter, or find it in the plan cache. */
+    private final long parseNanos;
+    /** The terms, in the order they ran. */
+    private final List<Step> steps;
+    /** Rows in the working set. */
+    private final int rowsIn;
+    /** Rows that matched. */
+    private final int rowsOut;
+    /** The column to sort on. */
+    private final GameData sortOn;
+    /** The sort direction. */
+    private final boolean ascending;
+    /** True if the column can be sorted on. */
+    private final boolean sortable;
+    /** Time to sort the matches. */
+    private final long sortNanos;
+
+    /**
+     * Constructor for an explain.
+     *
+     * @param plan       the compiled filter
+     * @param parseNanos time to compile the filter
+     * @param steps      the terms, in the order they ran
+     * @param rowsIn     rows in the working set
+     * @param rowsOut    rows that matched
+     * @param sortOn     the column to sort on
+     * @param ascending  the sort direction
+     * @param sortable   true if the column can be sorted on
+     * @param sortNanos  time to sort the matches
+     */
+    Explain(FilterPlan plan, long parseNanos, List<Step> steps, int rowsIn, int rowsOut,
+            GameData sortOn, boolean ascending, boolean sortable, long sortNanos) {
+        this.plan = plan;
+        this.parseNanos = parseNanos;
+        this.steps = Collections.unmodifiableList(steps);
+        this.rowsIn = rowsIn;
+        this.rowsOut = rowsOut;
+        this.sortOn = sortOn;
+        this.ascending = ascending;
+        this.sortable = sortable;
+        this.sortNanos = sortNanos;
+    }
+
+    /**
+     * Get the compiled filter, with its terms in the order they were written.
+     *
+     * @return the plan
+     */
+    public FilterPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Get the commands that were dropped, each with the reason.
+     *
+     * @return the dropped commands
+     */
+    public List<String> getDropped() {
+        return plan.getDropped();
+    }
+
+    /**
+     * Get the time to compile the filter.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    /**
+     * Get the terms, in the order they ran.
+     *
+     * @return the steps
+     */
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Get the rows in the working set.
+     *
+     * @return the rows in
+     */
+    public int getRowsIn() {
+        return rowsIn;
+    }
+
+    /**
+     * Get the rows that matched.
+     *
+     * @return the rows out
+     */
+    public int getRowsOut() {
+        return rowsOut;
+    }
+
+    /**
+     * Get the column to sort on.
+     *
+     * @return the column
+     */
+    public GameData getSortOn() {
+        return sortOn;
+    }
+
+    /**
+     * Get the sort direction.
+     *
+     * @return true for ascending
+     */
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Checks if the column can be sorted on.
+     *
+     * @return false if the filter would not be sorted
+     */
+    public boolean isSortable() {
+        return sortable;
+    }
+
+    /**
+     * Get the time to sort the matches.
+     *
+     * @return the time in nanoseconds, 0 if the column can not be sorted on
+     */
+    public long getSortNanos() {
+        return sortNanos;
+    }
+
+    /**
+     * Get the time of every stage together.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getTotalNanos() {
+        long total = parseNanos + sortNanos;
+        for (Step step : steps) {
+            total += step.nanos;
+        }
+        return total;
+    }
+
+    /**
+     * Get the explain as a table, one line per stage.
+     *
+     * @return the text
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("filter: %s%n", plan.getText()));
+        out.append(String.format("parse: %d terms %s, %d dropped, %.1f us%n",
+                plan.getTerms().size(), plan.getTerms(), getDropped().size(), parseNanos / 1e3));
+        for (String dropped : getDropped()) {
+            out.append(String.format("  dropped: %s%n", dropped));
+        }
+        out.append(String.format("%-5s %-" + TERM_WIDTH + "s %9s %-7s %9s %9s %10s%n", "step",
+                "term", "estimate", "access", "rows in", "rows out", "time us"));
+        int n = 1;
+        for (Step step : steps) {
+            out.append(String.format("%-5d %-" + TERM_WIDTH + "s %9d %-7s %9d %9d %10.1f%n", n++,
+                    step.term, step.estimate, step.access.name().toLowerCase(), step.rowsIn,
+                    step.rowsOut, step.nanos / 1e3));
+        }
+        if (sortable) {
+            out.append(String.format("sort: %s %s, %d rows, %.1f us%n",
+                    sortOn.name().toLowerCase(), ascending ? "asc" : "desc", rowsOut,
+                    sortNanos / 1e3));
+        } else {
+            out.append(String.format("sort: %s can not be sorted on%n",
+                    sortOn.name().toLowerCase()));
+        }
+        out.append(String.format("total: %d rows in, %d rows out, %.1f us%n", rowsIn, rowsOut,
+                getTotalNanos() / 1e3));
+        return out.toString();
+    }
+}
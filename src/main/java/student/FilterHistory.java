@@ -0,0 +1,184 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable history of the stages of a progressive filter.
+ *
+ * Each stage records the filter that produced it, the order it was viewed in, and the working
+ * set after it, and points back at the stage before. Pushing a stage or going back one are both
+ * constant time, and a stage never changes once made, so any number of holders can share one.
+ *
+ * Working sets are {@link OrdinalBitmap}s, which share every chunk a filter did not change with
+ * the set they were narrowed from, so each stage only costs memory for what its filter removed.
+ */
+public final class FilterHistory {
+    /** Rough cost of a stage beyond its working set. */
+    private static final long STAGE_OVERHEAD = 48;
+
+    /** The stage before, null for the first. */
+    private final FilterHistory previous;
+    /** The filter that produced this stage, empty for the first. */
+    private final String filter;
+    /** The working set after the filter. */
+    private final OrdinalBitmap members;
+    /** Column the stage is viewed sorted on, null for catalog order. */
+    private final GameData sortOn;
+    /** Direction the stage is viewed in. */
+    private final boolean ascending;
+    /** Number of stages before this one. */
+    private final int depth;
+
+    /**
+     * Constructor for a stage.
+     *
+     * @param previous  the stage before, null for the first
+     * @param filter    the filter that produced this stage
+     * @param members   the working set after the filter
+     * @param sortOn    the column sorted on, null for catalog order
+     * @param ascending the sort direction
+     */
+    private FilterHistory(FilterHistory previous, String filter, OrdinalBitmap members,
+            GameData sortOn, boolean ascending) {
+        this.previous = previous;
+        this.filter = filter;
+        this.members = members;
+        this.sortOn = sortOn;
+        this.ascending = ascending;
+        this.depth = previous == null ? 0 : previous.depth + 1;
+    }
+
+    /**
+     * Starts a history from an unfiltered working set, in catalog order.
+     *
+     * @param members the full working set
+     * @return the first stage
+     */
+    public static FilterHistory start(OrdinalBitmap members) {
+        return new FilterHistory(null, "", members, null, true);
+    }
+
+    /**
+     * Records the result of a filter applied to this stage.
+     *
+     * A filter that left the working set as it was only changes the order it is viewed in, so
+     * it replaces this stage rather than adding one that going back would have to skip.
+     *
+     * @param filter    the filter applied
+     * @param members   the working set after the filter
+     * @param sortOn    the column the result is sorted on, null for catalog order
+     * @param ascending the sort direction
+     * @return the new current stage
+     */
+    public FilterHistory push(String filter, OrdinalBitmap members, GameData sortOn,
+            boolean ascending) {
+        if (members == this.members || members.equals(this.members)) {
+            return new FilterHistory(previous, this.filter, this.members, sortOn, ascending);
+        }
+        return new FilterHistory(this, filter, members, sortOn, ascending);
+    }
+
+    /**
+     * Goes back one stage.
+     *
+     * @return the stage before this one, or this stage if it is the first
+     */
+    public FilterHistory back() {
+        return previous == null ? this : previous;
+    }
+
+    /**
+     * Checks if this is the unfiltered first stage.
+     *
+     * @return true if there is nothing to go back to
+     */
+    public boolean isStart() {
+        return previous == null;
+    }
+
+    /**
+     * Get the number of filters applied to reach this stage.
+     *
+     * @return the number of stages before this one
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Get the filter that produced this stage.
+     *
+     * @return the filter text, empty for the first stage
+     */
+    public String filter() {
+        return filter;
+    }
+
+    /**
+     * Get the working set after the filter.
+     *
+     * @return the ordinals of the games
+     */
+    public OrdinalBitmap members() {
+        return members;
+    }
+
+    /**
+     * Get the working set this stage was filtered from.
+     *
+     * @return the ordinals of the games, or null for the first stage
+     */
+    public OrdinalBitmap start() {
+        return previous == null ? null : previous.members;
+    }
+
+    /**
+     * Get the column the stage is viewed sorted on.
+     *
+     * @return the column, or null for catalog order
+     */
+    public GameData sortOn() {
+        return sortOn;
+    }
+
+    /**
+     * Get the direction the stage is viewed in.
+     *
+     * @return true for ascending
+     */
+    public boolean ascending() {
+        return ascending;
+    }
+
+    /**
+     * Get the filters applied to reach this stage.
+     *
+     * @return the filters, oldest first
+     */
+    public List<String> filters() {
+        List<String> all = new ArrayList<>(depth);
+        for (FilterHistory s = this; s.previous != null; s = s.previous) {
+            all.add(s.filter);
+        }
+        Collections.reverse(all);
+        return all;
+    }
+
+    /**
+     * Estimates the memory held by the whole history. Each stage only counts the chunks of its
+     * working set that are not shared with the stage before.
+     *
+     * @return the approximate size in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (FilterHistory s = this; s != null; s = s.previous) {
+            bytes += STAGE_OVERHEAD + 2L * s.filter.length()
+                    + (s.previous == null ? s.members.sizeInBytes()
+                            : s.members.sizeInBytes(s.previous.members));
+        }
+        return bytes;
+    }
+}
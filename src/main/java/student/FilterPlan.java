@@ -0,0 +1,319 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A compiled filter string.
+ *
+ * A plan is the immutable list of {@link FilterTerm}s for a filter such as
+ * {@code minplayers>4,name~=catan}. Commas are treated as ANDs, and commands that do not match a
+ * column, operator and value are dropped, the same as before. The dropped commands are kept, with
+ * the reason, for {@link Explain}.
+ *
+ * Plans are kept in a bounded cache keyed on the normalized filter text, so the same filter
+ * string is usually only parsed once. The cache is shared by every planner session, so plans are
+ * looked up in a concurrent map without locking, and a locked access ordered map beside it keeps
+ * them from least to most recently used, so when it is full the least recently used plan is
+ * dropped. A hit only moves its plan up if the lock is free, so under contention the order is
+ * approximate, but a hot plan is used often enough to stay.
+ */
+public final class FilterPlan {
+    /** Maximum number of plans kept in the cache. */
+    private static final int CACHE_SIZE = 1024;
+
+    /** Cache of compiled plans, keyed on the normalized filter text. */
+    private static final ConcurrentHashMap<String, FilterPlan> CACHE = new ConcurrentHashMap<>();
+    /** The cached keys, least recently used first, guarded by {@link #LRU_LOCK}. */
+    private static final LinkedHashMap<String, Boolean> LRU = new LinkedHashMap<>(16, 0.75f, true);
+    /** Guards the order of the cached keys, and every change to the cache. */
+    private static final ReentrantLock LRU_LOCK = new ReentrantLock();
+
+    /** The normalized filter text. */
+    private final String text;
+    /** The terms, in the order they are applied. */
+    private final List<FilterTerm> terms;
+    /** The commands that were not recognized, each followed by the reason. */
+    private final List<String> dropped;
+
+    /**
+     * Constructor for the plan. Use {@link #compile(String)} to get one.
+     *
+     * @param text    the normalized filter text
+     * @param terms   the parsed terms
+     * @param dropped the commands that were not recognized, with the reason
+     */
+    private FilterPlan(String text, List<FilterTerm> terms, List<String> dropped) {
+        this.text = text;
+        this.terms = Collections.unmodifiableList(terms);
+        this.dropped = Collections.unmodifiableList(dropped);
+    }
+
+    /**
+     * Gets the compiled plan for a filter string, parsing it only if it is not already cached.
+     *
+     * @param filter the filter string, may be null or empty
+     * @return the compiled plan
+     */
+    public static FilterPlan compile(String filter) {
+        String key = filter == null ? "" : NameKey.of(filter);
+        FilterPlan plan = CACHE.get(key);
+        if (plan != null) {
+            if (LRU_LOCK.tryLock()) {
+                try {
+                    LRU.get(key); // moves it to most recently used
+                } finally {
+                    LRU_LOCK.unlock();
+                }
+            }
+            return plan;
+        }
+        plan = parse(key);
+        LRU_LOCK.lock();
+        try {
+            FilterPlan raced = CACHE.putIfAbsent(key, plan);
+            if (raced != null) {
+                return raced;
+            }
+            LRU.put(key, Boolean.TRUE);
+            Iterator<String> eldest = LRU.keySet().iterator();
+            while (LRU.size() > CACHE_SIZE) {
+                CACHE.remove(eldest.next());
+                eldest.remove();
+            }
+        } finally {
+            LRU_LOCK.unlock();
+        }
+        return plan;
+    }
+
+    /**
+     * Parses normalized filter text into a plan, skipping the cache.
+     *
+     * @param text the normalized filter text
+     * @return the new plan
+     */
+    private static FilterPlan parse(String text) {
+        List<FilterTerm> terms = new ArrayList<>();
+        List<String> dropped = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+        for (String cmd : text.split(",")) {
+            FilterTerm term = FilterTerm.parse(cmd, null, problems);
+            if (term != null) {
+                terms.add(term);
+            } else if (!cmd.isEmpty()) {
+                dropped.add(cmd + " (" + problems.get(problems.size() - 1) + ")");
+            }
+        }
+        return new FilterPlan(text, terms, dropped);
+    }
+
+    /**
+     * Checks if a game matches every term in the plan.
+     *
+     * @param game the game to check
+     * @return true if the game matches
+     */
+    public boolean test(BoardGame game) {
+        for (FilterTerm term : terms) {
+            if (!term.test(game)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the plan to a list of games, keeping the order of the list.
+     *
+     * @param games the games to filter
+     * @return a new list with the matching games
+     */
+    public List<BoardGame> apply(List<BoardGame> games) {
+        if (terms.isEmpty()) {
+            return new ArrayList<>(games);
+        }
+        List<BoardGame> res = new ArrayList<>();
+        for (BoardGame game : games) {
+            if (test(game)) {
+                res.add(game);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Applies the plan to a set of catalog ordinals.
+     *
+     * @param catalog  the catalog the ordinals belong to
+     * @param ordinals the ordinals to filter, in ascending order
+     * @return a new array with the matching ordinals, in ascending order
+     * @see #select(GameCatalog, OrdinalBitmap)
+     */
+    public int[] select(GameCatalog catalog, int[] ordinals) {
+        return select(catalog, OrdinalBitmap.fromSorted(ordinals)).toArray();
+    }
+
+    /**
+     * Applies the plan to a working set of catalog ordinals.
+     *
+     * Terms are run most selective first. Each term estimates its matches (from the column's
+     * histogram in {@link ColumnStats}, or the name indexes for names), and is answered by an
+     * index probe when that is cheaper than scanning the working set, otherwise the column array
+     * is scanned. The rows in and out of each term are counted
+     * in the global {@link Metrics}.
+     *
+     * @param catalog the catalog the ordinals belong to
+     * @param working the working set to narrow
+     * @return the matching ordinals, sharing unchanged chunks with the working set
+     */
+    public OrdinalBitmap select(GameCatalog catalog, OrdinalBitmap working) {
+        return select(catalog, working, null);
+    }
+
+    /**
+     * Applies the plan to a working set of catalog ordinals, noting how each term ran.
+     *
+     * A run that notes its steps is an explain, not a query, so its terms are not counted in the
+     * global {@link Metrics}.
+     *
+     * @param catalog the catalog the ordinals belong to
+     * @param working the working set to narrow
+     * @param steps   receives a step per term in the order they ran, may be null
+     * @return the matching ordinals, sharing unchanged chunks with the working set
+     * @see #select(GameCatalog, OrdinalBitmap)
+     */
+    OrdinalBitmap select(GameCatalog catalog, OrdinalBitmap working, List<Explain.Step> steps) {
+        if (terms.isEmpty() || working.isEmpty() && steps == null) {
+            return working;
+        }
+        FilterTerm[] ordered = terms.toArray(new FilterTerm[0]);
+        int[] estimates = new int[ordered.length];
+        for (int i = 0; i < ordered.length; i++) {
+            estimates[i] = ordered[i].estimate(catalog);
+        }
+        sortByEstimate(ordered, estimates);
+
+        Metrics metrics = Metrics.global();
+        OrdinalBitmap current = working;
+        int i = 0;
+        for (; i < ordered.length && !current.isEmpty(); i++) {
+            FilterTerm term = ordered[i];
+            int n = current.cardinality();
+            boolean probe = term.isIndexable() && indexCost(estimates[i]) < n;
+            long start = steps == null ? 0 : System.nanoTime();
+            if (probe) {
+                current = term.probe(catalog, current);
+            } else {
+                current = term.select(catalog, current);
+            }
+            if (steps == null) {
+                metrics.term(term.getColumn(), probe, n, current.cardinality());
+            } else {
+                steps.add(new Explain.Step(term, estimates[i],
+                        probe ? Explain.Access.INDEX : Explain.Access.SCAN, n,
+                        current.cardinality(), System.nanoTime() - start));
+            }
+        }
+        for (; steps != null && i < ordered.length; i++) {
+            steps.add(new Explain.Step(ordered[i], estimates[i], Explain.Access.SKIPPED, 0, 0, 0));
+        }
+        return current;
+    }
+
+    /**
+     * Estimates the cost of answering a term from its index, in rows touched.
+     *
+     * The hits have to be sorted back into ordinal order (or verified, for trigram candidates)
+     * and turned into a bitmap before they are intersected with the working set.
+     *
+     * @param matches the number of games the index returns
+     * @return the estimated cost, comparable to a scan costing the working set size
+     */
+    static long indexCost(int matches) {
+        return (long) matches * (log2(matches) + 1);
+    }
+
+    /**
+     * Integer log base 2, at least 1.
+     *
+     * @param n a positive number
+     * @return the log of n, rounded up
+     */
+    private static int log2(int n) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(n - 1));
+    }
+
+    /**
+     * Sorts terms by their estimated number of matches, keeping the original order for ties.
+     *
+     * @param terms     the terms, sorted in place
+     * @param estimates the estimates, sorted in place alongside the terms
+     */
+    private static void sortByEstimate(FilterTerm[] terms, int[] estimates) {
+        for (int i = 1; i < terms.length; i++) {
+            FilterTerm term = terms[i];
+            int estimate = estimates[i];
+            int j = i - 1;
+            while (j >= 0 && estimates[j] > estimate) {
+                terms[j + 1] = terms[j];
+                estimates[j + 1] = estimates[j];
+                j--;
+            }
+            terms[j + 1] = term;
+            estimates[j + 1] = estimate;
+        }
+    }
+
+    /**
+     * Get the normalized filter text this plan was compiled from.
+     *
+     * @return the normalized text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Get the terms of the plan.
+     *
+     * @return an unmodifiable list of the terms
+     */
+    public List<FilterTerm> getTerms() {
+        return terms;
+    }
+
+    /**
+     * Get the commands of the filter that were not recognized, and so are not in the plan.
+     *
+     * @return an unmodifiable list of the commands, each followed by the reason in brackets
+     */
+    public List<String> getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Checks if the plan has no terms, and so matches every game.
+     *
+     * @return true if there are no terms
+     */
+    public boolean isEmpty() {
+        return terms.isEmpty();
+    }
+
+    /**
+     * Get the plan as text.
+     *
+     * @return the terms joined by commas
+     */
+    @Override
+    public String toString() {
+        return terms.toString();
+    }
+}
@@ -0,0 +1,131 @@
+package student;
+
+import java.util.stream.Stream;
+
+/**
+ * A filter command as typed at the console: filter terms, optionally followed by a sort, such
+ * as {@code minPlayers>2, name~=catan sort:rating desc}.
+ *
+ * Whitespace is dropped and the text is lower cased, then everything after the sort option is
+ * the column, optionally ending in asc or desc. Without a sort the games are in name order.
+ */
+public final class FilterQuery {
+    /** Default text that starts the sort. */
+    public static final String SORT_OPTION = "sort:";
+    /** Default text for ascending order. */
+    public static final String ASCENDING = "asc";
+    /** Default text for descending order. */
+    public static final String DESCENDING = "desc";
+
+    /** The normalized filter terms. */
+    private final String filter;
+    /** The column to sort on. */
+    private final GameData sortOn;
+    /** The sort direction. */
+    private final boolean ascending;
+    /** True if a sort was given, the console only uses the direction then. */
+    private final boolean sorted;
+
+    /**
+     * Constructor for a query.
+     *
+     * @param filter    the normalized filter terms
+     * @param sortOn    the column to sort on
+     * @param ascending the sort direction
+     * @param sorted    true if a sort was given
+     */
+    private FilterQuery(String filter, GameData sortOn, boolean ascending, boolean sorted) {
+        this.filter = filter;
+        this.sortOn = sortOn;
+        this.ascending = ascending;
+        this.sorted = sorted;
+    }
+
+    /**
+     * Parses a query with the default sort keywords.
+     *
+     * @param text the query
+     * @return the parsed query
+     * @throws IllegalArgumentException if the sort column is not a column
+     */
+    public static FilterQuery parse(String text) {
+        return parse(text, SORT_OPTION, ASCENDING, DESCENDING);
+    }
+
+    /**
+     * Parses a query, with the sort keywords given, so the console can use localized ones.
+     *
+     * @param text       the query
+     * @param sortOption the text that starts the sort
+     * @param asc        the text for ascending order
+     * @param desc       the text for descending order
+     * @return the parsed query
+     * @throws IllegalArgumentException if the sort column is not a column
+     */
+    public static FilterQuery parse(String text, String sortOption, String asc, String desc) {
+        String filter = text == null ? "" : text.replaceAll("\\s", "").toLowerCase();
+        if (!filter.contains(sortOption)) {
+            return new FilterQuery(filter, GameData.NAME, true, false);
+        }
+        boolean ascending = true;
+        GameData sortOn = GameData.NAME;
+        String[] parts = filter.split(sortOption);
+        if (parts.length == 2) {
+            String sort = parts[1];
+            if (sort.contains(asc)) {
+                sort = sort.substring(0, sort.indexOf(asc));
+            } else if (sort.contains(desc)) {
+                ascending = false;
+                sort = sort.substring(0, sort.indexOf(desc));
+            }
+            sortOn = GameData.fromString(sort);
+        }
+        return new FilterQuery(parts.length == 0 ? "" : parts[0], sortOn, ascending, true);
+    }
+
+    /**
+     * Runs the query on a planner, as the console does.
+     *
+     * @param planner the planner
+     * @return the games, or null if a sort was given and nothing matched
+     */
+    public Stream<BoardGame> run(IPlanner planner) {
+        return sorted ? planner.filter(filter, sortOn, ascending) : planner.filter(filter);
+    }
+
+    /**
+     * Get the filter terms.
+     *
+     * @return the normalized filter text
+     */
+    public String getFilter() {
+        return filter;
+    }
+
+    /**
+     * Get the column to sort on.
+     *
+     * @return the column, name if no sort was given
+     */
+    public GameData getSortOn() {
+        return sortOn;
+    }
+
+    /**
+     * Get the sort direction.
+     *
+     * @return true for ascending
+     */
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Checks if a sort was given.
+     *
+     * @return true if the query had a sort
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+}
@@ -0,0 +1,422 @@
+package student;
+
+import java.util.List;
+
+/**
+ * A single, pre-parsed predicate from a filter string, such as {@code minplayers>4}.
+ *
+ * Terms are immutable. All of the string work (finding the operator, resolving the column,
+ * parsing the value) happens once in {@link #parse(String)}, so testing a game against a term is
+ * only a field read and a comparison.
+ */
+public final class FilterTerm {
+    /** Operators ordered so that two character operators are matched before one character ones. */
+    private static final Operations[] OPERATORS = {Operations.CONTAINS, Operations.EQUALS,
+            Operations.NOT_EQUALS, Operations.GREATER_THAN_EQUALS, Operations.LESS_THAN_EQUALS,
+            Operations.LESS_THAN, Operations.GREATER_THAN};
+
+    /** The column this term filters on. */
+    private final GameData column;
+    /** The comparison to perform. */
+    private final Operations operation;
+    /** The normalized value text (lower case, no whitespace). */
+    private final String value;
+    /** The parsed numeric value, NaN for the name column. */
+    private final double number;
+    /** Smallest numeric value accepted by the operator (before negation). */
+    private final double low;
+    /** Largest numeric value accepted by the operator (before negation). */
+    private final double high;
+    /** True if the term matches values outside of low and high, used for not equals. */
+    private final boolean negated;
+
+    /**
+     * Constructor for a term. Use {@link #parse(String)} to build one from text.
+     *
+     * @param column    the column to filter on
+     * @param operation the comparison to perform
+     * @param value     the normalized value text
+     * @param number    the parsed numeric value, NaN for the name column
+     */
+    private FilterTerm(GameData column, Operations operation, String value, double number) {
+        this.column = column;
+        this.operation = operation;
+        this.value = value;
+        this.number = number;
+
+        // every numeric operator is a closed range, optionally negated
+        double lo = Double.NEGATIVE_INFINITY;
+        double hi = Double.POSITIVE_INFINITY;
+        switch (operation) {
+            case EQUALS:
+            case NOT_EQUALS:
+                lo = number;
+                hi = number;
+                break;
+            case GREATER_THAN:
+                lo = Math.nextUp(number);
+                break;
+            case GREATER_THAN_EQUALS:
+                lo = number;
+                break;
+            case LESS_THAN:
+                hi = Math.nextDown(number);
+                break;
+            case LESS_THAN_EQUALS:
+                hi = number;
+                break;
+            default: // contains matches no number
+                lo = Double.POSITIVE_INFINITY;
+                hi = Double.NEGATIVE_INFINITY;
+                break;
+        }
+        this.low = lo;
+        this.high = hi;
+        this.negated = operation == Operations.NOT_EQUALS;
+    }
+
+    /**
+     * Parses a single filter command, for example {@code maxPlayers >= 4}.
+     *
+     * @param cmd the command text
+     * @return the parsed term, or null if the column, operator or value is not recognized
+     */
+    public static FilterTerm parse(String cmd) {
+        return parse(cmd, null);
+    }
+
+    /**
+     * Parses a single filter command.
+     *
+     * If a column is passed in, the text left of the operator is ignored and the given column is
+     * used instead. This matches the older per-column filter methods which only looked at the
+     * operator and value.
+     *
+     * @param cmd    the command text
+     * @param column the column to force, or null to resolve it from the command
+     * @return the parsed term, or null if the column, operator or value is not recognized
+     */
+    static FilterTerm parse(String cmd, GameData column) {
+        return parse(cmd, column, null);
+    }
+
+    /**
+     * Parses a single filter command, noting why it is not recognized.
+     *
+     * @param cmd      the command text
+     * @param column   the column to force, or null to resolve it from the command
+     * @param problems receives why the command was not recognized, may be null
+     * @return the parsed term, or null if the column, operator or value is not recognized
+     */
+    static FilterTerm parse(String cmd, GameData column, List<String> problems) {
+        if (cmd == null) {
+            return null;
+        }
+        String text = NameKey.of(cmd);
+        int pos = -1;
+        Operations operation = null;
+        for (int i = 0; i < text.length() && operation == null; i++) {
+            for (Operations op : OPERATORS) {
+                if (text.startsWith(op.getOperator(), i)) {
+                    operation = op;
+                    pos = i;
+                    break;
+                }
+            }
+        }
+        if (operation == null) {
+            return reject(problems, "no operator");
+        }
+
+        if (column == null) {
+            try {
+                column = GameData.fromString(text.substring(0, pos));
+            } catch (IllegalArgumentException e) {
+                return reject(problems, "no column " + text.substring(0, pos));
+            }
+        }
+        if (column == GameData.ID) {
+            return reject(problems, "id can not be filtered"); // id is never used for filtering
+        }
+
+        String value = text.substring(pos + operation.getOperator().length());
+        if (column == GameData.NAME) {
+            return new FilterTerm(column, operation, value, Double.NaN);
+        }
+        try {
+            double number = GameCatalog.isIntColumn(column) ? Integer.parseInt(value)
+                    : Double.parseDouble(value);
+            return new FilterTerm(column, operation, value, number);
+        } catch (NumberFormatException e) {
+            return reject(problems, "value " + value + " is not a number for "
+                    + column.getColumnName());
+        }
+    }
+
+    /**
+     * Notes why a command was not recognized.
+     *
+     * @param problems receives the reason, may be null
+     * @param reason   the reason
+     * @return null, for the caller to return
+     */
+    private static FilterTerm reject(List<String> problems, String reason) {
+        if (problems != null) {
+            problems.add(reason);
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a game matches this term.
+     *
+     * @param game the game to check
+     * @return true if the game matches
+     */
+    public boolean test(BoardGame game) {
+        if (column == GameData.NAME) {
+            return testName(game.getNameKey());
+        }
+        return testNumber(GameCatalog.value(game, column));
+    }
+
+    /**
+     * Checks a normalized game name against this term.
+     *
+     * @param name the normalized name
+     * @return true if the name matches
+     */
+    boolean testName(String name) {
+        if (operation == Operations.CONTAINS) {
+            return name.contains(value);
+        }
+        return compare(name.compareTo(value));
+    }
+
+    /**
+     * Checks a numeric column value against this term.
+     *
+     * Contains is not defined for numbers, so it never matches.
+     *
+     * @param fieldValue the value of the column
+     * @return true if the value matches
+     */
+    boolean testNumber(double fieldValue) {
+        return (fieldValue >= low && fieldValue <= high) != negated;
+    }
+
+    /**
+     * Checks if the term can be answered from an index instead of a scan.
+     *
+     * Numeric terms use the column's sorted {@link ColumnIndex}, name contains terms use the
+     * catalog's {@link TrigramIndex} when the value is long enough to have a trigram, and the
+     * other name terms use the ordered {@link NameIndex}.
+     *
+     * @return true if the term has an index
+     */
+    boolean isIndexable() {
+        if (column == GameData.NAME) {
+            return operation != Operations.CONTAINS || TrigramIndex.canSearch(value);
+        }
+        return true;
+    }
+
+    /**
+     * Estimates how many games of the catalog match this term.
+     *
+     * Numeric terms use the column's {@link ColumnStats} histogram, so the column index is only
+     * built if the term is then answered from it. Name terms count on the name index, or the
+     * trigram index for contains.
+     *
+     * @param catalog the catalog to estimate against
+     * @return the estimate, the catalog size if the term has no index
+     */
+    int estimate(GameCatalog catalog) {
+        if (!isIndexable()) {
+            return catalog.size();
+        }
+        if (column != GameData.NAME) {
+            return catalog.stats(column).estimate(this);
+        }
+        if (operation != Operations.CONTAINS) {
+            return catalog.nameIndex().count(this);
+        }
+        return catalog.trigrams().estimate(value);
+    }
+
+    /**
+     * Narrows a set of catalog ordinals using this term's index.
+     *
+     * @param catalog the catalog the ordinals belong to
+     * @param in      the ordinals to check
+     * @return the matching ordinals
+     */
+    OrdinalBitmap probe(GameCatalog catalog, OrdinalBitmap in) {
+        if (column != GameData.NAME) {
+            return in.and(OrdinalBitmap.fromSorted(catalog.index(column).select(this)));
+        }
+        if (operation != Operations.CONTAINS) {
+            return in.and(OrdinalBitmap.fromSorted(catalog.nameIndex().select(this)));
+        }
+        int[] candidates = catalog.trigrams().candidates(value);
+        int k = 0;
+        for (int o : candidates) {
+            if (in.contains(o) && catalog.normalizedName(o).contains(value)) {
+                candidates[k++] = o;
+            }
+        }
+        return k == in.cardinality() ? in : OrdinalBitmap.fromSorted(candidates, k);
+    }
+
+    /**
+     * Narrows a set of catalog ordinals to the games that match this term.
+     *
+     * @param catalog the catalog the ordinals belong to
+     * @param in      the ordinals to check
+     * @return the matching ordinals, sharing unchanged chunks with in
+     */
+    OrdinalBitmap select(GameCatalog catalog, OrdinalBitmap in) {
+        return in.filter((ordinals, n) -> select(catalog, ordinals, n, ordinals));
+    }
+
+    /**
+     * Selects the games from a catalog that match this term.
+     *
+     * Numeric terms scan the primitive column array directly, and name terms scan the
+     * pre-normalized names, so no game objects are read.
+     *
+     * @param catalog the catalog the ordinals belong to
+     * @param in      the ordinals to check
+     * @param n       the number of ordinals in use at the start of in
+     * @param out     receives the matching ordinals, in input order, may be the same array as in
+     * @return the number of ordinals written to out
+     */
+    int select(GameCatalog catalog, int[] in, int n, int[] out) {
+        int k = 0;
+        if (column == GameData.NAME) {
+            for (int i = 0; i < n; i++) {
+                int o = in[i];
+                if (testName(catalog.normalizedName(o))) {
+                    out[k++] = o;
+                }
+            }
+        } else if (GameCatalog.isIntColumn(column)) {
+            int[] values = catalog.intColumn(column);
+            for (int i = 0; i < n; i++) {
+                int o = in[i];
+                int v = values[o];
+                if ((v >= low && v <= high) != negated) {
+                    out[k++] = o;
+                }
+            }
+        } else {
+            double[] values = catalog.doubleColumn(column);
+            for (int i = 0; i < n; i++) {
+                int o = in[i];
+                double v = values[o];
+                if ((v >= low && v <= high) != negated) {
+                    out[k++] = o;
+                }
+            }
+        }
+        return k;
+    }
+
+    /**
+     * Applies the operator to the result of a comparison.
+     *
+     * @param cmp negative, zero or positive, as returned by compareTo
+     * @return true if the operator accepts the comparison
+     */
+    private boolean compare(int cmp) {
+        switch (operation) {
+            case EQUALS:
+                return cmp == 0;
+            case NOT_EQUALS:
+                return cmp != 0;
+            case GREATER_THAN:
+                return cmp > 0;
+            case LESS_THAN:
+                return cmp < 0;
+            case GREATER_THAN_EQUALS:
+                return cmp >= 0;
+            case LESS_THAN_EQUALS:
+                return cmp <= 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Get the column this term filters on.
+     *
+     * @return the column
+     */
+    public GameData getColumn() {
+        return column;
+    }
+
+    /**
+     * Get the operation of this term.
+     *
+     * @return the operation
+     */
+    public Operations getOperation() {
+        return operation;
+    }
+
+    /**
+     * Get the smallest numeric value accepted by the operator.
+     *
+     * @return the lower bound, inclusive
+     */
+    public double getLow() {
+        return low;
+    }
+
+    /**
+     * Get the largest numeric value accepted by the operator.
+     *
+     * @return the upper bound, inclusive
+     */
+    public double getHigh() {
+        return high;
+    }
+
+    /**
+     * Checks if the term matches values outside of its bounds instead of inside them.
+     *
+     * @return true for not equals
+     */
+    public boolean isNegated() {
+        return negated;
+    }
+
+    /**
+     * Get the normalized value text.
+     *
+     * @return the value text
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Get the parsed numeric value.
+     *
+     * @return the numeric value, NaN for the name column
+     */
+    public double getNumber() {
+        return number;
+    }
+
+    /**
+     * Get the term in its normalized text form.
+     *
+     * @return the term as text
+     */
+    @Override
+    public String toString() {
+        return column.name().toLowerCase() + operation.getOperator() + value;
+    }
+}
@@ -1,13 +1,16 @@
 package student;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Class for filtering a list of board games based on different criteria.
+ *
+ * The filter text is compiled into a {@link FilterPlan}, which is cached, so repeated filter
+ * strings are not parsed again. Parse and evaluate times go to the global {@link Metrics}, and
+ * each run is a {@link Events.Filter} flight recorder event.
  */
 public class Filters {
 
@@ -26,108 +29,79 @@ public class Filters {
      * @return The filtered and sorted list of board games.
      */
     public List<BoardGame> controller(String commands, List<BoardGame> gameList) {
-        String[] cmds = commands.split(",");
-
         if (gameList.isEmpty()) {
             return gameList;
         }
-
-        // Keeping GameData variables for filtering
-        GameData minplayers = GameData.fromString("minplayers");
-        GameData maxplayers = GameData.fromString("maxplayers");
-        GameData mintime = GameData.fromString("minplaytime");
-        GameData maxtime = GameData.fromString("maxplaytime");
-        GameData difficulty = GameData.fromString("difficulty");
-        GameData yearpublished = GameData.fromString("yearpublished");
-        GameData rating = GameData.fromString("rating");
-        GameData rank = GameData.fromString("rank");
-
-        for (String cmd : cmds) {
-            cmd = cmd.trim().toLowerCase().replaceAll("\\s+", "");
-            if (cmd.contains("name")) {
-                gameList = filterByName(cmd, gameList);
-            } else if (cmd.contains("maxplayers") || cmd.contains(maxplayers.name().toLowerCase())) {
-                cmd = cmd.replace(maxplayers.name().toLowerCase(), "maxplayers");
-                gameList = filterByMaxPlayer(cmd, gameList);
-            } else if (cmd.contains("minplayers") || cmd.contains(minplayers.name().toLowerCase())) {
-                cmd = cmd.replace(minplayers.name().toLowerCase(), "minplayers");
-                gameList = filterByMinPlayer(cmd, gameList);
-            } else if (cmd.contains("minplaytime") || cmd.contains(mintime.name().toLowerCase())) {
-                cmd = cmd.replace(mintime.name().toLowerCase(), "minplaytime");
-                gameList = filterByMinTime(cmd, gameList);
-            } else if (cmd.contains("maxplaytime") || cmd.contains(maxtime.name().toLowerCase())) {
-                cmd = cmd.replace(maxtime.name().toLowerCase(), "maxplaytime");
-                gameList = filterByMaxTime(cmd, gameList);
-            } else if (cmd.contains("difficulty") || cmd.contains(difficulty.name().toLowerCase())) {
-                cmd = cmd.replace(difficulty.name().toLowerCase(), "difficulty");
-                gameList = filterByDifficulty(cmd, gameList);
-            } else if (cmd.contains("rating") || cmd.contains(rating.name().toLowerCase())) {
-                cmd = cmd.replace(rating.name().toLowerCase(), "rating");
-                gameList = filterByRating(cmd, gameList);
-            } else if (cmd.contains("yearpublished") || cmd.contains(yearpublished.name().toLowerCase())) {
-                cmd = cmd.replace(yearpublished.name().toLowerCase(), "yearpublished");
-                gameList = filterByYearPublished(cmd, gameList);
-            } else if (cmd.contains("rank") || cmd.contains(rank.name().toLowerCase())) {
-                cmd = cmd.replace(rank.name().toLowerCase(), "rank");
-                gameList = filterByRank(cmd, gameList);
-            }
-        }
-
+        Events.Filter event = new Events.Filter();
+        event.begin();
+        long start = System.nanoTime();
+        FilterPlan plan = FilterPlan.compile(commands);
+        long parsed = System.nanoTime();
+        int rowsIn = gameList.size();
+        gameList = plan.apply(gameList);
+        record(event, commands, plan, rowsIn, gameList.size(), start, parsed);
         gameList = new ArrayList<>(new LinkedHashSet<>(gameList));
         return gameList;
     }
 
     /**
-     * Filters board games by rating.
+     * Applies filtering commands to games in a catalog, using the catalog columns and indexes.
      *
-     * @param cmd  The rating filtering command (e.g., "rating >= 4.5").
-     * @param list The list of board games.
-     * @return A list of board games that match the rating filter.
+     * @param commands The filtering commands in string format.
+     * @param catalog  The catalog holding the games.
+     * @param working  The ordinals of the games to be filtered.
+     * @return The ordinals of the matching games.
      */
-    public List<BoardGame> filterByRating(String cmd, List<BoardGame> list) {
-        Pattern pattern = Pattern.compile("\\s*(~=|==|!=|>=|<=|<|>)\\s*(.*)");
-        Matcher matcher = pattern.matcher(cmd);
-        List<BoardGame> res = new ArrayList<>();
+    public OrdinalBitmap controller(String commands, GameCatalog catalog, OrdinalBitmap working) {
+        if (working.isEmpty()) {
+            return working;
+        }
+        Events.Filter event = new Events.Filter();
+        event.begin();
+        long start = System.nanoTime();
+        FilterPlan plan = FilterPlan.compile(commands);
+        long parsed = System.nanoTime();
+        OrdinalBitmap selected = plan.select(catalog, working);
+        record(event, commands, plan, working.cardinality(), selected.cardinality(), start,
+                parsed);
+        return selected;
+    }
 
-        if (matcher.find()) {
-            String operator = matcher.group(1);
-            double value = Double.parseDouble(matcher.group(2));
+    /**
+     * Records the parse and evaluate times of a filter run that just finished.
+     *
+     * @param event    the flight recorder event, begun before the parse
+     * @param commands the filter text
+     * @param plan     the compiled plan
+     * @param rowsIn   games the filter was run on
+     * @param rowsOut  games that matched
+     * @param start    when the parse started, from {@link System#nanoTime()}
+     * @param parsed   when the parse ended and the run started
+     */
+    private static void record(Events.Filter event, String commands, FilterPlan plan,
+            int rowsIn, int rowsOut, long start, long parsed) {
+        long evaluated = System.nanoTime();
+        Metrics metrics = Metrics.global();
+        metrics.latency(Metrics.Stage.PARSE).record(parsed - start);
+        metrics.latency(Metrics.Stage.EVALUATE).record(evaluated - parsed);
+        event.finish(commands, plan, rowsIn, rowsOut, parsed - start, evaluated - parsed);
+    }
 
+    /**
+     * Applies a single command on a forced column.
+     *
+     * @param cmd    The filtering command.
+     * @param column The column to filter on.
+     * @param list   The list of board games.
+     * @return A list of board games that match the command, empty if the command is invalid.
+     */
+    private List<BoardGame> filterBy(String cmd, GameData column, List<BoardGame> list) {
+        FilterTerm term = FilterTerm.parse(cmd, column);
+        List<BoardGame> res = new ArrayList<>();
+        if (term != null) {
             for (BoardGame s : list) {
-                double rating = s.getRating();
-                switch (operator) {
-                    case "==":
-                        if (rating == value) {
-                            res.add(s);
-                        }
-                        break;
-                    case "!=":
-                        if (rating != value) {
-                            res.add(s);
-                        }
-                        break;
-                    case ">":
-                        if (rating > value) {
-                            res.add(s);
-                        }
-                        break;
-                    case "<":
-                        if (rating < value) {
-                            res.add(s);
-                        }
-                        break;
-                    case ">=":
-                        if (rating >= value) {
-                            res.add(s);
-                        }
-                        break;
-                    case "<=":
-                        if (rating <= value) {
-                            res.add(s);
-                        }
-                        break;
-                    default:
-                        break;
+                if (term.test(s)) {
+                    res.add(s);
                 }
             }
         }
@@ -135,73 +109,25 @@ public class Filters {
     }
 
     /**
-     * Filters board games by year published.
+     * Filters board games by rating.
      *
-     * @param cmd  The year filtering command (e.g., "yearPublished >= 2000").
+     * @param cmd  The rating filtering command (e.g., "rating >= 4.5").
      * @param list The list of board games.
-     * @return A list of board games that match the year filter.
+     * @return A list of board games that match the rating filter.
      */
-    public List<BoardGame> filterByYearPublished(String cmd, List<BoardGame> list) {
-        Pattern pattern = Pattern.compile("\\s*(~=|==|!=|>=|<=|<|>)\\s*(.*)");
-        Matcher matcher = pattern.matcher(cmd);
-        List<BoardGame> res = new ArrayList<>();
-
-        if (matcher.find()) {
-            String operator = matcher.group(1);
-            int value = Integer.parseInt(matcher.group(2));
-
-            for (BoardGame s : list) {
-                int year = s.getYearPublished();
-                checkCmd(res, operator, value, s, year);
-            }
-        }
-        return res;
+    public List<BoardGame> filterByRating(String cmd, List<BoardGame> list) {
+        return filterBy(cmd, GameData.RATING, list);
     }
 
     /**
-     * Helper method for performing numeric comparisons.
+     * Filters board games by year published.
      *
-     * @param res        The result list to which a board game is added if the condition is met.
-     * @param operator   The comparison operator.
-     * @param value      The value to compare against.
-     * @param s          The board game.
-     * @param fieldValue The field value from the board game.
+     * @param cmd  The year filtering command (e.g., "yearPublished >= 2000").
+     * @param list The list of board games.
+     * @return A list of board games that match the year filter.
      */
-    private void checkCmd(List<BoardGame> res, String operator, int value, BoardGame s, int fieldValue) {
-        switch (operator) {
-            case "==":
-                if (fieldValue == value) {
-                    res.add(s);
-                }
-                break;
-            case "!=":
-                if (fieldValue != value) {
-                    res.add(s);
-                }
-                break;
-            case ">":
-                if (fieldValue > value) {
-                    res.add(s);
-                }
-                break;
-            case "<":
-                if (fieldValue < value) {
-                    res.add(s);
-                }
-                break;
-            case ">=":
-                if (fieldValue >= value) {
-                    res.add(s);
-                }
-                break;
-            case "<=":
-                if (fieldValue <= value) {
-                    res.add(s);
-                }
-                break;
-            default:
-                break;
-        }
+    public List<BoardGame> filterByYearPublished(String cmd, List<BoardGame> list) {
+        return filterBy(cmd, GameData.YEAR, list);
     }
 
     /**
@@ -212,20 +138,7 @@ public class Filters {
      * @return A list of board games that match the rank filter.
      */
     public List<BoardGame> filterByRank(String cmd, List<BoardGame> list) {
-        Pattern pattern = Pattern.compile("rank\\s*(~=|==|!=|>=|<=|<|>)\\s*(.*)");
-        Matcher matcher = pattern.matcher(cmd);
-        List<BoardGame> res = new ArrayList<>();
-
-        if (matcher.find()) {
-            String operator = matcher.group(1);
-            int value = Integer.parseInt(matcher.group(2));
-
-            for (BoardGame s : list) {
-                int rankValue = s.getRank();
-                checkCmd(res, operator, value, s, rankValue);
-            }
-        }
-        return res;
+        return filterBy(cmd, GameData.RANK, list);
     }
 
     /**
@@ -236,69 +149,8 @@ public class Filters {
      * @return A list of board games matching the name filter.
      */
     public List<BoardGame> filterByName(String name, List<BoardGame> list) {
-        Pattern pattern = Pattern.compile("name\\s*(~=|==|!=|>=|<=|<|>)\\s*(.*)");
-        Matcher matcher = pattern.matcher(name);
-        List<BoardGame> res = new ArrayList<>();
-
-        if (matcher.find()) {
-            String operator = matcher.group(1);
-            String value = matcher.group(2);
-            String anotherString = value.toLowerCase().trim().replaceAll("\\s+", "");
-
-            switch (operator) {
-                case "==":
-                    for (BoardGame s : list) {
-                        if (s.getName().trim().toLowerCase().replaceAll("\\s+", "").equals(anotherString)) {
-                            res.add(s);
-                        }
-                    }
-                    break;
-                case "!=":
-                    for (BoardGame s : list) {
-                        if (!s.getName().trim().toLowerCase().replaceAll("\\s+", "").equals(anotherString)) {
-                            res.add(s);
-                        }
-                    }
-                    break;
-                case "<":
-                    for (BoardGame s : list) {
-                        if (s.getName().trim().toLowerCase().replaceAll("\\s+", "").compareTo(anotherString) < 0) {
-                            res.add(s);
-                        }
-                    }
-                    break;
-                case ">=":
-                    for (BoardGame s : list) {
-                        if (s.getName().trim().toLowerCase().replaceAll("\\s+", "").compareTo(anotherString) >= 0) {
-                            res.add(s);
-                        }
-                    }
-                    break;
-                case "<=":
-                    for (BoardGame s : list) {
-                        if (s.getName().trim().toLowerCase().replaceAll("\\s+", "").compareTo(anotherString) <= 0) {
-                            res.add(s);
-                        }
-                    }
-                    break;
-                case ">":
-                    for (BoardGame s : list) {
-                        if (s.getName().trim().toLowerCase().replaceAll("\\s+", "").compareTo(anotherString) > 0) {
-                            res.add(s);
-                        }
-                    }
-                    break;
-                default:
-                    for (BoardGame s : list) {
-                        if (s.getName().trim().toLowerCase().replaceAll("\\s+", "")
-                                .contains(value.toLowerCase().replaceAll("\\s+", ""))) {
-                            res.add(s);
-                        }
-                    }
-                    break;
-            }
-        }
-        res.sort((o1, o2) -> o1.getName().toLowerCase().compareTo(o2.getName().toLowerCase()));
+        List<BoardGame> res = filterBy(name, GameData.NAME, list);
+        res.sort(Comparator.comparing(BoardGame::getNameKey));
         return res;
     }
 
@@ -310,53 +162,7 @@ public class Filters {
      * @return A list of board games that match the max players filter.
      */
     public List<BoardGame> filterByMaxPlayer(String cmd, List<BoardGame> list) {
-        Pattern pattern = Pattern.compile("maxplayers\\s*(~=|==|!=|>=|<=|<|>)\\s*(.*)");
-        Matcher matcher = pattern.matcher(cmd);
-        List<BoardGame> res = new ArrayList<>();
-
-        if (matcher.find()) {
-            String operator = matcher.group(1);
-            String value = matcher.group(2);
-
-            if (operator.equals("==")) {
-                for (BoardGame s : list) {
-                    if (s.getMaxPlayers() == Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals(">")) {
-                for (BoardGame s : list) {
-                    if (s.getMaxPlayers() > Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("!=")) {
-                for (BoardGame s : list) {
-                    if (s.getMaxPlayers() != Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("<")) {
-                for (BoardGame s : list) {
-                    if (s.getMaxPlayers() < Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals(">=")) {
-                for (BoardGame s : list) {
-                    if (s.getMaxPlayers() >= Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("<=")) {
-                for (BoardGame s : list) {
-                    if (s.getMaxPlayers() <= Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            }
-        }
-        return res;
+        return filterBy(cmd, GameData.MAX_PLAYERS, list);
     }
 
     /**
@@ -367,53 +173,7 @@ public class Filters {
      * @return A list of board games that match the min players filter.
      */
     public List<BoardGame> filterByMinPlayer(String cmd, List<BoardGame> list) {
-        Pattern pattern = Pattern.compile("minplayers\\s*(~=|==|!=|>=|<=|<|>)\\s*(.*)");
-        Matcher matcher = pattern.matcher(cmd);
-        List<BoardGame> res = new ArrayList<>();
-
-        if (matcher.find()) {
-            String operator = matcher.group(1);
-            String value = matcher.group(2);
-
-            if (operator.equals("==")) {
-                for (BoardGame s : list) {
-                    if (s.getMinPlayers() == Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals(">")) {
-                for (BoardGame s : list) {
-                    if (s.getMinPlayers() > Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("<")) {
-                for (BoardGame s : list) {
-                    if (s.getMinPlayers() < Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals(">=")) {
-                for (BoardGame s : list) {
-                    if (s.getMinPlayers() >= Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("!=")) {
-                for (BoardGame s : list) {
-                    if (s.getMinPlayers() != Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("<=")) {
-                for (BoardGame s : list) {
-                    if (s.getMinPlayers() <= Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            }
-        }
-        return res;
+        return filterBy(cmd, GameData.MIN_PLAYERS, list);
     }
 
     /**
@@ -424,53 +184,7 @@ public class Filters {
      * @return A list of board games that match the min play time filter.
      */
     public List<BoardGame> filterByMinTime(String cmd, List<BoardGame> list) {
-        Pattern pattern = Pattern.compile("minplaytime\\s*(~=|==|!=|>=|<=|<|>)\\s*(.*)");
-        Matcher matcher = pattern.matcher(cmd);
-        List<BoardGame> res = new ArrayList<>();
-
-        if (matcher.find()) {
-            String operator = matcher.group(1);
-            String value = matcher.group(2);
-
-            if (operator.equals("==")) {
-                for (BoardGame s : list) {
-                    if (s.getMinPlayTime() == Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals(">")) {
-                for (BoardGame s : list) {
-                    if (s.getMinPlayTime() > Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("<")) {
-                for (BoardGame s : list) {
-                    if (s.getMinPlayTime() < Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("!=")) {
-                for (BoardGame s : list) {
-                    if (s.getMaxPlayers() != Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals(">=")) {
-                for (BoardGame s : list) {
-                    if (s.getMinPlayTime() >= Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("<=")) {
-                for (BoardGame s : list) {
-                    if (s.getMinPlayTime() <= Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            }
-        }
-        return res;
+        return filterBy(cmd, GameData.MIN_TIME, list);
     }
 
     /**
@@ -481,53 +195,7 @@ public class Filters {
      * @return A list of board games that match the max play time filter.
      */
     public List<BoardGame> filterByMaxTime(String cmd, List<BoardGame> list) {
-        Pattern pattern = Pattern.compile("maxplaytime\\s*(~=|==|!=|>=|<=|<|>)\\s*(.*)");
-        Matcher matcher = pattern.matcher(cmd);
-        List<BoardGame> res = new ArrayList<>();
-
-        if (matcher.find()) {
-            String operator = matcher.group(1);
-            String value = matcher.group(2);
-
-            if (operator.equals("==")) {
-                for (BoardGame s : list) {
-                    if (s.getMaxPlayTime() == Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals(">")) {
-                for (BoardGame s : list) {
-                    if (s.getMaxPlayTime() > Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("<")) {
-                for (BoardGame s : list) {
-                    if (s.getMaxPlayTime() < Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("!=")) {
-                for (BoardGame s : list) {
-                    if (s.getMaxPlayers() != Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals(">=")) {
-                for (BoardGame s : list) {
-                    if (s.getMaxPlayTime() >= Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("<=")) {
-                for (BoardGame s : list) {
-                    if (s.getMaxPlayTime() <= Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            }
-        }
-        return res;
+        return filterBy(cmd, GameData.MAX_TIME, list);
     }
 
     /**
@@ -538,52 +206,6 @@ public class Filters {
      * @return A list of board games that match the difficulty filter.
      */
     public List<BoardGame> filterByDifficulty(String cmd, List<BoardGame> list) {
-        Pattern pattern = Pattern.compile("difficulty\\s*(~=|==|!=|>=|<=|<|>)\\s*(.*)");
-        Matcher matcher = pattern.matcher(cmd);
-        List<BoardGame> res = new ArrayList<>();
-
-        if (matcher.find()) {
-            String operator = matcher.group(1);
-            String value = matcher.group(2);
-
-            if (operator.equals("==")) {
-                for (BoardGame s : list) {
-                    if (s.getDifficulty() == Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals(">")) {
-                for (BoardGame s : list) {
-                    if (s.getDifficulty() > Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("<")) {
-                for (BoardGame s : list) {
-                    if (s.getDifficulty() < Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("!=")) {
-                for (BoardGame s : list) {
-                    if (s.getDifficulty() != Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals(">=")) {
-                for (BoardGame s : list) {
-                    if (s.getDifficulty() >= Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            } else if (operator.equals("<=")) {
-                for (BoardGame s : list) {
-                    if (s.getDifficulty() <= Integer.parseInt(value)) {
-                        res.add(s);
-                    }
-                }
-            }
-        }
-        return res;
+        return filterBy(cmd, GameData.DIFFICULTY, list);
     }
 }
@@ -0,0 +1,429 @@
+package student;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Column oriented, read only view of a board game collection.
+ *
+ * Every game gets a dense ordinal (0 to size - 1). Each numeric {@link GameData} column is stored
+ * as a single primitive array indexed by that ordinal, so filters can scan a column without
+ * touching the {@link BoardGame} objects at all. The objects themselves are kept in the same order
+ * for when results need to be returned.
+ *
+ * {@link ColumnStats} of every numeric column that can be filtered on, so not the id, are built
+ * with the catalog, so filter terms can be ordered on estimates without building the column
+ * indexes, and reports can read them without another pass over the games.
+ *
+ * A catalog never changes once built, and its lazily built indexes are published atomically, so
+ * one catalog can be shared by any number of planner sessions on any threads without locking.
+ */
+public final class GameCatalog {
+    /** Number of GameData values, used to size the column tables. */
+    private static final int COLUMNS = GameData.values().length;
+
+    /** The registry the games were interned in, catalog ordinals are its ordinals. */
+    private final GameRegistry registry;
+    /** The games, indexed by ordinal. */
+    private final BoardGame[] games;
+    /** The normalized names, indexed by ordinal. */
+    private final String[] names;
+    /** Int columns, indexed by GameData ordinal then game ordinal. Null for non int columns. */
+    private final int[][] intColumns = new int[COLUMNS][];
+    /** Double columns, indexed by GameData ordinal then game ordinal. Null for non double columns. */
+    private final double[][] doubleColumns = new double[COLUMNS][];
+    /** Trigram index over the normalized names, for substring searches. */
+    private final TrigramIndex trigrams;
+    /** Sorted indexes, indexed by GameData ordinal, built the first time they are needed. */
+    private final AtomicReferenceArray<ColumnIndex> indexes = new AtomicReferenceArray<>(COLUMNS);
+    /** Ordered index over the normalized names, built the first time it is needed. */
+    private final AtomicReference<NameIndex> nameIndex = new AtomicReference<>();
+    /** Every ordinal, the starting working set shared by all sessions. */
+    private final OrdinalBitmap all;
+    /** Statistics, indexed by GameData ordinal. Null for the name column. */
+    private final ColumnStats[] stats = new ColumnStats[COLUMNS];
+
+    /**
+     * Constructor for the catalog. Use {@link #of(Collection)} to build one.
+     *
+     * @param registry the registry holding the games, in ordinal order
+     */
+    private GameCatalog(GameRegistry registry) {
+        this.registry = registry;
+        this.games = new BoardGame[registry.size()];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = registry.get(i);
+        }
+        this.names = new String[games.length];
+        GameData[] columns = GameData.values();
+        for (GameData col : columns) {
+            if (col == GameData.NAME) {
+                continue;
+            }
+            if (isIntColumn(col)) {
+                intColumns[col.ordinal()] = new int[games.length];
+            } else {
+                doubleColumns[col.ordinal()] = new double[games.length];
+            }
+        }
+
+        for (int i = 0; i < games.length; i++) {
+            BoardGame game = games[i];
+            names[i] = game.getNameKey();
+            for (GameData col : columns) {
+                if (intColumns[col.ordinal()] != null) {
+                    intColumns[col.ordinal()][i] = (int) value(game, col);
+                } else if (doubleColumns[col.ordinal()] != null) {
+                    doubleColumns[col.ordinal()][i] = value(game, col);
+                }
+            }
+        }
+        this.trigrams = TrigramIndex.build(names);
+        this.all = OrdinalBitmap.range(games.length);
+        for (GameData col : columns) {
+            if (col != GameData.NAME && col != GameData.ID) {
+                double[] values = new double[games.length];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = value(i, col);
+                }
+                stats[col.ordinal()] = ColumnStats.build(col, values, ColumnStats.DEFAULT_BUCKETS);
+            }
+        }
+    }
+
+    /**
+     * Builds a catalog from a collection of games.
+     *
+     * The games are interned into a new {@link GameRegistry}, so duplicate games (see
+     * {@link BoardGame#equals(Object)}) are dropped, and ordinals follow the iteration order of
+     * the collection.
+     *
+     * @param games the games to store
+     * @return the new catalog
+     */
+    public static GameCatalog of(Collection<BoardGame> games) {
+        GameRegistry registry = new GameRegistry();
+        for (BoardGame game : games) {
+            registry.intern(game);
+        }
+        return new GameCatalog(registry);
+    }
+
+    /**
+     * Get the number of games in the catalog.
+     *
+     * @return the number of games
+     */
+    public int size() {
+        return games.length;
+    }
+
+    /**
+     * Get a game by its ordinal.
+     *
+     * @param ordinal the ordinal of the game
+     * @return the game
+     */
+    public BoardGame get(int ordinal) {
+        return games[ordinal];
+    }
+
+    /**
+     * Get all the games, in ordinal order.
+     *
+     * @return an unmodifiable list of the games
+     */
+    public List<BoardGame> games() {
+        return Collections.unmodifiableList(Arrays.asList(games));
+    }
+
+    /**
+     * Get the normalized name (lower case, no whitespace) of a game.
+     *
+     * @param ordinal the ordinal of the game
+     * @return the normalized name
+     */
+    public String normalizedName(int ordinal) {
+        return names[ordinal];
+    }
+
+    /**
+     * Get the registry the games were interned in.
+     *
+     * The catalog's ordinals are the registry's, so it also finds the ordinal of a game, or a
+     * game by id. Games interned after the catalog was built are not part of the catalog.
+     *
+     * @return the registry
+     */
+    public GameRegistry registry() {
+        return registry;
+    }
+
+    /**
+     * Get the trigram index over the normalized names.
+     *
+     * @return the trigram index
+     */
+    public TrigramIndex trigrams() {
+        return trigrams;
+    }
+
+    /**
+     * Get the backing array of an int column. The array must not be modified.
+     *
+     * @param column an int column
+     * @return the values of the column, indexed by ordinal
+     * @throws IllegalArgumentException if the column is not an int column
+     */
+    int[] intColumn(GameData column) {
+        int[] values = intColumns[column.ordinal()];
+        if (values == null) {
+            throw new IllegalArgumentException("Not an int column " + column);
+        }
+        return values;
+    }
+
+    /**
+     * Get the backing array of a double column. The array must not be modified.
+     *
+     * @param column a double column
+     * @return the values of the column, indexed by ordinal
+     * @throws IllegalArgumentException if the column is not a double column
+     */
+    double[] doubleColumn(GameData column) {
+        double[] values = doubleColumns[column.ordinal()];
+        if (values == null) {
+            throw new IllegalArgumentException("Not a double column " + column);
+        }
+        return values;
+    }
+
+    /**
+     * Get the value of a numeric column for a game.
+     *
+     * @param ordinal the ordinal of the game
+     * @param column  the numeric column
+     * @return the value, widened to a double
+     */
+    public double value(int ordinal, GameData column) {
+        return isIntColumn(column) ? intColumn(column)[ordinal] : doubleColumn(column)[ordinal];
+    }
+
+    /**
+     * Get the sorted index for a numeric column, building it on first use.
+     *
+     * @param column a numeric column
+     * @return the index for the column
+     * @throws IllegalArgumentException if the column is not numeric
+     */
+    public ColumnIndex index(GameData column) {
+        if (column == GameData.NAME) {
+            throw new IllegalArgumentException("Not a numeric column " + column);
+        }
+        ColumnIndex index = indexes.get(column.ordinal());
+        if (index == null) {
+            // two threads may both build it, but only one is kept
+            indexes.compareAndSet(column.ordinal(), null, ColumnIndex.build(this, column));
+            index = indexes.get(column.ordinal());
+        }
+        return index;
+    }
+
+    /**
+     * Get the statistics of a numeric column that can be filtered on.
+     *
+     * @param column a numeric column other than the id
+     * @return the statistics, built with the catalog
+     * @throws IllegalArgumentException if the column is not numeric, or is the id
+     */
+    public ColumnStats stats(GameData column) {
+        if (column == GameData.NAME || column == GameData.ID) {
+            throw new IllegalArgumentException("No statistics for column " + column);
+        }
+        return stats[column.ordinal()];
+    }
+
+    /**
+     * Get the statistics of every numeric column but the id, one line each, for capacity
+     * reports.
+     *
+     * @return the text, with a header line
+     */
+    public String statsReport() {
+        StringBuilder out = new StringBuilder(String.format("%-14s %10s %12s %12s %10s %10s %8s"
+                + " %8s%n", "column", "rows", "min", "max", "distinct", "zeros", "nulls",
+                "buckets"));
+        for (ColumnStats s : stats) {
+            if (s != null) {
+                out.append(s).append(System.lineSeparator());
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Get the ordered index over the normalized names, building it on first use.
+     *
+     * @return the name index
+     */
+    public NameIndex nameIndex() {
+        NameIndex index = nameIndex.get();
+        if (index == null) {
+            nameIndex.compareAndSet(null, NameIndex.build(this));
+            index = nameIndex.get();
+        }
+        return index;
+    }
+
+    /**
+     * Get the sort order of a column, the name index for names and the column index otherwise.
+     *
+     * @param column the column
+     * @return the ascending order of the column
+     */
+    SortOrder sortOrder(GameData column) {
+        return column == GameData.NAME ? nameIndex() : index(column);
+    }
+
+    /**
+     * Sorts a set of games on a column.
+     *
+     * The column's ascending permutation is walked, keeping the members of the set, so there is
+     * no comparison sort. Descending walks it backwards, one run of equal keys at a time, so
+     * games with equal keys stay in ordinal order either way. A set that is small next to the
+     * catalog is sorted directly instead, as walking would touch every game.
+     *
+     * @param members   the games to sort
+     * @param column    the column to sort on
+     * @param ascending true for ascending order, false for descending
+     * @return the ordinals of the members, sorted
+     */
+    public int[] sorted(OrdinalBitmap members, GameData column, boolean ascending) {
+        int count = members.cardinality();
+        if (FilterPlan.indexCost(count) < games.length) {
+            return sortDirectly(members.toArray(), column, ascending);
+        }
+        SortOrder order = sortOrder(column);
+        int[] out = new int[count];
+        int k = 0;
+        int n = order.size();
+        if (ascending) {
+            for (int p = 0; p < n && k < count; p++) {
+                int o = order.ordinalAt(p);
+                if (members.contains(o)) {
+                    out[k++] = o;
+                }
+            }
+            return out;
+        }
+        int end = n - 1;
+        while (end >= 0 && k < count) {
+            int start = end;
+            while (start > 0 && order.sameKey(start - 1, end)) {
+                start--;
+            }
+            for (int p = start; p <= end; p++) {
+                int o = order.ordinalAt(p);
+                if (members.contains(o)) {
+                    out[k++] = o;
+                }
+            }
+            end = start - 1;
+        }
+        return out;
+    }
+
+    /**
+     * Sorts a few ordinals on a column with a comparison sort.
+     *
+     * @param ordinals  the ordinals, ascending
+     * @param column    the column to sort on
+     * @param ascending true for ascending order, false for descending
+     * @return the ordinals, sorted, with ties in ordinal order
+     */
+    private int[] sortDirectly(int[] ordinals, GameData column, boolean ascending) {
+        Integer[] boxed = new Integer[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            boxed[i] = ordinals[i];
+        }
+        Comparator<Integer> order = column == GameData.NAME
+                ? Comparator.comparing(o -> names[o])
+                : Comparator.comparingDouble(o -> value(o, column));
+        // stable, and the input is in ordinal order
+        Arrays.sort(boxed, ascending ? order : order.reversed());
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = boxed[i];
+        }
+        return ordinals;
+    }
+
+    /**
+     * Get the set of every ordinal. The same instance is returned each time, so sessions that
+     * start from it share it, and their cached results key on it.
+     *
+     * @return the ordinals 0 to size - 1
+     */
+    public OrdinalBitmap all() {
+        return all;
+    }
+
+    /**
+     * Get all ordinals of the catalog, in order.
+     *
+     * @return a new array holding 0 to size - 1
+     */
+    public int[] allOrdinals() {
+        int[] all = new int[games.length];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        return all;
+    }
+
+    /**
+     * Checks if a column holds whole numbers.
+     *
+     * @param column the column to check
+     * @return true for int columns, false for double and text columns
+     */
+    static boolean isIntColumn(GameData column) {
+        return column != GameData.NAME && column != GameData.RATING && column != GameData.DIFFICULTY;
+    }
+
+    /**
+     * Get the numeric value of a column straight from a game object.
+     *
+     * @param game   the game to read
+     * @param column the numeric column to read
+     * @return the value of the column
+     */
+    static double value(BoardGame game, GameData column) {
+        switch (column) {
+            case ID:
+                return game.getId();
+            case RATING:
+                return game.getRating();
+            case DIFFICULTY:
+                return game.getDifficulty();
+            case RANK:
+                return game.getRank();
+            case MIN_PLAYERS:
+                return game.getMinPlayers();
+            case MAX_PLAYERS:
+                return game.getMaxPlayers();
+            case MIN_TIME:
+                return game.getMinPlayTime();
+            case MAX_TIME:
+                return game.getMaxPlayTime();
+            case YEAR:
+                return game.getYearPublished();
+            default:
+                throw new IllegalArgumentException("Not a numeric column " + column);
+        }
+    }
+}
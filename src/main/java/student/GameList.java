@@ -8,19 +8,66 @@ import java.util.stream.Stream;
 
 /**
  * Class for managing a list of board games.
+ *
+ * The list holds registry ordinals in a bit set rather than references to the games, and keeps
+ * them in ordinal order. Sharing the catalog's {@link GameRegistry} means the list uses the same
+ * ordinals and canonical games as the planner.
  */
 public class GameList implements IGameList {
     /** Default filename used when saving game lists. */
     private static final String DEFAULT_FILENAME = "games_list.txt";
 
-    /** Set containing all board games. */
-    private Set<BoardGame> games;
+    /** Registry the games of the list are interned in. */
+    private final GameRegistry registry;
+
+    /** Ordinals of the board games in the list. */
+    private final BitSet games = new BitSet();
 
     /**
-     * Constructor for the GameList.
+     * Constructor for the GameList, with a registry of its own.
      */
     public GameList() {
-        games = new HashSet<>();
+        this(new GameRegistry());
+    }
+
+    /**
+     * Constructor for the GameList, sharing a registry.
+     *
+     * @param registry The registry to intern games in, usually the catalog's.
+     */
+    public GameList(GameRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Adds a game to the list.
+     *
+     * @param game The game to add.
+     */
+    private void add(BoardGame game) {
+        games.set(registry.intern(game));
+    }
+
+    /**
+     * Get the games of the list, in ordinal order.
+     *
+     * @return A new list of the games.
+     */
+    private List<BoardGame> list() {
+        List<BoardGame> list = new ArrayList<>(games.cardinality());
+        for (int o = games.nextSetBit(0); o >= 0; o = games.nextSetBit(o + 1)) {
+            list.add(registry.get(o));
+        }
+        return list;
+    }
+
+    /**
+     * Get the ordinals of the list, in order.
+     *
+     * @return A new array of the ordinals.
+     */
+    private int[] ordinals() {
+        return games.stream().toArray();
     }
 
     /**
@@ -30,7 +77,7 @@ public class GameList implements IGameList {
      */
     @Override
     public List<String> getGameNames() {
-        return games.stream().map(BoardGame::getName).toList();
+        return list().stream().map(BoardGame::getName).toList();
     }
 
     /**
@@ -48,7 +95,7 @@ public class GameList implements IGameList {
      */
     @Override
     public int count() {
-        return games.size();
+        return games.cardinality();
     }
 
     /**
@@ -63,7 +110,7 @@ public class GameList implements IGameList {
         }
 
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
-            for (BoardGame game : games) {
+            for (BoardGame game : list()) {
                 writer.write(game.getName());
                 writer.newLine();
             }
@@ -92,7 +139,7 @@ public class GameList implements IGameList {
         }
 
         if ("all".equals(str)) {
-            games.addAll(filteredList);
+            filteredList.forEach(this::add);
         }
 
         // Handle range format (e.g., "1-3")
@@ -103,7 +150,7 @@ public class GameList implements IGameList {
                     int start = Integer.parseInt(arr[0]);
                     int end = Integer.parseInt(arr[1]);
                     for (int i = Math.max(0, start - 1); i < Math.min(end, filteredList.size()); i++) {
-                        games.add(filteredList.get(i));
+                        add(filteredList.get(i));
                     }
                     return;
                 } catch (NumberFormatException e) {
@@ -116,13 +163,13 @@ public class GameList implements IGameList {
         try {
             int idx = Integer.parseInt(str);
             if (idx >= 1 && idx <= filteredList.size()) {
-                games.add(filteredList.get(idx - 1));
+                add(filteredList.get(idx - 1));
             }
         } catch (NumberFormatException e) {
             // Handle direct name matching
             for (BoardGame game : filteredList) {
                 if (game.getName().equalsIgnoreCase(str)) {
-                    games.add(game);
+                    add(game);
                     return;
                 }
             }
@@ -141,7 +188,7 @@ public class GameList implements IGameList {
             return;
         }
 
-        List<BoardGame> list = new ArrayList<>(games);
+        int[] list = ordinals();
 
         if ("all".equals(str)) {
             games.clear();
@@ -156,12 +203,9 @@ public class GameList implements IGameList {
                     int start = Integer.parseInt(arr[0]);
                     int end = Integer.parseInt(arr[1]);
 
-                    // Iterate in reverse order to prevent index shifting issues
-                    for (int i = Math.min(end, list.size()) - 1; i >= Math.max(0, start - 1); i--) {
-                        list.remove(i);
+                    for (int i = Math.max(0, start - 1); i < Math.min(end, list.length); i++) {
+                        games.clear(list[i]);
                     }
-
-                    games = new HashSet<>(list);
                     return;
                 } catch (NumberFormatException e) {
                     throw new IllegalArgumentException("Invalid format for range input: " + str);
@@ -172,14 +216,17 @@ public class GameList implements IGameList {
         // Handle single index removal
         try {
             int idx = Integer.parseInt(str);
-            if (idx >= 1 && idx <= list.size()) {
-                list.remove(idx - 1); // Convert 1-based to 0-based index
-                games = new HashSet<>(list);
+            if (idx >= 1 && idx <= list.length) {
+                games.clear(list[idx - 1]); // Convert 1-based to 0-based index
                 return;
             }
         } catch (NumberFormatException e) {
             // Handle name-based removal
-            games.removeIf(game -> game.getName().equalsIgnoreCase(str));
+            for (int o : list) {
+                if (registry.get(o).getName().equalsIgnoreCase(str)) {
+                    games.clear(o);
+                }
+            }
         }
     }
 }
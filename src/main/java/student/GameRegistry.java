@@ -0,0 +1,284 @@
+package student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Interns board games, giving each distinct game one canonical instance and a dense ordinal.
+ *
+ * Games are the same when their id and name are, as in {@link BoardGame#equals(Object)}.
+ * Ordinals are handed out from 0 in the order games are first interned, so sets of games can
+ * be kept as sets of small ints, and the game for an ordinal is an array lookup.
+ *
+ * Games are also found by id in constant time. Ids are not quite unique in the data, so every
+ * game with an id is chained from the first one interned.
+ *
+ * A registry is shared by the loader, the catalog, the planner and the game list of every
+ * session, so reads must not queue behind one another. Only adding a game takes the lock. After
+ * each add a {@link View} of the arrays is published through a volatile field, and reads go
+ * through the latest view without locking. Arrays are only written past the end of a published
+ * view, or in table and chain slots that then point past its end, so a reader treats any
+ * ordinal at or past its view's size as absent and never sees a game half added.
+ */
+public final class GameRegistry {
+    /** Marks an empty slot or the end of a chain. */
+    private static final int NONE = -1;
+
+    /** Canonical games, indexed by ordinal, guarded by this registry. */
+    private BoardGame[] games = new BoardGame[16];
+    /** Next ordinal with the same id, indexed by ordinal, guarded by this registry. */
+    private int[] nextSameId = new int[16];
+    /** Open addressing table from id to first ordinal with that id, guarded by this registry. */
+    private int[] table = newTable(32);
+    /** Number of interned games, guarded by this registry. */
+    private int size;
+    /** Number of distinct ids, guarded by this registry. */
+    private int ids;
+    /** The registry as readers see it, replaced after every add. */
+    private volatile View view = new View(games, nextSameId, table, 0);
+
+    /**
+     * The arrays and size of the registry at one point, read without locking.
+     */
+    private static final class View {
+        /** Canonical games, indexed by ordinal. */
+        private final BoardGame[] games;
+        /** Next ordinal with the same id, indexed by ordinal. */
+        private final int[] nextSameId;
+        /** Open addressing table from id to the first ordinal with that id. */
+        private final int[] table;
+        /** Number of games in the view, later ordinals are not in it. */
+        private final int size;
+
+        /**
+         * Constructor for a view.
+         *
+         * @param games      the games
+         * @param nextSameId the id chains
+         * @param table      the id table
+         * @param size       the number of games
+         */
+        View(BoardGame[] games, int[] nextSameId, int[] table, int size) {
+            this.games = games;
+            this.nextSameId = nextSameId;
+            this.table = table;
+            this.size = size;
+        }
+
+        /**
+         * Finds the first ordinal with an id.
+         *
+         * @param id the id
+         * @return the ordinal, or -1 if no game in the view has the id
+         */
+        int first(int id) {
+            return visible(table[slot(table, games, size, id)]);
+        }
+
+        /**
+         * Finds the next ordinal with the same id.
+         *
+         * @param ordinal an ordinal in the view
+         * @return the next ordinal, or -1 if it is the last in the view
+         */
+        int next(int ordinal) {
+            return visible(nextSameId[ordinal]);
+        }
+
+        /**
+         * Hides ordinals added after the view.
+         *
+         * @param ordinal an ordinal read from the table or a chain
+         * @return the ordinal, or -1 if it is not in the view
+         */
+        private int visible(int ordinal) {
+            return ordinal < size ? ordinal : NONE;
+        }
+    }
+
+    /**
+     * Creates an empty registry.
+     */
+    public GameRegistry() {
+    }
+
+    /**
+     * Creates an empty table.
+     *
+     * @param capacity the number of slots, a power of two
+     * @return the table
+     */
+    private static int[] newTable(int capacity) {
+        int[] t = new int[capacity];
+        Arrays.fill(t, NONE);
+        return t;
+    }
+
+    /**
+     * Finds the slot for an id.
+     *
+     * A slot holding an ordinal at or past size is empty as far as the caller knows.
+     *
+     * @param t     the table
+     * @param games the games
+     * @param size  the number of games
+     * @param id    the id
+     * @return the slot holding the id's first ordinal, or the empty slot it would go in
+     */
+    private static int slot(int[] t, BoardGame[] games, int size, int id) {
+        int mask = t.length - 1;
+        int h = id * 0x9E3779B9;
+        int i = (h ^ (h >>> 16)) & mask;
+        while (true) {
+            int o = t[i];
+            if (o == NONE || o >= size || games[o].getId() == id) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Interns a game.
+     *
+     * A game already interned is found without locking.
+     *
+     * @param game the game
+     * @return the ordinal of the game, the existing one if an equal game was interned before
+     */
+    public int intern(BoardGame game) {
+        int o = ordinalOf(game);
+        return o != NONE ? o : add(game);
+    }
+
+    /**
+     * Adds a game, unless another thread added an equal one first, and publishes the new view.
+     *
+     * @param game the game
+     * @return the ordinal of the game
+     */
+    private synchronized int add(BoardGame game) {
+        int s = slot(table, games, size, game.getId());
+        int o = table[s];
+        if (o != NONE) {
+            while (true) {
+                if (games[o].equals(game)) {
+                    return o;
+                }
+                if (nextSameId[o] == NONE) {
+                    break;
+                }
+                o = nextSameId[o];
+            }
+        }
+
+        if (size == games.length) {
+            games = Arrays.copyOf(games, size * 2);
+            nextSameId = Arrays.copyOf(nextSameId, size * 2);
+        }
+        int ordinal = size++;
+        games[ordinal] = game;
+        nextSameId[ordinal] = NONE;
+        if (o != NONE) {
+            nextSameId[o] = ordinal; // o is the end of the id's chain
+        } else {
+            table[s] = ordinal;
+            if (++ids * 2 > table.length) {
+                rehash();
+            }
+        }
+        view = new View(games, nextSameId, table, size);
+        return ordinal;
+    }
+
+    /**
+     * Doubles the id table into a new array, leaving the one published views hold unchanged.
+     */
+    private void rehash() {
+        int[] t = newTable(table.length * 2);
+        for (int o : table) {
+            if (o != NONE) {
+                t[slot(t, games, size, games[o].getId())] = o;
+            }
+        }
+        table = t;
+    }
+
+    /**
+     * Get the number of interned games.
+     *
+     * @return the number of games
+     */
+    public int size() {
+        return view.size;
+    }
+
+    /**
+     * Get the canonical game for an ordinal.
+     *
+     * @param ordinal the ordinal
+     * @return the game
+     * @throws IndexOutOfBoundsException if the ordinal has not been handed out
+     */
+    public BoardGame get(int ordinal) {
+        View v = view;
+        if (ordinal < 0 || ordinal >= v.size) {
+            throw new IndexOutOfBoundsException("No game with ordinal " + ordinal);
+        }
+        return v.games[ordinal];
+    }
+
+    /**
+     * Finds the ordinal of a game, without interning it.
+     *
+     * @param game the game
+     * @return the ordinal, or -1 if no equal game has been interned
+     */
+    public int ordinalOf(BoardGame game) {
+        View v = view;
+        for (int o = v.first(game.getId()); o != NONE; o = v.next(o)) {
+            if (v.games[o].equals(game)) {
+                return o;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Finds the ordinal of the first game interned with an id.
+     *
+     * @param id the id
+     * @return the ordinal, or -1 if there is no game with the id
+     */
+    public int ordinalById(int id) {
+        return view.first(id);
+    }
+
+    /**
+     * Finds the first game interned with an id.
+     *
+     * @param id the id
+     * @return the game, or null if there is no game with the id
+     */
+    public BoardGame byId(int id) {
+        View v = view;
+        int o = v.first(id);
+        return o == NONE ? null : v.games[o];
+    }
+
+    /**
+     * Finds every game with an id, as ids are not always unique.
+     *
+     * @param id the id
+     * @return the games, in the order they were interned
+     */
+    public List<BoardGame> allById(int id) {
+        View v = view;
+        List<BoardGame> all = new ArrayList<>();
+        for (int o = v.first(id); o != NONE; o = v.next(o)) {
+            all.add(v.games[o]);
+        }
+        return all;
+    }
+}
@@ -1,28 +1,34 @@
 package student;
 
-import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Loads the games from the csv file into a set of BoardGame objects.
  * This file is stored in the resources folder, and while it is
  * passed in - often tends to be more fixed.
  * 
- * It assumes there are no comma's in the data (and does not handle errors if
- * there are extra commas like in the name).
+ * The file is tokenized in one pass by a {@link CsvReader}, so names may hold
+ * quoted commas. Files on disk are memory mapped a window at a time, so the
+ * whole file is never held as lines or strings.
  * 
+ * Every load, its time and the rows it skipped are counted in the global {@link Metrics}, and
+ * every load, from the csv, a snapshot or in parallel, is an {@link Events.Load} flight
+ * recorder event.
  */
 public final class GamesLoader {
-    /** Standard csv delim. */
-    private static final String DELIMITER = ",";
+    /** Most bytes of a file to map at once. */
+    private static final int WINDOW = 1 << 28;
 
     /** private constructor to prevent instantiation. */
     private GamesLoader() {
@@ -35,86 +41,337 @@ public final class GamesLoader {
      * @return a set of BoardGame objects
      */
     public static Set<BoardGame> loadGamesFile(String filename) {
+        return new HashSet<>(readGames(filename));
+    }
 
-        Set<BoardGame> games = new HashSet<>();
+    /**
+     * Loads the games from the csv file into a column oriented catalog.
+     * 
+     * Ordinals in the catalog follow the order of the rows in the file.
+     * 
+     * @param filename the name of the file to load
+     * @return a catalog of the games
+     */
+    public static GameCatalog loadCatalog(String filename) {
+        return GameCatalog.of(readGames(filename));
+    }
 
-        List<String> lines;
-        try {
-            // this is so we can store the files in the resources folder
-            InputStream is = GamesLoader.class.getResourceAsStream(filename);
-            InputStreamReader isr = new InputStreamReader(is, StandardCharsets.UTF_8);
-            BufferedReader reader = new BufferedReader(isr);
-            lines = reader.lines().collect(Collectors.toList());
-        } catch (Exception e) {
+    /**
+     * Loads the games into a catalog from a binary snapshot of the csv file.
+     * 
+     * The snapshot is used if it was built from the csv file as it is now, checked by its
+     * size, modified time and hash. Otherwise the csv file is parsed and a new snapshot is
+     * written for the next load.
+     * 
+     * @param filename the name of the csv file
+     * @param snapshot the snapshot file
+     * @return a catalog of the games, the same one {@link #loadCatalog(String)} builds
+     */
+    public static GameCatalog loadCatalog(String filename, Path snapshot) {
+        Events.Load event = new Events.Load();
+        event.begin();
+        long start = System.nanoTime();
+        try (CsvSource source = open(filename)) {
+            Path path = diskPath(filename);
+            long modified = path == null ? 0 : Files.getLastModifiedTime(path).toMillis();
+            CatalogSnapshot.Fingerprint fingerprint = CatalogSnapshot.Fingerprint.of(source,
+                    modified);
+            GameCatalog catalog = CatalogSnapshot.read(snapshot, fingerprint);
+            if (catalog != null) {
+                // rows rejected when the snapshot was built are not known
+                loaded(event, filename, source.size(), catalog.size(), 0, start);
+                return catalog;
+            }
+            Rows rows = new Rows();
+            readRange(source, 0, source.size(), WINDOW, rows);
+            catalog = GameCatalog.of(rows.games);
+            loaded(event, filename, source.size(), rows.games.size(), rows.rejected, start);
+            try {
+                CatalogSnapshot.write(catalog, fingerprint, snapshot);
+            } catch (IOException e) {
+                System.err.println("Error writing snapshot: " + e.getMessage());
+            }
+            return catalog;
+        } catch (IOException | RuntimeException e) {
             System.err.println("Error reading file: " + e.getMessage());
-            return games;
+            return GameCatalog.of(new ArrayList<>());
         }
-        if (lines == null || lines.isEmpty()) {
-            return games;
-        }
-
-        Map<GameData, Integer> columnMap = processHeader(lines.remove(0));
+    }
 
-        games = lines.stream().map(line -> toBoardGame(line, columnMap))
-                .filter(game -> game != null).collect(Collectors.toSet());
+    /**
+     * Loads the games from the csv file into a catalog, parsing chunks of the file in parallel.
+     * 
+     * The catalog is the same as {@link #loadCatalog(String)} builds, ordinals follow the order
+     * of the rows in the file.
+     * 
+     * @param filename    the name of the file to load
+     * @param parallelism the number of threads to parse with
+     * @return the catalog and the throughput of the load
+     */
+    public static LoadReport loadCatalogParallel(String filename, int parallelism) {
+        Events.Load event = new Events.Load();
+        event.begin();
+        long start = System.nanoTime();
+        try (CsvSource source = open(filename)) {
+            ParallelLoader loader = new ParallelLoader(source, parallelism, WINDOW);
+            List<BoardGame> games = loader.load();
+            loaded(event, filename, source.size(), games.size(), loader.rejectedCount(), start);
+            return new LoadReport(GameCatalog.of(games), games.size(), loader.chunkCount(),
+                    parallelism, System.nanoTime() - start);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            return new LoadReport(GameCatalog.of(new ArrayList<>()), 0, 0, parallelism,
+                    System.nanoTime() - start);
+        }
+    }
 
-        return games;
+    /**
+     * Reads the games from the csv file, in file order.
+     * 
+     * @param filename the name of the file to load
+     * @return a list of BoardGame objects, empty if the file could not be read
+     */
+    private static List<BoardGame> readGames(String filename) {
+        Events.Load event = new Events.Load();
+        event.begin();
+        long start = System.nanoTime();
+        Rows rows = new Rows();
+        long bytes;
+        try (CsvSource source = open(filename)) {
+            bytes = source.size();
+            readRange(source, 0, bytes, WINDOW, rows);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            return new ArrayList<>();
+        }
+        loaded(event, filename, bytes, rows.games.size(), rows.rejected, start);
+        return rows.games;
+    }
 
+    /**
+     * Records a finished load in the metrics and commits its flight recorder event.
+     * 
+     * @param event    the event, begun when the load started
+     * @param filename the file loaded
+     * @param bytes    size of the file
+     * @param rows     rows loaded into games
+     * @param rejected rows skipped
+     * @param start    when the load started, from {@link System#nanoTime()}
+     */
+    private static void loaded(Events.Load event, String filename, long bytes, int rows,
+            int rejected, long start) {
+        Metrics.global().loaded(rows, start);
+        Metrics.global().rejected(rejected);
+        event.finish(filename, bytes, rows, rejected);
     }
 
     /**
-     * Converts a line from the csv file into a BoardGame object.
+     * Opens the csv file.
      * 
-     * @param line      the line to convert
-     * @param columnMap the map of columns to index
-     * @return a BoardGame object
+     * A filename that names a file on disk is memory mapped, anything else is read from the
+     * classpath.
+     * 
+     * @param filename the name of the file to load
+     * @return the source of the file
+     * @throws IOException if the file can not be found or read
      */
-    private static BoardGame toBoardGame(String line, Map<GameData, Integer> columnMap) {
-        String[] columns = line.split(DELIMITER);
-        if (columns.length < columnMap.values().stream().max(Integer::compareTo).get()) {
-            return null;
+    private static CsvSource open(String filename) throws IOException {
+        Path path = diskPath(filename);
+        if (path != null) {
+            return CsvSource.of(FileChannel.open(path, StandardOpenOption.READ));
+        }
+        // this is so we can store the files in the resources folder
+        try (InputStream is = GamesLoader.class.getResourceAsStream(filename)) {
+            if (is == null) {
+                throw new IOException("No such file " + filename);
+            }
+            return CsvSource.of(is.readAllBytes());
         }
+    }
 
+    /**
+     * Finds the file on disk for a filename.
+     * 
+     * @param filename the name of the file to load
+     * @return the path, or null if it is not a file on disk
+     */
+    private static Path diskPath(String filename) {
         try {
-            BoardGame game = new BoardGame(columns[columnMap.get(GameData.NAME)],
-                    Integer.parseInt(columns[columnMap.get(GameData.ID)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.MIN_PLAYERS)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.MAX_PLAYERS)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.MIN_TIME)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.MAX_TIME)]),
-                    Double.parseDouble(columns[columnMap.get(GameData.DIFFICULTY)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.RANK)]),
-                    Double.parseDouble(columns[columnMap.get(GameData.RATING)]),
-                    Integer.parseInt(columns[columnMap.get(GameData.YEAR)]));
-            return game;
-        } catch (NumberFormatException e) {
-            // skip if there is an issue
+            Path path = Path.of(filename);
+            return Files.isRegularFile(path) ? path : null;
+        } catch (InvalidPathException e) {
             return null;
         }
     }
 
     /**
-     * Processes the header line to determine the column mapping.
+     * Reads the records that start in a range of the data, through a series of windows.
      * 
-     * It is common to do this for csv files as the columns can be in any order.
-     * This makes it order independent by taking a moment to link the columns
-     * with their actual index in the file.
+     * Each window is read up to its last complete record, and the next window starts there.
+     * The last record read may run past the end of the range. A byte order mark at the start of
+     * the data is not part of any record, so a range starting at 0 starts after it.
      * 
-     * @param header the header line
-     * @return a map of column to index
+     * @param source the data
+     * @param start  the start of the first record
+     * @param end    records starting at or after this are not read
+     * @param window the most bytes to map at once
+     * @param rows   receives the rows
+     * @return the start of the first record that was not read
+     * @throws IOException if the data can not be read, or a record is longer than a window
      */
-    private static Map<GameData, Integer> processHeader(String header) {
-        Map<GameData, Integer> columnMap = new HashMap<>();
-        String[] columns = header.split(DELIMITER);
-        for (int i = 0; i < columns.length; i++) {
-            try {
-                GameData col = GameData.fromColumnName(columns[i]);
-                columnMap.put(col, i);
-            } catch (IllegalArgumentException e) {
-                // System.out.println("Ignoring column: " + columns[i]);
+    static long readRange(CsvSource source, long start, long end, int window, Rows rows)
+            throws IOException {
+        long size = source.size();
+        long pos = start;
+        long stop = end;
+        while (pos < stop) {
+            int len = (int) Math.min(window, size - pos);
+            boolean last = pos + len == size;
+            CsvReader reader = new CsvReader(source.map(pos, len), last);
+            if (pos == 0) {
+                reader.skipByteOrderMark();
+                stop = Math.max(stop, reader.position() + 1);
+            }
+            while (pos + reader.position() < stop && reader.next()) {
+                rows.accept(reader);
+            }
+            if (reader.position() == 0 && !last) {
+                throw new IOException("Record longer than " + window + " bytes at " + pos);
+            }
+            pos += reader.position();
+            if (last) {
+                break;
             }
         }
-        return columnMap;
+        return pos;
     }
 
+    /**
+     * Turns csv records into games, treating the first record as the header.
+     */
+    static final class Rows {
+        /** The games read so far, in file order. */
+        final List<BoardGame> games = new ArrayList<>();
+        /** File column of each GameData, by ordinal. Null until the header is read. */
+        private int[] columns;
+        /** Fields a row needs to hold every column. */
+        private int required;
+        /** Rows skipped so far, counted in the metrics by the load that keeps them. */
+        int rejected;
+
+        /**
+         * Creates rows that still need the header.
+         */
+        Rows() {
+        }
+
+        /**
+         * Creates rows for records after the header, sharing the header of other rows.
+         * 
+         * @param header rows that have read the header
+         */
+        Rows(Rows header) {
+            this.columns = header.columns;
+            this.required = header.required;
+        }
+
+        /**
+         * Checks if the header has been read.
+         * 
+         * @return true once the column mapping is known
+         */
+        boolean hasHeader() {
+            return columns != null;
+        }
+
+        /**
+         * Takes the next record.
+         * 
+         * @param reader the reader, positioned on the record
+         */
+        void accept(CsvReader reader) {
+            if (columns == null) {
+                processHeader(reader);
+                return;
+            }
+            BoardGame game = toBoardGame(reader);
+            if (game != null) {
+                games.add(game);
+            } else {
+                rejected++;
+            }
+        }
+
+        /**
+         * Converts a record from the csv file into a BoardGame object.
+         * 
+         * Only the columns of a BoardGame are decoded.
+         * 
+         * @param reader the reader, positioned on the record
+         * @return a BoardGame object, or null if the row is short or has a bad number
+         */
+        private BoardGame toBoardGame(CsvReader reader) {
+            if (reader.fieldCount() < required) {
+                return null;
+            }
+            try {
+                return new BoardGame(reader.text(column(GameData.NAME)),
+                        reader.parseInt(column(GameData.ID)),
+                        reader.parseInt(column(GameData.MIN_PLAYERS)),
+                        reader.parseInt(column(GameData.MAX_PLAYERS)),
+                        reader.parseInt(column(GameData.MIN_TIME)),
+                        reader.parseInt(column(GameData.MAX_TIME)),
+                        reader.parseDouble(column(GameData.DIFFICULTY)),
+                        reader.parseInt(column(GameData.RANK)),
+                        reader.parseDouble(column(GameData.RATING)),
+                        reader.parseInt(column(GameData.YEAR)));
+            } catch (NumberFormatException e) {
+                // skip if there is an issue
+                return null;
+            }
+        }
+
+        /**
+         * Get the file column of a GameData.
+         * 
+         * @param data the column
+         * @return its index in a record
+         */
+        private int column(GameData data) {
+            return columns[data.ordinal()];
+        }
+
+        /**
+         * Processes the header record to determine the column mapping.
+         * 
+         * It is common to do this for csv files as the columns can be in any order.
+         * This makes it order independent by taking a moment to link the columns
+         * with their actual index in the file. The widest column is worked out here
+         * once, so each row only compares its field count.
+         * 
+         * @param reader the reader, positioned on the header
+         * @throws IllegalArgumentException if a column is missing
+         */
+        private void processHeader(CsvReader reader) {
+            int[] map = new int[GameData.values().length];
+            Arrays.fill(map, -1);
+            for (int i = 0; i < reader.fieldCount(); i++) {
+                try {
+                    GameData col = GameData.fromColumnName(reader.text(i));
+                    map[col.ordinal()] = i;
+                } catch (IllegalArgumentException e) {
+                    // System.out.println("Ignoring column: " + reader.text(i));
+                }
+            }
+            int max = 0;
+            for (GameData col : GameData.values()) {
+                if (map[col.ordinal()] < 0) {
+                    throw new IllegalArgumentException("Missing column " + col.getColumnName());
+                }
+                max = Math.max(max, map[col.ordinal()]);
+            }
+            columns = map;
+            required = max + 1;
+        }
+    }
 }
@@ -0,0 +1,27 @@
+package student;
+
+import java.util.stream.Stream;
+
+/**
+ * A planner that can return one page of a sorted result.
+ *
+ * The page is selected without sorting the whole result, so asking for the first rows of a
+ * broad filter costs about as much as scanning it.
+ */
+public interface IPagedPlanner extends IPlanner {
+
+    /**
+     * Filters the board games like {@link #filter(String, GameData, boolean)}, and returns one
+     * page of the sorted result.
+     *
+     * @param filter The filter to apply to the board games.
+     * @param sortOn The column to sort the results on.
+     * @param ascending Whether to sort the results in ascending order or descending order.
+     * @param offset The number of sorted games to skip.
+     * @param limit The most games to return.
+     * @return A stream of at most limit games, starting offset games into the sorted result.
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    Stream<BoardGame> filter(String filter, GameData sortOn, boolean ascending, int offset,
+            int limit);
+}
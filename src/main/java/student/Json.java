@@ -0,0 +1,132 @@
+package student;
+
+import java.util.List;
+
+/**
+ * Just enough JSON writing for the server's responses, so it needs nothing beyond the JDK.
+ */
+final class Json {
+    /** Hex digits for escapes. */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** private constructor to prevent instantiation. */
+    private Json() {
+    }
+
+    /**
+     * Appends a string as a quoted JSON string.
+     *
+     * @param out  the text so far
+     * @param text the string, null is written as null
+     * @return out
+     */
+    static StringBuilder string(StringBuilder out, String text) {
+        if (text == null) {
+            return out.append("null");
+        }
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        return out.append('"');
+    }
+
+    /**
+     * Appends a number. JSON has no NaN or infinity, so those are written as null.
+     *
+     * @param out   the text so far
+     * @param value the number
+     * @return out
+     */
+    static StringBuilder number(StringBuilder out, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return out.append("null");
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return out.append((long) value);
+        }
+        return out.append(value);
+    }
+
+    /**
+     * Appends a game as an object.
+     *
+     * @param out  the text so far
+     * @param game the game
+     * @return out
+     */
+    static StringBuilder game(StringBuilder out, BoardGame game) {
+        out.append("{\"id\":").append(game.getId()).append(",\"name\":");
+        string(out, game.getName());
+        out.append(",\"minPlayers\":").append(game.getMinPlayers());
+        out.append(",\"maxPlayers\":").append(game.getMaxPlayers());
+        out.append(",\"minPlayTime\":").append(game.getMinPlayTime());
+        out.append(",\"maxPlayTime\":").append(game.getMaxPlayTime());
+        out.append(",\"difficulty\":");
+        number(out, game.getDifficulty());
+        out.append(",\"rank\":").append(game.getRank());
+        out.append(",\"rating\":");
+        number(out, game.getRating());
+        out.append(",\"yearPublished\":").append(game.getYearPublished());
+        return out.append('}');
+    }
+
+    /**
+     * Appends games as an array of objects.
+     *
+     * @param out   the text so far
+     * @param games the games
+     * @return out
+     */
+    static StringBuilder games(StringBuilder out, List<BoardGame> games) {
+        out.append('[');
+        for (int i = 0; i < games.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            game(out, games.get(i));
+        }
+        return out.append(']');
+    }
+
+    /**
+     * Appends strings as an array.
+     *
+     * @param out     the text so far
+     * @param strings the strings
+     * @return out
+     */
+    static StringBuilder strings(StringBuilder out, List<String> strings) {
+        out.append('[');
+        for (int i = 0; i < strings.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            string(out, strings.get(i));
+        }
+        return out.append(']');
+    }
+}
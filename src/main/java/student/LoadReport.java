@@ -0,0 +1,104 @@
+package student;
+
+/**
+ * The result of a parallel catalog load, with its throughput.
+ */
+public final class LoadReport {
+    /** The loaded catalog. */
+    private final GameCatalog catalog;
+    /** Rows parsed into games, before duplicates were removed. */
+    private final int rows;
+    /** Chunks the file was cut into. */
+    private final int chunks;
+    /** Threads the chunks were parsed on. */
+    private final int parallelism;
+    /** Wall clock time of the load. */
+    private final long elapsedNanos;
+
+    /**
+     * Constructor for the report.
+     *
+     * @param catalog      the loaded catalog
+     * @param rows         rows parsed into games
+     * @param chunks       chunks the file was cut into
+     * @param parallelism  threads the chunks were parsed on
+     * @param elapsedNanos wall clock time of the load
+     */
+    LoadReport(GameCatalog catalog, int rows, int chunks, int parallelism, long elapsedNanos) {
+        this.catalog = catalog;
+        this.rows = rows;
+        this.chunks = chunks;
+        this.parallelism = parallelism;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Get the loaded catalog.
+     *
+     * @return the catalog
+     */
+    public GameCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Get the number of rows parsed into games.
+     *
+     * @return the number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the number of chunks the file was cut into.
+     *
+     * @return the number of chunks
+     */
+    public int getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Get the number of threads the chunks were parsed on.
+     *
+     * @return the number of threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Get the wall clock time of the load.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Get the overall throughput.
+     *
+     * @return rows per second
+     */
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Get the throughput of each thread, to compare loads with different parallelism.
+     *
+     * @return rows per second per core
+     */
+    public double rowsPerSecondPerCore() {
+        return rowsPerSecond() / parallelism;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Loaded %d rows in %d chunks on %d threads in %.1f ms "
+                + "(%.0f rows/s, %.0f rows/s per core)", rows, chunks, parallelism,
+                elapsedNanos / 1e6, rowsPerSecond(), rowsPerSecondPerCore());
+    }
+}
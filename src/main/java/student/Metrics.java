@@ -0,0 +1,459 @@
+package student;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters and latency histograms for the hot paths of the planner, filters and loader.
+ *
+ * Everything is recorded into {@link LongAdder}s, which stripe their count across cells when
+ * threads contend, so planner sessions and loader threads never wait on each other to record.
+ * Recording a timing is a few adds into a fixed array of log2 buckets, with no allocation, so
+ * the metrics are always on. Reads sum the cells, and are only as consistent as a snapshot of
+ * counters that keep moving can be.
+ *
+ * The {@link #global()} metrics are recorded by {@link Planner}, {@link Filters},
+ * {@link FilterPlan} and {@link GamesLoader}, and the time to turn a result into games by
+ * {@link BatchRunner} and {@link PlannerServer}. They can be read through {@link #dump()}, or
+ * over JMX once {@link #register()} has been called.
+ */
+public final class Metrics implements MetricsMXBean {
+    /** Name the global metrics are registered under. */
+    public static final String OBJECT_NAME = "student:type=Metrics";
+
+    /** The metrics every class records into. */
+    private static final Metrics GLOBAL = new Metrics();
+
+    /**
+     * The timed stages of a query or load.
+     */
+    public enum Stage {
+        /** Compiling filter text into a plan. */
+        PARSE,
+        /** Running a plan over the working set. */
+        EVALUATE,
+        /** Ordering the result. */
+        SORT,
+        /** Turning result ordinals into a list of games. */
+        MATERIALIZE,
+        /** Reading a collection file into games. */
+        LOAD
+    }
+
+    /** Queries run by planners. */
+    private final LongAdder queries = new LongAdder();
+    /** Collection files loaded. */
+    private final LongAdder loads = new LongAdder();
+    /** Rows loaded into games. */
+    private final LongAdder rowsLoaded = new LongAdder();
+    /** Rows skipped by the loader. */
+    private final LongAdder rowsRejected = new LongAdder();
+    /** Timings of each stage, by ordinal. */
+    private final Histogram[] latencies = new Histogram[Stage.values().length];
+    /** Filter terms run on each column, by GameData ordinal. */
+    private final LongAdder[] terms = adders();
+    /** Filter terms answered from an index, by GameData ordinal. */
+    private final LongAdder[] probes = adders();
+    /** Rows filter terms were run on, by GameData ordinal. */
+    private final LongAdder[] scanned = adders();
+    /** Rows filter terms kept, by GameData ordinal. */
+    private final LongAdder[] returned = adders();
+
+    /**
+     * Creates empty metrics. Classes record into {@link #global()}, others are for tests.
+     */
+    public Metrics() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new Histogram();
+        }
+    }
+
+    /**
+     * Makes a counter for each column.
+     *
+     * @return the counters, by GameData ordinal
+     */
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[GameData.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Get the metrics every class records into.
+     *
+     * @return the global metrics
+     */
+    public static Metrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Registers the global metrics with the platform MBean server, if they are not already.
+     *
+     * @return false if they were already registered
+     */
+    public static synchronized boolean register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                return false;
+            }
+            server.registerMBean(GLOBAL, name);
+            return true;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Counts a query.
+     */
+    public void query() {
+        queries.increment();
+    }
+
+    /**
+     * Records the time of a stage that started at a given time.
+     *
+     * @param stage the stage
+     * @param start the {@link System#nanoTime()} it started at
+     */
+    public void time(Stage stage, long start) {
+        latencies[stage.ordinal()].record(System.nanoTime() - start);
+    }
+
+    /**
+     * Records one filter term run over a working set.
+     *
+     * @param column the column the term is on
+     * @param probed true if it was answered from an index rather than a scan
+     * @param in     the rows it was run on
+     * @param out    the rows it kept
+     */
+    public void term(GameData column, boolean probed, int in, int out) {
+        int i = column.ordinal();
+        terms[i].increment();
+        if (probed) {
+            probes[i].increment();
+        }
+        scanned[i].add(in);
+        returned[i].add(out);
+    }
+
+    /**
+     * Records a load of a collection file.
+     *
+     * @param rows  the rows loaded into games
+     * @param start the {@link System#nanoTime()} the load started at
+     */
+    public void loaded(int rows, long start) {
+        loads.increment();
+        rowsLoaded.add(rows);
+        time(Stage.LOAD, start);
+    }
+
+    /**
+     * Counts rows the loader skipped.
+     *
+     * @param rows the number of rows skipped
+     */
+    public void rejected(int rows) {
+        rowsRejected.add(rows);
+    }
+
+    /**
+     * Get the timings of a stage.
+     *
+     * @param stage the stage
+     * @return its histogram
+     */
+    public Histogram latency(Stage stage) {
+        return latencies[stage.ordinal()];
+    }
+
+    /**
+     * Get the number of filter terms run on a column.
+     *
+     * @param column the column
+     * @return the number of terms
+     */
+    public long terms(GameData column) {
+        return terms[column.ordinal()].sum();
+    }
+
+    /**
+     * Get the number of filter terms on a column answered from an index.
+     *
+     * @param column the column
+     * @return the number of probes
+     */
+    public long probes(GameData column) {
+        return probes[column.ordinal()].sum();
+    }
+
+    /**
+     * Get the rows filter terms on a column were run on.
+     *
+     * @param column the column
+     * @return the rows in
+     */
+    public long scanned(GameData column) {
+        return scanned[column.ordinal()].sum();
+    }
+
+    /**
+     * Get the rows filter terms on a column kept.
+     *
+     * @param column the column
+     * @return the rows out
+     */
+    public long returned(GameData column) {
+        return returned[column.ordinal()].sum();
+    }
+
+    @Override
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    @Override
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    @Override
+    public long getRowsLoaded() {
+        return rowsLoaded.sum();
+    }
+
+    @Override
+    public long getRowsRejected() {
+        return rowsRejected.sum();
+    }
+
+    @Override
+    public Map<String, Long> getLatencyCounts() {
+        return byStage(Histogram::count);
+    }
+
+    @Override
+    public Map<String, Double> getLatencyMeanMicros() {
+        Map<String, Double> map = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            map.put(stage.name().toLowerCase(), latency(stage).meanNanos() / 1000);
+        }
+        return map;
+    }
+
+    @Override
+    public Map<String, Long> getLatencyP99Micros() {
+        return byStage(h -> h.percentile(0.99) / 1000);
+    }
+
+    @Override
+    public Map<String, Long> getRowsScanned() {
+        return byColumn(scanned);
+    }
+
+    @Override
+    public Map<String, Long> getRowsReturned() {
+        return byColumn(returned);
+    }
+
+    /**
+     * Reads a value of every stage's histogram.
+     *
+     * @param value the value to read
+     * @return the values, by stage name
+     */
+    private Map<String, Long> byStage(ToLongFunction<Histogram> value) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            map.put(stage.name().toLowerCase(), value.applyAsLong(latency(stage)));
+        }
+        return map;
+    }
+
+    /**
+     * Reads a counter of every column.
+     *
+     * @param adders the counters, by GameData ordinal
+     * @return the sums, by column name
+     */
+    private static Map<String, Long> byColumn(LongAdder[] adders) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (GameData column : GameData.values()) {
+            map.put(column.getColumnName(), adders[column.ordinal()].sum());
+        }
+        return map;
+    }
+
+    /**
+     * Writes every metric as plain text, a block of counters, a table of stage timings in
+     * microseconds, and a table of filter terms by column.
+     *
+     * @return the text
+     */
+    @Override
+    public String dump() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("queries %d%nloads %d, rows loaded %d, rows rejected %d%n%n",
+                getQueries(), getLoads(), getRowsLoaded(), getRowsRejected()));
+        out.append(String.format("%-12s %10s %10s %10s %10s %10s%n", "stage", "count",
+                "mean us", "p50 us", "p99 us", "max us"));
+        for (Stage stage : Stage.values()) {
+            Histogram h = latency(stage);
+            out.append(String.format("%-12s %10d %10.1f %10d %10d %10d%n",
+                    stage.name().toLowerCase(), h.count(), h.meanNanos() / 1000,
+                    h.percentile(0.5) / 1000, h.percentile(0.99) / 1000, h.maxNanos() / 1000));
+        }
+        out.append(String.format("%n%-14s %10s %10s %12s %12s %8s%n", "column", "terms",
+                "probes", "scanned", "returned", "kept"));
+        for (GameData column : GameData.values()) {
+            long in = scanned(column);
+            long kept = returned(column);
+            out.append(String.format("%-14s %10d %10d %12d %12d %7.1f%%%n",
+                    column.getColumnName(), terms(column), probes(column), in, kept,
+                    in == 0 ? 0.0 : kept * 100.0 / in));
+        }
+        return out.toString();
+    }
+
+    @Override
+    public void reset() {
+        queries.reset();
+        loads.reset();
+        rowsLoaded.reset();
+        rowsRejected.reset();
+        for (Histogram h : latencies) {
+            h.reset();
+        }
+        for (LongAdder[] adders : new LongAdder[][] {terms, probes, scanned, returned}) {
+            for (LongAdder a : adders) {
+                a.reset();
+            }
+        }
+    }
+
+    /**
+     * A latency histogram with a bucket per power of two nanoseconds.
+     *
+     * Percentiles are the upper bound of the bucket they fall in, so they are within a factor
+     * of two, which is enough to tell a microsecond from a millisecond.
+     */
+    public static final class Histogram {
+        /** Buckets, one per bit of a long. */
+        private static final int BUCKETS = 64;
+
+        /** Timings in each bucket, bucket i holds times below 2 to the i. */
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        /** Sum of the timings. */
+        private final LongAdder total = new LongAdder();
+        /** Longest timing. */
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        /**
+         * Creates an empty histogram.
+         */
+        Histogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Records a timing.
+         *
+         * @param nanos the time taken, negative times count as 0
+         */
+        public void record(long nanos) {
+            long n = Math.max(0, nanos);
+            buckets[BUCKETS - Long.numberOfLeadingZeros(n)].increment();
+            total.add(n);
+            max.accumulate(n);
+        }
+
+        /**
+         * Get the number of timings.
+         *
+         * @return the count
+         */
+        public long count() {
+            long count = 0;
+            for (LongAdder b : buckets) {
+                count += b.sum();
+            }
+            return count;
+        }
+
+        /**
+         * Get the mean timing.
+         *
+         * @return the mean in nanoseconds, 0 if nothing was recorded
+         */
+        public double meanNanos() {
+            long count = count();
+            return count == 0 ? 0 : (double) total.sum() / count;
+        }
+
+        /**
+         * Get the longest timing.
+         *
+         * @return the time in nanoseconds
+         */
+        public long maxNanos() {
+            return max.get();
+        }
+
+        /**
+         * Estimates a percentile of the timings.
+         *
+         * @param fraction the percentile, from 0 to 1
+         * @return the upper bound of its bucket in nanoseconds, at most the longest timing
+         */
+        public long percentile(double fraction) {
+            long[] counts = new long[BUCKETS];
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                count += counts[i];
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(fraction * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    long bound = i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+                    return Math.min(bound, maxNanos());
+                }
+            }
+            return maxNanos();
+        }
+
+        /**
+         * Empties the histogram.
+         */
+        void reset() {
+            for (LongAdder b : buckets) {
+                b.reset();
+            }
+            total.reset();
+            max.reset();
+        }
+    }
+}
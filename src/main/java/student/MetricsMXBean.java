@@ -0,0 +1,85 @@
+package student;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link Metrics}, registered as {@value Metrics#OBJECT_NAME}.
+ *
+ * Maps are keyed on the stage or column name, so JMX consoles show them as tables.
+ */
+public interface MetricsMXBean {
+    /**
+     * Get the number of queries run by planners.
+     *
+     * @return the number of queries
+     */
+    long getQueries();
+
+    /**
+     * Get the number of collection files loaded.
+     *
+     * @return the number of loads
+     */
+    long getLoads();
+
+    /**
+     * Get the number of rows loaded into games.
+     *
+     * @return the number of rows
+     */
+    long getRowsLoaded();
+
+    /**
+     * Get the number of rows skipped as too short or holding a bad number.
+     *
+     * @return the number of rows
+     */
+    long getRowsRejected();
+
+    /**
+     * Get the number of timings of each stage.
+     *
+     * @return the counts, by stage
+     */
+    Map<String, Long> getLatencyCounts();
+
+    /**
+     * Get the mean time of each stage.
+     *
+     * @return the means in microseconds, by stage
+     */
+    Map<String, Double> getLatencyMeanMicros();
+
+    /**
+     * Get the 99th percentile time of each stage.
+     *
+     * @return the percentiles in microseconds, by stage
+     */
+    Map<String, Long> getLatencyP99Micros();
+
+    /**
+     * Get the rows filter terms on each column were run on.
+     *
+     * @return the rows in, by column
+     */
+    Map<String, Long> getRowsScanned();
+
+    /**
+     * Get the rows filter terms on each column kept.
+     *
+     * @return the rows out, by column
+     */
+    Map<String, Long> getRowsReturned();
+
+    /**
+     * Writes every metric as plain text.
+     *
+     * @return the text
+     */
+    String dump();
+
+    /**
+     * Sets every metric back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,204 @@
+package student;
+
+import java.util.Arrays;
+
+/**
+ * Ordered index over the normalized names of a {@link GameCatalog}.
+ *
+ * The index is the permutation of game ordinals that sorts the name keys (ties are kept in
+ * ordinal order), along with the keys in that order. The ordered name operators
+ * ({@code <, <=, >, >=, ==, !=}) become a binary search and a slice, and a prefix lookup walks
+ * forward from the first key at or after the prefix, so type-ahead only touches the rows it
+ * returns.
+ */
+public final class NameIndex implements SortOrder {
+    /** Game ordinals, in ascending name key order. */
+    private final int[] order;
+    /** Name keys, ascending, so keys[i] is the key of order[i]. */
+    private final String[] keys;
+
+    /**
+     * Constructor for the index. Use {@link #build(GameCatalog)} to create one.
+     *
+     * @param order the sorted permutation of ordinals
+     * @param keys  the name keys in sorted order
+     */
+    private NameIndex(int[] order, String[] keys) {
+        this.order = order;
+        this.keys = keys;
+    }
+
+    /**
+     * Builds the name index for a catalog.
+     *
+     * @param catalog the catalog to index
+     * @return the new index
+     */
+    static NameIndex build(GameCatalog catalog) {
+        int n = catalog.size();
+        Integer[] sorted = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+        }
+        // stable, so equal names stay in ordinal order
+        Arrays.sort(sorted, (a, b) -> catalog.normalizedName(a).compareTo(catalog.normalizedName(b)));
+        int[] order = new int[n];
+        String[] keys = new String[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = sorted[i];
+            keys[i] = catalog.normalizedName(order[i]);
+        }
+        return new NameIndex(order, keys);
+    }
+
+    /**
+     * Get the number of games in the index.
+     *
+     * @return the number of games
+     */
+    @Override
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * Get the ordinal at a position in name order.
+     *
+     * @param position the position, 0 is the first name
+     * @return the ordinal of the game
+     */
+    @Override
+    public int ordinalAt(int position) {
+        return order[position];
+    }
+
+    /**
+     * Checks if two positions have equal keys.
+     *
+     * @param a the first position
+     * @param b the second position
+     * @return true if the keys are equal
+     */
+    @Override
+    public boolean sameKey(int a, int b) {
+        return keys[a].equals(keys[b]);
+    }
+
+    /**
+     * Finds the first position whose key is greater than or equal to the given key.
+     *
+     * @param key the normalized key to search for
+     * @return the position, size() if every key is smaller
+     */
+    public int lowerBound(String key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Finds the first position whose key is strictly greater than the given key.
+     *
+     * @param key the normalized key to search for
+     * @return the position, size() if no key is greater
+     */
+    public int upperBound(String key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Get the slice of positions a name term accepts (before negation).
+     *
+     * @param term an ordered name term, any operator except contains
+     * @return the first position, inclusive, and the last position, exclusive
+     */
+    private int[] slice(FilterTerm term) {
+        String key = term.getValue();
+        switch (term.getOperation()) {
+            case GREATER_THAN:
+                return new int[] {upperBound(key), keys.length};
+            case GREATER_THAN_EQUALS:
+                return new int[] {lowerBound(key), keys.length};
+            case LESS_THAN:
+                return new int[] {0, lowerBound(key)};
+            case LESS_THAN_EQUALS:
+                return new int[] {0, upperBound(key)};
+            default: // equals and not equals
+                return new int[] {lowerBound(key), upperBound(key)};
+        }
+    }
+
+    /**
+     * Counts the games matching a name term, without building the result.
+     *
+     * @param term an ordered name term, any operator except contains
+     * @return the number of matching games
+     */
+    public int count(FilterTerm term) {
+        int[] slice = slice(term);
+        int size = slice[1] - slice[0];
+        return term.isNegated() ? keys.length - size : size;
+    }
+
+    /**
+     * Finds the games matching a name term.
+     *
+     * @param term an ordered name term, any operator except contains
+     * @return the ordinals of the matching games, in ascending ordinal order
+     */
+    public int[] select(FilterTerm term) {
+        int[] slice = slice(term);
+        int from = slice[0];
+        int to = slice[1];
+        int[] res;
+        if (term.isNegated()) {
+            res = new int[keys.length - (to - from)];
+            System.arraycopy(order, 0, res, 0, from);
+            System.arraycopy(order, to, res, from, keys.length - to);
+        } else {
+            res = Arrays.copyOfRange(order, from, to);
+        }
+        Arrays.sort(res);
+        return res;
+    }
+
+    /**
+     * Finds the first games, in name order, whose key starts with a prefix.
+     *
+     * @param prefix the text typed so far, normalized the same way as names
+     * @param limit  the most games to return
+     * @param within only games in this set are returned, null for the whole catalog
+     * @return the ordinals of the matching games, in name order
+     */
+    public int[] prefix(String prefix, int limit, OrdinalBitmap within) {
+        int[] res = new int[Math.max(0, Math.min(limit, keys.length))];
+        int k = 0;
+        for (int i = lowerBound(prefix); i < keys.length && k < res.length; i++) {
+            if (!keys[i].startsWith(prefix)) {
+                break;
+            }
+            if (within == null || within.contains(order[i])) {
+                res[k++] = order[i];
+            }
+        }
+        return k == res.length ? res : Arrays.copyOf(res, k);
+    }
+}
@@ -0,0 +1,84 @@
+package student;
+
+import java.util.Locale;
+
+/**
+ * Builds the normalized collation key used to compare and search game names.
+ *
+ * A key is the text with all whitespace removed and the case folded, so "Go Fish" and "gofish"
+ * have the same key. Most names are plain ASCII, and those take a single pass that returns the
+ * original string when it is already a key. Other names fall back to a full Unicode case fold,
+ * which also handles characters whose folded form is longer, such as the German sharp s.
+ */
+final class NameKey {
+
+    /** private constructor to prevent instantiation. */
+    private NameKey() {
+    }
+
+    /**
+     * Builds the key for a piece of text.
+     *
+     * @param text the name or filter text
+     * @return the key, lower case with no whitespace
+     */
+    static String of(String text) {
+        int n = text.length();
+        int i = 0;
+        // find the first character that needs changing, most keys are already normalized
+        while (i < n) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                return fold(text);
+            }
+            if ((c >= 'A' && c <= 'Z') || isAsciiWhitespace(c)) {
+                break;
+            }
+            i++;
+        }
+        if (i == n) {
+            return text;
+        }
+
+        char[] out = new char[n];
+        text.getChars(0, i, out, 0);
+        int k = i;
+        for (; i < n; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                return fold(text);
+            }
+            if (c >= 'A' && c <= 'Z') {
+                out[k++] = (char) (c + ('a' - 'A'));
+            } else if (!isAsciiWhitespace(c)) {
+                out[k++] = c;
+            }
+        }
+        return new String(out, 0, k);
+    }
+
+    /**
+     * Checks for the ASCII characters that {@link Character#isWhitespace(char)} accepts.
+     *
+     * @param c the character
+     * @return true if it is whitespace
+     */
+    private static boolean isAsciiWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r') || (c >= 0x1C && c <= 0x1F);
+    }
+
+    /**
+     * Slow path for text with non ASCII characters.
+     *
+     * Upper casing and then lower casing is a close approximation of Unicode case folding, for
+     * example both "STRASSE" and "Stra&szlig;e" become "strasse".
+     *
+     * @param text the text to fold
+     * @return the key
+     */
+    private static String fold(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        text.codePoints().filter(cp -> !Character.isWhitespace(cp)).forEach(sb::appendCodePoint);
+        return sb.toString().toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+}
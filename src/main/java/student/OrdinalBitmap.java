@@ -0,0 +1,708 @@
+package student;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Immutable, compressed set of game ordinals.
+ *
+ * The layout follows Roaring bitmaps: ordinals are split on their high 16 bits into chunks, and
+ * each chunk is stored in whichever container is smaller for it. Sparse chunks (up to 4096
+ * values) are a sorted char array, dense chunks are a 65536 bit bitmap, and a completely full
+ * chunk is one shared constant. Intersections work chunk by chunk, and any chunk that does not
+ * change is shared with the input instead of being copied, so narrowing a set only costs memory
+ * for the chunks that actually changed.
+ */
+public final class OrdinalBitmap {
+    /** Largest chunk stored as a sorted array, above this a bitmap is smaller. */
+    private static final int ARRAY_MAX = 4096;
+    /** Number of values in one chunk. */
+    private static final int CHUNK = 1 << 16;
+    /** The empty set. */
+    private static final OrdinalBitmap EMPTY = new OrdinalBitmap(new char[0], new Container[0], 0);
+
+    /** High 16 bits of each chunk, ascending. */
+    private final char[] keys;
+    /** The container for each key. */
+    private final Container[] containers;
+    /** Total number of ordinals in the set. */
+    private final int cardinality;
+    /** Hash code, computed on first use, 0 until then. */
+    private int hash;
+
+    /**
+     * Constructor for the bitmap.
+     *
+     * @param keys        the chunk keys, ascending
+     * @param containers  the non empty containers, one per key
+     * @param cardinality the total number of ordinals
+     */
+    private OrdinalBitmap(char[] keys, Container[] containers, int cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Get the empty set.
+     *
+     * @return the empty set
+     */
+    public static OrdinalBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the set of every ordinal from 0 to n - 1.
+     *
+     * Full chunks share a single constant container, so this is cheap even for large n.
+     *
+     * @param n the number of ordinals
+     * @return the full set
+     */
+    public static OrdinalBitmap range(int n) {
+        if (n <= 0) {
+            return EMPTY;
+        }
+        int chunks = (n + CHUNK - 1) >>> 16;
+        char[] keys = new char[chunks];
+        Container[] containers = new Container[chunks];
+        for (int i = 0; i < chunks; i++) {
+            keys[i] = (char) i;
+            int size = Math.min(CHUNK, n - (i << 16));
+            containers[i] = size == CHUNK ? BitmapContainer.FULL : Container.range(size);
+        }
+        return new OrdinalBitmap(keys, containers, n);
+    }
+
+    /**
+     * Builds a set from ordinals in ascending order.
+     *
+     * @param sorted distinct ordinals, ascending
+     * @return the new set
+     */
+    public static OrdinalBitmap fromSorted(int[] sorted) {
+        return fromSorted(sorted, sorted.length);
+    }
+
+    /**
+     * Builds a set from the first n ordinals of an ascending array.
+     *
+     * @param sorted distinct ordinals, ascending
+     * @param n      the number of ordinals in use
+     * @return the new set
+     */
+    public static OrdinalBitmap fromSorted(int[] sorted, int n) {
+        if (n == 0) {
+            return EMPTY;
+        }
+        int chunks = 1;
+        for (int i = 1; i < n; i++) {
+            if (sorted[i] >>> 16 != sorted[i - 1] >>> 16) {
+                chunks++;
+            }
+        }
+        char[] keys = new char[chunks];
+        Container[] containers = new Container[chunks];
+        int from = 0;
+        for (int c = 0; c < chunks; c++) {
+            int key = sorted[from] >>> 16;
+            int to = from + 1;
+            while (to < n && sorted[to] >>> 16 == key) {
+                to++;
+            }
+            keys[c] = (char) key;
+            containers[c] = Container.fromSorted(sorted, from, to);
+            from = to;
+        }
+        return new OrdinalBitmap(keys, containers, n);
+    }
+
+    /**
+     * Get the number of ordinals in the set.
+     *
+     * @return the cardinality
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Checks if the set is empty.
+     *
+     * @return true if there are no ordinals
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Checks if an ordinal is in the set.
+     *
+     * @param ordinal the ordinal to look for
+     * @return true if it is in the set
+     */
+    public boolean contains(int ordinal) {
+        int idx = Arrays.binarySearch(keys, (char) (ordinal >>> 16));
+        return idx >= 0 && containers[idx].contains((char) ordinal);
+    }
+
+    /**
+     * Intersects this set with another.
+     *
+     * Chunks that are unchanged by the intersection are shared, not copied.
+     *
+     * @param other the other set
+     * @return the ordinals in both sets
+     */
+    public OrdinalBitmap and(OrdinalBitmap other) {
+        if (other == this) {
+            return this;
+        }
+        int max = Math.min(keys.length, other.keys.length);
+        char[] outKeys = new char[max];
+        Container[] outContainers = new Container[max];
+        int k = 0;
+        int card = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container c = containers[i].and(other.containers[j]);
+                if (c != null) {
+                    outKeys[k] = keys[i];
+                    outContainers[k++] = c;
+                    card += c.cardinality();
+                }
+                i++;
+                j++;
+            }
+        }
+        if (card == cardinality) {
+            return this;
+        } else if (card == other.cardinality) {
+            return other;
+        }
+        return new OrdinalBitmap(Arrays.copyOf(outKeys, k), Arrays.copyOf(outContainers, k), card);
+    }
+
+    /**
+     * Keeps only the ordinals accepted by a chunk filter.
+     *
+     * Each chunk is decoded into a scratch array of ordinals, handed to the filter, and rebuilt
+     * from what is left. Chunks where the filter keeps everything are shared with this set.
+     *
+     * @param filter the filter to apply to each chunk
+     * @return the ordinals the filter kept
+     */
+    public OrdinalBitmap filter(ChunkFilter filter) {
+        if (cardinality == 0) {
+            return this;
+        }
+        int[] buffer = new int[Math.min(cardinality, CHUNK)];
+        char[] outKeys = new char[keys.length];
+        Container[] outContainers = new Container[keys.length];
+        int k = 0;
+        int card = 0;
+        for (int i = 0; i < keys.length; i++) {
+            Container c = containers[i];
+            int n = c.decode(buffer, 0, keys[i] << 16);
+            int m = filter.apply(buffer, n);
+            if (m == 0) {
+                continue;
+            }
+            outKeys[k] = keys[i];
+            outContainers[k++] = m == n ? c : Container.fromSorted(buffer, 0, m);
+            card += m;
+        }
+        if (card == cardinality) {
+            return this;
+        }
+        return new OrdinalBitmap(Arrays.copyOf(outKeys, k), Arrays.copyOf(outContainers, k), card);
+    }
+
+    /**
+     * Get the ordinals as an array.
+     *
+     * @return a new array of the ordinals, ascending
+     */
+    public int[] toArray() {
+        int[] res = new int[cardinality];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            n += containers[i].decode(res, n, keys[i] << 16);
+        }
+        return res;
+    }
+
+    /**
+     * Get an iterator over the ordinals, in ascending order.
+     *
+     * @return the iterator
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new Cursor();
+    }
+
+    /**
+     * Get a lazy stream of the ordinals, in ascending order.
+     *
+     * @return the stream
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(Spliterators.spliterator(iterator(), cardinality,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT
+                        | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * Estimates the memory the set holds on to, for size aware caches.
+     *
+     * The shared full chunk is not counted, as every set uses the same one.
+     *
+     * @return the approximate size in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = 32 + 2L * keys.length + 8L * containers.length;
+        for (Container c : containers) {
+            bytes += c.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Estimates the memory this set holds on to beyond what it shares with another set, such as
+     * the set it was narrowed from.
+     *
+     * @param base the set this one may share chunks with
+     * @return the approximate size in bytes of this set's own chunks and arrays
+     */
+    public long sizeInBytes(OrdinalBitmap base) {
+        if (base == this) {
+            return 0;
+        }
+        long bytes = 32 + 2L * keys.length + 8L * containers.length;
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < base.keys.length && base.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j >= base.keys.length || base.keys[j] != keys[i]
+                    || base.containers[j] != containers[i]) {
+                bytes += containers[i].sizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Get the number of chunk containers, mostly useful to measure sharing.
+     *
+     * @return the number of containers
+     */
+    int containerCount() {
+        return containers.length;
+    }
+
+    /**
+     * Checks if two sets hold the same ordinals.
+     *
+     * @param obj the object to compare
+     * @return true if both are bitmaps with the same ordinals
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof OrdinalBitmap)) {
+            return false;
+        }
+        OrdinalBitmap other = (OrdinalBitmap) obj;
+        if (hash != 0 && other.hash != 0 && hash != other.hash) {
+            return false;
+        }
+        return cardinality == other.cardinality && Arrays.equals(keys, other.keys)
+                && Arrays.equals(containers, other.containers);
+    }
+
+    /**
+     * Get the hash code of the set, based on its ordinals.
+     *
+     * The set never changes, so the hash is computed once and kept, as {@link String} does.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = 31 * Arrays.hashCode(keys) + Arrays.hashCode(containers);
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Get the set as text, for debugging.
+     *
+     * @return the cardinality and chunk count
+     */
+    @Override
+    public String toString() {
+        return "OrdinalBitmap{cardinality=" + cardinality + ", chunks=" + keys.length + '}';
+    }
+
+    /**
+     * Filter applied to one chunk of ordinals at a time, see {@link #filter(ChunkFilter)}.
+     */
+    @FunctionalInterface
+    public interface ChunkFilter {
+        /**
+         * Compacts the accepted ordinals to the front of the array, keeping their order.
+         *
+         * @param ordinals the ordinals of the chunk, ascending
+         * @param n        the number of ordinals in use
+         * @return the number of ordinals kept
+         */
+        int apply(int[] ordinals, int n);
+    }
+
+    /**
+     * Iterator over the ordinals of the bitmap.
+     */
+    private final class Cursor implements PrimitiveIterator.OfInt {
+        /** Ordinals of the current chunk. */
+        private int[] chunk = new int[0];
+        /** Number of ordinals in use in chunk. */
+        private int size;
+        /** Position of the next ordinal in chunk. */
+        private int pos;
+        /** Index of the next container to decode. */
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+            while (pos >= size && next < containers.length) {
+                Container c = containers[next];
+                if (chunk.length < c.cardinality()) {
+                    chunk = new int[c.cardinality()];
+                }
+                size = c.decode(chunk, 0, keys[next] << 16);
+                pos = 0;
+                next++;
+            }
+            return pos < size;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return chunk[pos++];
+        }
+    }
+
+    /**
+     * One chunk of up to 65536 values, holding the low 16 bits of each ordinal.
+     *
+     * Containers never change once built, which is what lets bitmaps share them.
+     */
+    private abstract static class Container {
+        /**
+         * Builds the smallest container for ordinals that share the same high 16 bits.
+         *
+         * @param sorted ordinals, ascending
+         * @param from   first ordinal to use, inclusive
+         * @param to     last ordinal to use, exclusive
+         * @return the container
+         */
+        static Container fromSorted(int[] sorted, int from, int to) {
+            int n = to - from;
+            if (n == CHUNK) {
+                return BitmapContainer.FULL;
+            }
+            if (n <= ARRAY_MAX) {
+                char[] values = new char[n];
+                for (int i = 0; i < n; i++) {
+                    values[i] = (char) sorted[from + i];
+                }
+                return new ArrayContainer(values);
+            }
+            long[] words = new long[CHUNK / 64];
+            for (int i = from; i < to; i++) {
+                int low = sorted[i] & 0xFFFF;
+                words[low >>> 6] |= 1L << low;
+            }
+            return new BitmapContainer(words, n);
+        }
+
+        /**
+         * Builds the container holding 0 to n - 1.
+         *
+         * @param n the number of values, less than a full chunk
+         * @return the container
+         */
+        static Container range(int n) {
+            if (n <= ARRAY_MAX) {
+                char[] values = new char[n];
+                for (int i = 0; i < n; i++) {
+                    values[i] = (char) i;
+                }
+                return new ArrayContainer(values);
+            }
+            long[] words = new long[CHUNK / 64];
+            Arrays.fill(words, 0, n >>> 6, -1L);
+            if ((n & 63) != 0) {
+                words[n >>> 6] = (1L << n) - 1;
+            }
+            return new BitmapContainer(words, n);
+        }
+
+        /**
+         * Get the number of values.
+         *
+         * @return the cardinality
+         */
+        abstract int cardinality();
+
+        /**
+         * Estimates the memory the container holds.
+         *
+         * @return the approximate size in bytes
+         */
+        abstract long sizeInBytes();
+
+        /**
+         * Checks if a low value is present.
+         *
+         * @param low the low 16 bits of an ordinal
+         * @return true if present
+         */
+        abstract boolean contains(char low);
+
+        /**
+         * Writes the full ordinals of this chunk into an array.
+         *
+         * @param out    receives the ordinals, ascending
+         * @param offset the position in out to start writing at
+         * @param base   the high bits of the chunk, already shifted
+         * @return the number of ordinals written
+         */
+        abstract int decode(int[] out, int offset, int base);
+
+        /**
+         * Intersects with another container.
+         *
+         * @param other the other container
+         * @return the intersection, one of the inputs if it is unchanged, null if empty
+         */
+        abstract Container and(Container other);
+    }
+
+    /**
+     * Container for sparse chunks, a sorted array of low values.
+     */
+    private static final class ArrayContainer extends Container {
+        /** The low values, ascending. */
+        private final char[] values;
+
+        /**
+         * Constructor for the container.
+         *
+         * @param values the low values, ascending
+         */
+        ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 32 + 2L * values.length;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, low) >= 0;
+        }
+
+        @Override
+        int decode(int[] out, int offset, int base) {
+            for (int i = 0; i < values.length; i++) {
+                out[offset + i] = base | values[i];
+            }
+            return values.length;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] res = new char[values.length];
+            int k = 0;
+            if (other instanceof ArrayContainer) {
+                char[] b = ((ArrayContainer) other).values;
+                int i = 0;
+                int j = 0;
+                while (i < values.length && j < b.length) {
+                    if (values[i] < b[j]) {
+                        i++;
+                    } else if (values[i] > b[j]) {
+                        j++;
+                    } else {
+                        res[k++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (char v : values) {
+                    if (other.contains(v)) {
+                        res[k++] = v;
+                    }
+                }
+            }
+            if (k == values.length) {
+                return this;
+            } else if (k == other.cardinality()) {
+                return other;
+            }
+            return k == 0 ? null : new ArrayContainer(Arrays.copyOf(res, k));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ArrayContainer && Arrays.equals(values, ((ArrayContainer) obj).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+
+    /**
+     * Container for dense chunks, one bit per low value.
+     */
+    private static final class BitmapContainer extends Container {
+        /** The shared container for a chunk with every value present. */
+        static final BitmapContainer FULL = full();
+
+        /** The bits, 64 values per word. */
+        private final long[] words;
+        /** The number of set bits. */
+        private final int cardinality;
+
+        /**
+         * Constructor for the container.
+         *
+         * @param words       the bits
+         * @param cardinality the number of set bits
+         */
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        /**
+         * Builds the full container.
+         *
+         * @return a container with all 65536 bits set
+         */
+        private static BitmapContainer full() {
+            long[] words = new long[CHUNK / 64];
+            Arrays.fill(words, -1L);
+            return new BitmapContainer(words, CHUNK);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return this == FULL ? 0 : 32 + 8L * words.length;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        int decode(int[] out, int offset, int base) {
+            int k = offset;
+            for (int w = 0; w < words.length; w++) {
+                long bits = words[w];
+                while (bits != 0) {
+                    out[k++] = base | (w << 6) | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                }
+            }
+            return k - offset;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (this == FULL) {
+                return other;
+            }
+            if (other == FULL) {
+                return this;
+            }
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] b = ((BitmapContainer) other).words;
+            long[] res = new long[words.length];
+            int card = 0;
+            for (int i = 0; i < words.length; i++) {
+                res[i] = words[i] & b[i];
+                card += Long.bitCount(res[i]);
+            }
+            if (card == cardinality) {
+                return this;
+            } else if (card == other.cardinality()) {
+                return other;
+            } else if (card == 0) {
+                return null;
+            } else if (card > ARRAY_MAX) {
+                return new BitmapContainer(res, card);
+            }
+            char[] values = new char[card];
+            int k = 0;
+            for (int w = 0; w < res.length; w++) {
+                long bits = res[w];
+                while (bits != 0) {
+                    values[k++] = (char) ((w << 6) | Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            return new ArrayContainer(values);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof BitmapContainer && Arrays.equals(words, ((BitmapContainer) obj).words);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(words);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package student;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parses a csv source in chunks on a {@link ForkJoinPool}.
+ *
+ * The data after the header is cut into byte ranges, and each cut is moved forward to the next
+ * line start. A chunk parses the records that start in its range. A line start can still be in
+ * the middle of a quoted field that holds a line break, so the chunks are checked in order when
+ * they are merged: if a chunk did not start where the one before it stopped, or failed, as a
+ * chunk that starts inside a quoted field can read a record longer than a window, it is parsed
+ * again from the right place. Files without quoted line breaks never need this. Only the
+ * rejected rows of the parse that is kept are counted.
+ */
+final class ParallelLoader {
+    /** Smallest chunk worth handing to another thread. */
+    static final int MIN_CHUNK = 1 << 16;
+    /** Bytes to look at when searching for a line start. */
+    private static final int SCAN = 1 << 12;
+
+    /** The data. */
+    private final CsvSource source;
+    /** The number of threads to parse with. */
+    private final int parallelism;
+    /** The most bytes to map at once. */
+    private final int window;
+    /** The number of chunks of the last load. */
+    private int chunks;
+    /** Rows skipped by the last load. */
+    private int rejected;
+
+    /**
+     * Constructor for the loader.
+     *
+     * @param source      the data
+     * @param parallelism the number of threads to parse with
+     * @param window      the most bytes to map at once
+     */
+    ParallelLoader(CsvSource source, int parallelism, int window) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.source = source;
+        this.parallelism = parallelism;
+        this.window = window;
+    }
+
+    /**
+     * Get the number of chunks the last load was cut into.
+     *
+     * @return the number of chunks
+     */
+    int chunkCount() {
+        return chunks;
+    }
+
+    /**
+     * Get the number of rows the last load skipped as too short or holding a bad number.
+     *
+     * @return the number of rows
+     */
+    int rejectedCount() {
+        return rejected;
+    }
+
+    /**
+     * Loads every game, with about four chunks per thread so uneven chunks even out.
+     *
+     * @return the games, in file order
+     * @throws IOException if the data can not be read
+     */
+    List<BoardGame> load() throws IOException {
+        GamesLoader.Rows header = new GamesLoader.Rows();
+        long body = GamesLoader.readRange(source, 0, 1, window, header);
+        if (!header.hasHeader()) {
+            return new ArrayList<>();
+        }
+        long bytes = source.size() - body;
+        // a chunk and its last record have to fit in one window
+        long count = Math.max(Math.min(parallelism * 4L, bytes / MIN_CHUNK),
+                (bytes + window / 2 - 1) / (window / 2));
+        return load(header, body, (int) Math.max(1, count));
+    }
+
+    /**
+     * Loads every game, cutting the data after the header into a given number of chunks.
+     *
+     * @param header rows that have read the header
+     * @param body   the start of the first record after the header
+     * @param count  the number of chunks
+     * @return the games, in file order
+     * @throws IOException if the data can not be read
+     */
+    List<BoardGame> load(GamesLoader.Rows header, long body, int count) throws IOException {
+        long size = source.size();
+        long[] starts = new long[count + 1];
+        starts[0] = body;
+        for (int i = 1; i < count; i++) {
+            long cut = body + (size - body) * i / count;
+            starts[i] = Math.max(starts[i - 1], lineStart(Math.max(cut, body)));
+        }
+        starts[count] = size;
+        chunks = count;
+        rejected = 0;
+
+        List<ForkJoinTask<Chunk>> tasks = new ArrayList<>(count);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (int i = 0; i < count; i++) {
+                long from = starts[i];
+                long to = starts[i + 1];
+                tasks.add(pool.submit(() -> parse(header, from, to)));
+            }
+            List<BoardGame> games = new ArrayList<>();
+            long expected = body;
+            for (int i = 0; i < count; i++) {
+                Chunk chunk;
+                try {
+                    chunk = tasks.get(i).join();
+                } catch (RuntimeException e) {
+                    chunk = null; // a real failure happens again when parsed from the right place
+                }
+                if (chunk == null || chunk.start != expected) {
+                    // the cut was inside a quoted line break, parse it again from the right place
+                    chunk = parse(header, expected, Math.max(expected, starts[i + 1]));
+                }
+                games.addAll(chunk.rows.games);
+                rejected += chunk.rows.rejected;
+                expected = chunk.end;
+            }
+            return games;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Parses the records that start in a range.
+     *
+     * @param header rows that have read the header
+     * @param start  the start of the first record
+     * @param end    records starting at or after this belong to the next chunk
+     * @return the chunk
+     */
+    private Chunk parse(GamesLoader.Rows header, long start, long end) {
+        GamesLoader.Rows rows = new GamesLoader.Rows(header);
+        try {
+            return new Chunk(start, GamesLoader.readRange(source, start, end, window, rows), rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Finds the first line start at or after a position.
+     *
+     * @param pos the position, after the header
+     * @return the position after the next line break, or the size if there is none
+     * @throws IOException if the data can not be read
+     */
+    private long lineStart(long pos) throws IOException {
+        long size = source.size();
+        long p = pos - 1; // a line break just before pos makes pos a line start
+        while (p < size) {
+            int len = (int) Math.min(SCAN, size - p);
+            ByteBuffer buf = source.map(p, len);
+            for (int i = 0; i < len; i++) {
+                if (buf.get(i) == '\n') {
+                    return p + i + 1;
+                }
+            }
+            p += len;
+        }
+        return size;
+    }
+
+    /**
+     * The games parsed from one chunk.
+     */
+    private static final class Chunk {
+        /** Where parsing started. */
+        private final long start;
+        /** Where parsing stopped, the start of the next chunk's first record. */
+        private final long end;
+        /** The games of the chunk. */
+        private final GamesLoader.Rows rows;
+
+        /**
+         * Constructor for a chunk.
+         *
+         * @param start where parsing started
+         * @param end   where parsing stopped
+         * @param rows  the games of the chunk
+         */
+        private Chunk(long start, long end, GamesLoader.Rows rows) {
+            this.start = start;
+            this.end = end;
+            this.rows = rows;
+        }
+    }
+}
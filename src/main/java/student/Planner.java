@@ -6,13 +6,42 @@ import java.util.stream.Stream;
 /**
  * The Planner class implements IPlanner and provides functionality
  * for filtering and sorting a collection of board games.
+ *
+ * The working set is kept as an {@link OrdinalBitmap} over a {@link GameCatalog}, so each
+ * progressive filter is a bitmap intersection and reset is a fill. Games are only looked up and
+ * sorted when the returned stream is consumed, and sorting walks the catalog's precomputed order
+ * for the column rather than comparing games.
+ *
+ * Every filter adds a stage to an immutable {@link FilterHistory}, so {@link #back()} returns to
+ * the stage before without filtering again.
+ *
+ * A planner is one user's session. It only holds that user's filter state, and reads the
+ * {@link GameCatalog} it was given, which is immutable and can be shared by any number of
+ * planners (see {@link PlannerSessions}). The methods of one planner are synchronized, so it can be
+ * used from more than one thread, but planners never lock each other or the catalog. Returned
+ * streams only read immutable state, so they can be consumed after the planner has moved on.
+ *
+ * Queries and sort times are counted in the global {@link Metrics}, and each filter and sort is
+ * a flight recorder event (see {@link Events}).
  */
-public class Planner implements IPlanner {
-    /** Set of all available board games. */
-    private final Set<BoardGame> games;
+public class Planner implements IPagedPlanner {
+    /** Column oriented catalog of all available board games. */
+    private GameCatalog catalog;
 
-    /** Current working list of board games after filtering. */
-    private List<BoardGame> curList;
+    /** Stages of the current filter, the working set and its order are the latest one. */
+    private FilterHistory history;
+
+    /** Sorted ordinals of the working set, when they came from the cache. */
+    private int[] sortedView;
+
+    /** Query of the working set, if its result still has to be cached. */
+    private ResultCache.Key pending;
+
+    /** Shared filter helper, compiled filter plans are cached behind it. */
+    private final Filters filters = new Filters();
+
+    /** Results of recent queries. */
+    private final ResultCache cache;
 
     /**
      * Constructs a Planner with a given set of board games.
@@ -20,8 +49,28 @@ public class Planner implements IPlanner {
      * @param games The set of board games.
      */
     public Planner(Set<BoardGame> games) {
-        this.games = games;
-        curList = new ArrayList<>(games);
+        this(GameCatalog.of(games));
+    }
+
+    /**
+     * Constructs a Planner over an already built catalog.
+     *
+     * @param catalog The catalog of board games.
+     */
+    public Planner(GameCatalog catalog) {
+        this(catalog, ResultCache.DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Constructs a Planner over an already built catalog, with a bound on its result cache.
+     *
+     * @param catalog    The catalog of board games, may be shared with other planners.
+     * @param cacheBytes The most bytes of query results to keep, 0 to keep none.
+     */
+    public Planner(GameCatalog catalog, long cacheBytes) {
+        this.catalog = catalog;
+        this.cache = new ResultCache(cacheBytes);
+        reset();
     }
 
     /**
@@ -31,12 +80,9 @@ public class Planner implements IPlanner {
      * @return A stream of filtered board games.
      */
     @Override
-    public Stream<BoardGame> filter(String filter) {
-        Filters filters = new Filters();
-        System.out.println("This is filter: " + filter);
-        curList = filters.controller(filter, curList);
-        curList.sort(Comparator.comparing(game -> game.getName().replaceAll("\\s+", "").toLowerCase()));
-        return curList.stream();
+    public synchronized Stream<BoardGame> filter(String filter) {
+        narrow(filter, GameData.NAME, true);
+        return view();
     }
 
     /**
@@ -47,11 +93,8 @@ public class Planner implements IPlanner {
      * @return A stream of filtered and sorted board games.
      */
     @Override
-    public Stream<BoardGame> filter(String filter, GameData sortOn) {
-        Filters filters = new Filters();
-        List<BoardGame> list = filters.controller(filter, curList);
-        curList = sortGames(list, sortOn.name().toLowerCase(), true);
-        return curList.stream();
+    public synchronized Stream<BoardGame> filter(String filter, GameData sortOn) {
+        return filter(filter, sortOn, true, false);
     }
 
     /**
@@ -63,14 +106,141 @@ public class Planner implements IPlanner {
      * @return A stream of filtered and sorted board games.
      */
     @Override
-    public Stream<BoardGame> filter(String filter, GameData sortOn, boolean ascending) {
-        Filters filters = new Filters();
-        List<BoardGame> list = filters.controller(filter, curList);
-        curList = sortGames(list, sortOn.name().toLowerCase(), ascending);
-        if (curList.isEmpty()) {
+    public synchronized Stream<BoardGame> filter(String filter, GameData sortOn,
+            boolean ascending) {
+        return filter(filter, sortOn, ascending, true);
+    }
+
+    /**
+     * Narrows the working set and returns the sorted view of it.
+     *
+     * @param filter     The filter conditions.
+     * @param sortOn     The attribute to sort on.
+     * @param ascending  True for ascending order, False for descending order.
+     * @param nullIfNone True to return null instead of an empty stream.
+     * @return A stream of filtered and sorted board games.
+     */
+    private Stream<BoardGame> filter(String filter, GameData sortOn, boolean ascending,
+            boolean nullIfNone) {
+        if (!narrow(filter, sortOn, ascending)) {
+            return nullIfNone ? null : Stream.empty();
+        }
+        if (history.members().isEmpty() && nullIfNone) {
             return null;
         }
-        return curList.stream();
+        return view();
+    }
+
+    /**
+     * Filters and sorts board games, returning one page of the sorted result.
+     *
+     * Only the first offset + limit games are ordered, using a bounded heap, so the cost is
+     * O(n log k) rather than a sort of the whole working set.
+     *
+     * @param filter The filter conditions.
+     * @param sortOn The attribute to sort on.
+     * @param ascending True for ascending order, False for descending order.
+     * @param offset The number of sorted games to skip.
+     * @param limit The most games to return.
+     * @return A stream of at most limit games.
+     */
+    @Override
+    public synchronized Stream<BoardGame> filter(String filter, GameData sortOn, boolean ascending,
+            int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+        if (!narrow(filter, sortOn, ascending)) {
+            return Stream.empty();
+        }
+        OrdinalBitmap selected = history.members();
+        int k = (int) Math.min(selected.cardinality(), (long) offset + limit);
+        if (offset >= k) {
+            return Stream.empty();
+        }
+        if (sortedView != null) {
+            return Arrays.stream(sortedView, offset, k).mapToObj(catalog::get);
+        }
+        Events.Sort event = new Events.Sort();
+        event.begin();
+        long start = System.nanoTime();
+        int[] page = TopK.select(catalog, selected.iterator(),
+                sortComparator(sortOn.name().toLowerCase(), ascending), k);
+        Metrics.global().time(Metrics.Stage.SORT, start);
+        event.finish(sortOn.getColumnName(), ascending, selected.cardinality(), page.length);
+        return Arrays.stream(page, offset, k).mapToObj(catalog::get);
+    }
+
+    /**
+     * Narrows the working set and sets the order of the view.
+     *
+     * A query seen before from the same working set is answered from the result cache, without
+     * running the filter. A column that can not be sorted on empties the working set, as
+     * sorting on it always has, and going back undoes that like any other filter.
+     *
+     * @param filter    The filter conditions.
+     * @param sortOn    The attribute to sort on.
+     * @param ascending True for ascending order, False for descending order.
+     * @return False if the column can not be sorted on.
+     */
+    private boolean narrow(String filter, GameData sortOn, boolean ascending) {
+        Events.Query event = new Events.Query();
+        event.begin();
+        Metrics.global().query();
+        OrdinalBitmap start = history.members();
+        sortedView = null;
+        pending = null;
+        if (sortComparator(sortOn.name().toLowerCase(), ascending) == null) {
+            System.out.println("Invalid column name: " + sortOn);
+            history = history.push(filter, OrdinalBitmap.empty(), history.sortOn(),
+                    history.ascending());
+            event.finish(filter, sortOn, ascending, start.cardinality(), 0, false);
+            return false;
+        }
+        ResultCache.Key key = new ResultCache.Key(filter, sortOn, ascending, start);
+        ResultCache.Result hit = cache.get(key);
+        OrdinalBitmap selected = hit != null ? hit.members()
+                : filters.controller(filter, catalog, start);
+        event.finish(filter, sortOn, ascending, start.cardinality(), selected.cardinality(),
+                hit != null);
+        history = history.push(filter, selected, sortOn, ascending);
+        if (hit != null) {
+            sortedView = hit.sorted();
+        } else {
+            pending = key;
+        }
+        return true;
+    }
+
+    /**
+     * Get a lazy view of the working set in the current order.
+     *
+     * @return A stream that looks up and sorts the games when consumed.
+     */
+    private Stream<BoardGame> view() {
+        GameCatalog games = catalog;
+        OrdinalBitmap members = history.members();
+        GameData column = history.sortOn();
+        if (column == null) {
+            return members.stream().mapToObj(games::get);
+        }
+        if (sortedView != null) {
+            return Arrays.stream(sortedView).mapToObj(games::get);
+        }
+        boolean asc = history.ascending();
+        ResultCache.Key key = pending;
+        return Stream.of(members).flatMap(m -> {
+            Events.Sort event = new Events.Sort();
+            event.begin();
+            long start = System.nanoTime();
+            int[] sorted = games.sorted(m, column, asc);
+            Metrics.global().time(Metrics.Stage.SORT, start);
+            event.finish(column.getColumnName(), asc, sorted.length, sorted.length);
+            if (key != null) {
+                cache.put(key, new ResultCache.Result(m, sorted));
+            }
+            return Arrays.stream(sorted).mapToObj(games::get);
+        });
     }
 
     /**
@@ -82,6 +252,28 @@ public class Planner implements IPlanner {
      * @return The sorted list of board games.
      */
     public static List<BoardGame> sortGames(List<BoardGame> gameList, String column, boolean asc) {
+        Comparator<BoardGame> comparator = sortComparator(column, asc);
+        if (comparator == null) {
+            System.out.println("Invalid column name: " + column);
+            return new ArrayList<>();
+        }
+        Events.Sort event = new Events.Sort();
+        event.begin();
+        long start = System.nanoTime();
+        gameList.sort(comparator);
+        Metrics.global().time(Metrics.Stage.SORT, start);
+        event.finish(column, asc, gameList.size(), gameList.size());
+        return gameList;
+    }
+
+    /**
+     * Builds the comparator for sorting on a column.
+     *
+     * @param column The attribute to sort by.
+     * @param asc    True for ascending order, False for descending order.
+     * @return The comparator, or null if the column can not be sorted on.
+     */
+    static Comparator<BoardGame> sortComparator(String column, boolean asc) {
         Comparator<BoardGame> comparator;
 
         switch (column) {
@@ -89,9 +281,9 @@ public class Planner implements IPlanner {
                 comparator = Comparator.comparingDouble(BoardGame::getRating);
                 break;
             case "name":
-                comparator = Comparator.comparing(game -> game.getName().replaceAll("\\s+", "").toLowerCase());
+                comparator = Comparator.comparing(BoardGame::getNameKey);
                 break;
-            case "yearpublished", "year_published":
+            case "yearpublished", "year_published", "year":
                 comparator = Comparator.comparingInt(BoardGame::getYearPublished);
                 break;
             case "rank":
@@ -104,33 +296,153 @@ public class Planner implements IPlanner {
                 comparator = Comparator.comparingInt(BoardGame::getMinPlayers);
                 break;
             case "maxplayers", "max_players":
-                comparator = Comparator.comparingInt(BoardGame::getMaxPlayers); // ✅ FIXED
+                comparator = Comparator.comparingInt(BoardGame::getMaxPlayers);
                 break;
-            case "maxplaytime", "max_playtime":
+            case "maxplaytime", "max_playtime", "max_time":
                 comparator = Comparator.comparingInt(BoardGame::getMaxPlayTime);
                 break;
-            case "minplaytime", "min_playtime":
+            case "minplaytime", "min_playtime", "min_time":
                 comparator = Comparator.comparingInt(BoardGame::getMinPlayTime);
                 break;
             default:
-                System.out.println("Invalid column name: " + column);
-                return new ArrayList<>();
+                return null;
         }
 
         if (!asc) {
             comparator = comparator.reversed();
         }
+        return comparator;
+    }
 
-        gameList.sort(comparator);
-        return gameList;
+    /**
+     * Explains how a filter would narrow the working set, without narrowing it.
+     *
+     * The filter is compiled and run, and its matches sorted, the same way a filter call does,
+     * timing each stage. The result cache is not used, so the times are those of a first run,
+     * and nothing is counted in the global {@link Metrics}.
+     *
+     * @param filter    The filter conditions.
+     * @param sortOn    The attribute to sort on.
+     * @param ascending True for ascending order, False for descending order.
+     * @return The plan, each stage's rows in and out, and timings.
+     */
+    public synchronized Explain explain(String filter, GameData sortOn, boolean ascending) {
+        long start = System.nanoTime();
+        FilterPlan plan = FilterPlan.compile(filter);
+        long parseNanos = System.nanoTime() - start;
+        OrdinalBitmap working = history.members();
+        List<Explain.Step> steps = new ArrayList<>();
+        OrdinalBitmap selected = plan.select(catalog, working, steps);
+        boolean sortable = sortComparator(sortOn.name().toLowerCase(), ascending) != null;
+        long sortNanos = 0;
+        if (sortable) {
+            start = System.nanoTime();
+            catalog.sorted(selected, sortOn, ascending);
+            sortNanos = System.nanoTime() - start;
+        }
+        return new Explain(plan, parseNanos, steps, working.cardinality(),
+                selected.cardinality(), sortOn, ascending, sortable, sortNanos);
     }
 
     /**
-     * Resets the filtered list back to the original game set.
+     * Suggests games from the working set whose name starts with the given text.
+     *
+     * Meant for type-ahead, so it only walks the name index from the first possible match and
+     * stops once it has enough games.
+     *
+     * @param prefix The text typed so far, case and spaces are ignored.
+     * @param limit  The most games to return.
+     * @return The first matching games, in name order.
+     */
+    public synchronized List<BoardGame> suggest(String prefix, int limit) {
+        int[] ordinals = catalog.nameIndex().prefix(NameKey.of(prefix), limit,
+                history.members());
+        List<BoardGame> games = new ArrayList<>(ordinals.length);
+        for (int o : ordinals) {
+            games.add(catalog.get(o));
+        }
+        return games;
+    }
+
+    /**
+     * Resets the filtered list back to the original game set, and starts a new history.
+     *
+     * Cached results stay valid, as each is keyed on the working set it started from.
      */
     @Override
-    public void reset() {
-        curList = new ArrayList<>(games);
+    public synchronized void reset() {
+        history = FilterHistory.start(catalog.all());
+        sortedView = null;
+        pending = null;
+    }
+
+    /**
+     * Undoes the last filter, going back to the working set and order before it.
+     *
+     * The earlier stage is kept in the history, so nothing is filtered again. Its sorted order
+     * is taken from the result cache when it is still there.
+     *
+     * @return False if there was no filter to undo.
+     */
+    public synchronized boolean back() {
+        if (history.isStart()) {
+            return false;
+        }
+        history = history.back();
+        sortedView = null;
+        pending = null;
+        if (!history.isStart() && history.sortOn() != null) {
+            ResultCache.Key key = new ResultCache.Key(history.filter(), history.sortOn(),
+                    history.ascending(), history.start());
+            ResultCache.Result hit = cache.get(key);
+            if (hit != null && hit.members().equals(history.members())) {
+                sortedView = hit.sorted();
+            } else {
+                pending = key;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the stages of the current filter.
+     *
+     * @return The history, the latest stage first.
+     */
+    public synchronized FilterHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Replaces the catalog, for when the collection is loaded again.
+     *
+     * Cached results belong to the old catalog's ordinals, so they are all dropped, and the
+     * working set is reset.
+     *
+     * @param catalog The new catalog of board games.
+     */
+    public synchronized void reload(GameCatalog catalog) {
+        this.catalog = catalog;
+        cache.clear();
+        reset();
+    }
+
+    /**
+     * Get the cache of query results, for its hit, miss and eviction counts.
+     *
+     * @return The result cache.
+     */
+    public ResultCache getResultCache() {
+        return cache;
+    }
+
+    /**
+     * Get the catalog this planner filters.
+     *
+     * @return The catalog of all games.
+     */
+    public synchronized GameCatalog getCatalog() {
+        return catalog;
     }
 
     /**
@@ -138,7 +450,7 @@ public class Planner implements IPlanner {
      *
      * @return A stream of the current list of board games.
      */
-    public Stream<BoardGame> getCurList() {
-        return curList.stream();
+    public synchronized Stream<BoardGame> getCurList() {
+        return view();
     }
 }
@@ -0,0 +1,420 @@
+package student;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves planner sessions over HTTP, with JSON responses, using only the JDK's HTTP server.
+ *
+ * Parameters are taken from the query string. The routes are:
+ *
+ * <pre>
+ * POST   /sessions                     open a session, returns its id
+ * DELETE /sessions/{id}                close a session
+ * GET    /filter?q=&amp;sort=&amp;order=&amp;offset=&amp;limit=&amp;session=
+ *                                       filter, sort and page the session's working set
+ * POST   /reset?session=               clear the session's filters
+ * POST   /back?session=                undo the session's last filter
+ * GET    /list?session=                names in the session's game list
+ * POST   /list/add?session=&amp;game=      add games from the working set, as the console does
+ * POST   /list/remove?session=&amp;game=   remove games from the list
+ * POST   /list/clear?session=          empty the list
+ * </pre>
+ *
+ * A filter without a session runs against the whole catalog and keeps no state, which is what
+ * load tests want. Sort defaults to name, order to asc, offset to 0 and limit to 100.
+ *
+ * Each request runs on its own virtual thread when the JDK has them, and on a fixed pool sized
+ * to the cores otherwise.
+ */
+public final class PlannerServer implements Closeable {
+    /** Port used when none is given. */
+    public static final int DEFAULT_PORT = 8080;
+    /** Page size used when no limit is given. */
+    private static final int DEFAULT_LIMIT = 100;
+    /** Sessions unused for this long are closed as new ones open. */
+    private static final long SESSION_IDLE_NANOS = TimeUnit.MINUTES.toNanos(30);
+
+    /** The sessions served. */
+    private final PlannerSessions sessions;
+    /** The JDK server. */
+    private final HttpServer server;
+    /** Runs the requests. */
+    private final ExecutorService executor;
+
+    /**
+     * Creates a server, not yet started.
+     *
+     * @param sessions the sessions to serve
+     * @param address  the address to listen on, port 0 picks a free port
+     * @throws IOException if the address can not be bound
+     */
+    public PlannerServer(PlannerSessions sessions, InetSocketAddress address) throws IOException {
+        this.sessions = sessions;
+        this.server = HttpServer.create(address, 0);
+        this.executor = newExecutor();
+        server.setExecutor(executor);
+        server.createContext("/sessions", ex -> handle(ex, this::sessions));
+        server.createContext("/filter", ex -> handle(ex, this::filter));
+        server.createContext("/reset", ex -> handle(ex, this::reset));
+        server.createContext("/back", ex -> handle(ex, this::back));
+        server.createContext("/list", ex -> handle(ex, this::list));
+    }
+
+    /**
+     * Creates the executor for requests: a thread per request if virtual threads are
+     * available, else a fixed pool.
+     *
+     * Virtual threads are looked up reflectively, so the server builds and runs on JDKs
+     * without them.
+     *
+     * @return the executor
+     */
+    static ExecutorService newExecutor() {
+        try {
+            Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtual.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            int threads = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    /**
+     * Starts serving.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Get the port the server listens on, useful when it was created with port 0.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops serving and drops the request threads.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * A request that can not be served, with the status to answer it with.
+     */
+    private static final class HttpError extends RuntimeException {
+        /** Serial number, unused. */
+        private static final long serialVersionUID = 1L;
+        /** The HTTP status. */
+        private final int status;
+
+        /**
+         * Constructor for the error.
+         *
+         * @param status  the HTTP status
+         * @param message the message for the client
+         */
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Answers one route.
+     */
+    private interface Route {
+        /**
+         * Answers a request.
+         *
+         * @param method the HTTP method
+         * @param path   the request path
+         * @param params the query parameters
+         * @return the JSON response body
+         */
+        String answer(String method, String path, Map<String, String> params);
+    }
+
+    /**
+     * Runs a route and writes its answer, or the error it raised.
+     *
+     * @param ex    the exchange
+     * @param route the route
+     * @throws IOException if the response can not be written
+     */
+    private void handle(HttpExchange ex, Route route) throws IOException {
+        int status = 200;
+        String body;
+        try {
+            body = route.answer(ex.getRequestMethod(), ex.getRequestURI().getPath(),
+                    params(ex.getRequestURI().getRawQuery()));
+        } catch (HttpError e) {
+            status = e.status;
+            body = error(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            body = error(e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            body = error(e.toString());
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Builds an error body.
+     *
+     * @param message the message
+     * @return the JSON body
+     */
+    private static String error(String message) {
+        return Json.string(new StringBuilder("{\"error\":"), message).append('}').toString();
+    }
+
+    /**
+     * Parses a query string.
+     *
+     * @param query the raw query, may be null
+     * @return the decoded parameters, the last value wins for repeated names
+     */
+    static Map<String, String> params(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /**
+     * Checks the method of a request.
+     *
+     * @param method   the method used
+     * @param expected the method the route takes
+     */
+    private static void require(String method, String expected) {
+        if (!expected.equalsIgnoreCase(method)) {
+            throw new HttpError(405, "Use " + expected);
+        }
+    }
+
+    /**
+     * Reads a whole number parameter.
+     *
+     * @param params the parameters
+     * @param name   the parameter name
+     * @param absent the value if it is not given
+     * @return the value
+     */
+    private static int intParam(Map<String, String> params, String name, int absent) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            return absent;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Finds the planner for a request.
+     *
+     * @param params    the parameters
+     * @param stateless true to give a throwaway planner when no session is named
+     * @return the planner
+     */
+    private Planner planner(Map<String, String> params, boolean stateless) {
+        String id = params.get("session");
+        if (id == null && stateless) {
+            return new Planner(sessions.getCatalog(), 0);
+        }
+        if (id == null) {
+            throw new IllegalArgumentException("Missing session");
+        }
+        Planner planner = sessions.get(id);
+        if (planner == null) {
+            throw new HttpError(404, "No session " + id);
+        }
+        return planner;
+    }
+
+    /**
+     * Opens and closes sessions.
+     *
+     * @param method the HTTP method
+     * @param path   the request path
+     * @param params the query parameters
+     * @return the JSON response body
+     */
+    private String sessions(String method, String path, Map<String, String> params) {
+        if ("DELETE".equalsIgnoreCase(method)) {
+            String id = path.substring(path.lastIndexOf('/') + 1);
+            if (!sessions.close(id)) {
+                throw new HttpError(404, "No session " + id);
+            }
+            return "{\"closed\":true}";
+        }
+        require(method, "POST");
+        sessions.closeIdle(SESSION_IDLE_NANOS);
+        return Json.string(new StringBuilder("{\"session\":"), sessions.open()).append('}')
+                .toString();
+    }
+
+    /**
+     * Filters, sorts and pages a working set.
+     *
+     * @param method the HTTP method
+     * @param path   the request path
+     * @param params the query parameters
+     * @return the JSON response body
+     */
+    private String filter(String method, String path, Map<String, String> params) {
+        require(method, "GET");
+        String q = params.getOrDefault("q", "");
+        GameData sortOn = GameData.fromString(params.getOrDefault("sort", "name"));
+        String order = params.getOrDefault("order", "asc");
+        if (!"asc".equalsIgnoreCase(order) && !"desc".equalsIgnoreCase(order)) {
+            throw new IllegalArgumentException("Invalid order: " + order);
+        }
+        boolean ascending = "asc".equalsIgnoreCase(order);
+        if (Planner.sortComparator(sortOn.name().toLowerCase(), ascending) == null) {
+            // the planner would empty the working set, refuse before touching the session
+            throw new IllegalArgumentException("Invalid sort column: " + sortOn.getColumnName());
+        }
+        int offset = intParam(params, "offset", 0);
+        int limit = intParam(params, "limit", DEFAULT_LIMIT);
+
+        Planner planner = planner(params, true);
+        List<BoardGame> page;
+        int total;
+        synchronized (planner) {
+            Stream<BoardGame> games = planner.filter(q, sortOn, ascending, offset, limit);
+            long listed = System.nanoTime();
+            page = games.toList();
+            Metrics.global().time(Metrics.Stage.MATERIALIZE, listed);
+            total = planner.getHistory().members().cardinality();
+        }
+        StringBuilder out = new StringBuilder(64 + 200 * page.size());
+        out.append("{\"total\":").append(total);
+        out.append(",\"offset\":").append(offset);
+        out.append(",\"limit\":").append(limit);
+        out.append(",\"sort\":");
+        Json.string(out, sortOn.getColumnName());
+        out.append(",\"ascending\":").append(ascending);
+        out.append(",\"games\":");
+        Json.games(out, page);
+        return out.append('}').toString();
+    }
+
+    /**
+     * Clears a session's filters.
+     *
+     * @param method the HTTP method
+     * @param path   the request path
+     * @param params the query parameters
+     * @return the JSON response body
+     */
+    private String reset(String method, String path, Map<String, String> params) {
+        require(method, "POST");
+        Planner planner = planner(params, false);
+        planner.reset();
+        return "{\"total\":" + planner.getCatalog().size() + "}";
+    }
+
+    /**
+     * Undoes a session's last filter.
+     *
+     * @param method the HTTP method
+     * @param path   the request path
+     * @param params the query parameters
+     * @return the JSON response body
+     */
+    private String back(String method, String path, Map<String, String> params) {
+        require(method, "POST");
+        Planner planner = planner(params, false);
+        boolean undone;
+        int total;
+        synchronized (planner) {
+            undone = planner.back();
+            total = planner.getHistory().members().cardinality();
+        }
+        return "{\"undone\":" + undone + ",\"total\":" + total + "}";
+    }
+
+    /**
+     * Shows and changes a session's game list.
+     *
+     * @param method the HTTP method
+     * @param path   the request path
+     * @param params the query parameters
+     * @return the JSON response body
+     */
+    private String list(String method, String path, Map<String, String> params) {
+        Planner planner = planner(params, false);
+        IGameList list = sessions.list(params.get("session"));
+        if (list == null) {
+            throw new HttpError(404, "No session " + params.get("session"));
+        }
+        String action = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        action = action.substring(action.lastIndexOf('/') + 1);
+        synchronized (list) {
+            switch (action) {
+                case "list":
+                    require(method, "GET");
+                    break;
+                case "add":
+                    require(method, "POST");
+                    list.addToList(params.getOrDefault("game", ""), planner.getCurList());
+                    break;
+                case "remove":
+                    require(method, "POST");
+                    list.removeFromList(params.getOrDefault("game", ""));
+                    break;
+                case "clear":
+                    require(method, "POST");
+                    list.clear();
+                    break;
+                default:
+                    throw new HttpError(404, "No route " + path);
+            }
+            StringBuilder out = new StringBuilder("{\"count\":").append(list.count());
+            out.append(",\"games\":");
+            Json.strings(out, list.getGameNames());
+            return out.append('}').toString();
+        }
+    }
+}
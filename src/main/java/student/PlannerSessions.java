@@ -0,0 +1,161 @@
+package student;
+
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hosts many planner sessions over one shared catalog.
+ *
+ * The catalog, its indexes and its full working set are held once, and each session is a
+ * {@link Planner} holding only its own filter history and a small result cache, plus the user's
+ * {@link GameList}, which is just a bit per game in the catalog's registry. Sessions are
+ * kept in a concurrent map under random ids, so opening, finding and closing sessions never
+ * blocks queries running in other sessions.
+ */
+public final class PlannerSessions {
+    /** Default bound on each session's result cache, 1 MB. */
+    public static final long DEFAULT_SESSION_CACHE_BYTES = 1L << 20;
+
+    /** The catalog every session reads. */
+    private final GameCatalog catalog;
+    /** Bound on each session's result cache. */
+    private final long cacheBytes;
+    /** Open sessions, by id. */
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a host with the default session cache bound.
+     *
+     * @param catalog the catalog to share
+     */
+    public PlannerSessions(GameCatalog catalog) {
+        this(catalog, DEFAULT_SESSION_CACHE_BYTES);
+    }
+
+    /**
+     * Creates a host.
+     *
+     * @param catalog    the catalog to share
+     * @param cacheBytes the most bytes of results each session may cache
+     */
+    public PlannerSessions(GameCatalog catalog, long cacheBytes) {
+        this.catalog = catalog;
+        this.cacheBytes = cacheBytes;
+    }
+
+    /**
+     * An open session and when it was last used.
+     */
+    private static final class Session {
+        /** The session's planner. */
+        private final Planner planner;
+        /** The session's list of games. */
+        private final GameList list;
+        /** Nano time of the last lookup. */
+        private volatile long lastUsed = System.nanoTime();
+
+        /**
+         * Constructor for a session.
+         *
+         * @param planner the session's planner
+         * @param list    the session's list of games
+         */
+        Session(Planner planner, GameList list) {
+            this.planner = planner;
+            this.list = list;
+        }
+    }
+
+    /**
+     * Opens a new session, starting from the whole catalog.
+     *
+     * @return the id of the session
+     */
+    public String open() {
+        String id = UUID.randomUUID().toString();
+        sessions.put(id, new Session(new Planner(catalog, cacheBytes),
+                new GameList(catalog.registry())));
+        return id;
+    }
+
+    /**
+     * Finds an open session, and marks it as used.
+     *
+     * @param id the id of the session
+     * @return the session's planner, or null if there is no such session
+     */
+    public Planner get(String id) {
+        Session session = id == null ? null : sessions.get(id);
+        if (session == null) {
+            return null;
+        }
+        session.lastUsed = System.nanoTime();
+        return session.planner;
+    }
+
+    /**
+     * Finds the list of games of an open session, and marks it as used.
+     *
+     * The list is not thread safe, so callers that may share a session across threads should
+     * synchronize on it.
+     *
+     * @param id the id of the session
+     * @return the session's list, or null if there is no such session
+     */
+    public IGameList list(String id) {
+        Session session = id == null ? null : sessions.get(id);
+        if (session == null) {
+            return null;
+        }
+        session.lastUsed = System.nanoTime();
+        return session.list;
+    }
+
+    /**
+     * Closes a session.
+     *
+     * @param id the id of the session
+     * @return true if the session was open
+     */
+    public boolean close(String id) {
+        return id != null && sessions.remove(id) != null;
+    }
+
+    /**
+     * Closes every session that has not been used for a while.
+     *
+     * @param idleNanos how long a session may go unused, in nanoseconds
+     * @return the number of sessions closed
+     */
+    public int closeIdle(long idleNanos) {
+        long now = System.nanoTime();
+        int closed = 0;
+        Iterator<Session> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().lastUsed > idleNanos) {
+                it.remove();
+                closed++;
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Get the number of open sessions.
+     *
+     * @return the number of sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Get the catalog the sessions share.
+     *
+     * @return the catalog
+     */
+    public GameCatalog getCatalog() {
+        return catalog;
+    }
+}
@@ -0,0 +1,252 @@
+package student;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Size aware LRU cache of planner query results.
+ *
+ * A query is the normalized filter text, the sort column and direction, and the working set it
+ * started from, so a cached result is only reused for exactly the same narrowing. Results are
+ * kept compactly, as the resulting working set bitmap and its sorted ordinals. The cache is
+ * bounded by an estimate of the bytes it holds, and the least recently used results are evicted
+ * first.
+ */
+public final class ResultCache {
+    /** Default bound on the bytes held, 16 MB. */
+    public static final long DEFAULT_MAX_BYTES = 16L << 20;
+    /** Rough cost of an entry beyond its arrays and bitmaps. */
+    private static final long ENTRY_OVERHEAD = 128;
+
+    /** Bound on the bytes held. */
+    private final long maxBytes;
+    /** Cached results, in access order. */
+    private final LinkedHashMap<Key, Result> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** Estimated bytes held. */
+    private long bytes;
+    /** Lookups that found a result. */
+    private long hits;
+    /** Lookups that found nothing. */
+    private long misses;
+    /** Results dropped to stay under the bound. */
+    private long evictions;
+
+    /**
+     * Creates a cache with the default bound.
+     */
+    public ResultCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxBytes the most bytes of results to hold
+     */
+    public ResultCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Identifies a query.
+     */
+    static final class Key {
+        /** The normalized filter text. */
+        private final String filter;
+        /** The column sorted on. */
+        private final GameData sortOn;
+        /** The sort direction. */
+        private final boolean ascending;
+        /** The working set the query started from. */
+        private final OrdinalBitmap start;
+        /** Hash, computed once. */
+        private final int hash;
+
+        /**
+         * Constructor for a key.
+         *
+         * @param filter    the filter text, normalized here
+         * @param sortOn    the column sorted on
+         * @param ascending the sort direction
+         * @param start     the working set the query started from
+         */
+        Key(String filter, GameData sortOn, boolean ascending, OrdinalBitmap start) {
+            this.filter = NameKey.of(filter == null ? "" : filter);
+            this.sortOn = sortOn;
+            this.ascending = ascending;
+            this.start = start;
+            this.hash = Objects.hash(this.filter, sortOn, ascending, start);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash && ascending == other.ascending && sortOn == other.sortOn
+                    && filter.equals(other.filter) && start.equals(other.start);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The result of a query.
+     */
+    static final class Result {
+        /** The working set after the filter. */
+        private final OrdinalBitmap members;
+        /** The members, sorted. */
+        private final int[] sorted;
+
+        /**
+         * Constructor for a result.
+         *
+         * @param members the working set after the filter
+         * @param sorted  the members, sorted
+         */
+        Result(OrdinalBitmap members, int[] sorted) {
+            this.members = members;
+            this.sorted = sorted;
+        }
+
+        /**
+         * Get the working set after the filter.
+         *
+         * @return the members
+         */
+        OrdinalBitmap members() {
+            return members;
+        }
+
+        /**
+         * Get the members in sorted order. The array must not be modified.
+         *
+         * @return the sorted ordinals
+         */
+        int[] sorted() {
+            return sorted;
+        }
+    }
+
+    /**
+     * Estimates the bytes an entry holds.
+     *
+     * The starting working set is not counted, it is shared with the planner's history or is
+     * the whole catalog, and the resulting set only counts the chunks it does not share with
+     * it.
+     *
+     * @param key    the key
+     * @param result the result
+     * @return the approximate size in bytes
+     */
+    private static long weigh(Key key, Result result) {
+        return ENTRY_OVERHEAD + 2L * key.filter.length()
+                + result.members.sizeInBytes(key.start) + 4L * result.sorted.length;
+    }
+
+    /**
+     * Looks up a query.
+     *
+     * @param key the query
+     * @return the result, or null on a miss
+     */
+    synchronized Result get(Key key) {
+        Result result = entries.get(key);
+        if (result == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return result;
+    }
+
+    /**
+     * Stores the result of a query, evicting the least recently used results if needed.
+     *
+     * A result larger than the whole cache is not stored.
+     *
+     * @param key    the query
+     * @param result the result
+     */
+    synchronized void put(Key key, Result result) {
+        long weight = weigh(key, result);
+        if (weight > maxBytes) {
+            return;
+        }
+        Result old = entries.put(key, result);
+        if (old != null) {
+            bytes -= weigh(key, old);
+        }
+        bytes += weight;
+        Iterator<Map.Entry<Key, Result>> it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<Key, Result> eldest = it.next();
+            bytes -= weigh(eldest.getKey(), eldest.getValue());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Drops every result, for when the catalog they were computed on is replaced.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Get the number of cached results.
+     *
+     * @return the number of results
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the estimated bytes held.
+     *
+     * @return the approximate size in bytes
+     */
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Get the number of lookups that found a result.
+     *
+     * @return the hit count
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of lookups that found nothing.
+     *
+     * @return the miss count
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Get the number of results dropped to stay under the bound.
+     *
+     * @return the eviction count
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+}
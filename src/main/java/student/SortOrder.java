@@ -0,0 +1,33 @@
+package student;
+
+/**
+ * A permutation of catalog ordinals in ascending order of some key, with ties kept in ordinal
+ * order. {@link ColumnIndex} and {@link NameIndex} are both sort orders, so a sorted result can
+ * be produced by walking one rather than sorting.
+ */
+interface SortOrder {
+
+    /**
+     * Get the number of ordinals in the order.
+     *
+     * @return the number of ordinals
+     */
+    int size();
+
+    /**
+     * Get the ordinal at a position.
+     *
+     * @param position the position, 0 is the smallest key
+     * @return the ordinal
+     */
+    int ordinalAt(int position);
+
+    /**
+     * Checks if two positions have equal keys.
+     *
+     * @param a the first position
+     * @param b the second position
+     * @return true if the keys are equal
+     */
+    boolean sameKey(int a, int b);
+}
@@ -0,0 +1,118 @@
+package student;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PrimitiveIterator;
+
+/**
+ * Selects the first k games of a sorted order without sorting all of them.
+ *
+ * The selection keeps a bounded max heap of catalog ordinals, so the worst game kept is always
+ * at the root and a new game only has to beat it. That is O(n log k) for n games. Games that
+ * compare equal are kept in ordinal order, the same order a stable sort of the catalog gives.
+ */
+final class TopK {
+
+    /** private constructor to prevent instantiation. */
+    private TopK() {
+    }
+
+    /**
+     * Selects the first k games of a set of ordinals.
+     *
+     * @param catalog  the catalog the ordinals belong to
+     * @param ordinals the ordinals, ascending
+     * @param order    the sort order
+     * @param k        the number of games to keep
+     * @return the ordinals of the first k games, in sorted order
+     */
+    static int[] select(GameCatalog catalog, PrimitiveIterator.OfInt ordinals,
+            Comparator<BoardGame> order, int k) {
+        IntOrder byGame = (a, b) -> {
+            int c = order.compare(catalog.get(a), catalog.get(b));
+            return c != 0 ? c : Integer.compare(a, b);
+        };
+        int[] heap = new int[k];
+        int size = 0;
+        while (ordinals.hasNext() && k > 0) {
+            int o = ordinals.nextInt();
+            if (size < k) {
+                heap[size] = o;
+                siftUp(heap, size++, byGame);
+            } else if (byGame.compare(o, heap[0]) < 0) {
+                heap[0] = o;
+                siftDown(heap, size, byGame);
+            }
+        }
+        // pop the worst game to the back until the heap is empty, leaving it sorted
+        for (int n = size - 1; n > 0; n--) {
+            int worst = heap[0];
+            heap[0] = heap[n];
+            heap[n] = worst;
+            siftDown(heap, n, byGame);
+        }
+        return size == k ? heap : Arrays.copyOf(heap, size);
+    }
+
+    /**
+     * Order over ordinals, without boxing them.
+     */
+    @FunctionalInterface
+    private interface IntOrder {
+        /**
+         * Compares two ordinals.
+         *
+         * @param a the first ordinal
+         * @param b the second ordinal
+         * @return negative, zero or positive as a sorts before, with or after b
+         */
+        int compare(int a, int b);
+    }
+
+    /**
+     * Moves an entry up until its parent is not smaller.
+     *
+     * @param heap  the heap
+     * @param i     the entry
+     * @param order the order, the greatest entry is the root
+     */
+    private static void siftUp(int[] heap, int i, IntOrder order) {
+        int o = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (order.compare(heap[parent], o) >= 0) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = o;
+    }
+
+    /**
+     * Moves the root down until both children are not greater.
+     *
+     * @param heap  the heap
+     * @param size  the number of entries in use
+     * @param order the order, the greatest entry is the root
+     */
+    private static void siftDown(int[] heap, int size, IntOrder order) {
+        int o = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(heap[child], o) <= 0) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = o;
+    }
+}
@@ -0,0 +1,234 @@
+package student;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inverted index from name trigrams to the games whose normalized name contains them.
+ *
+ * Every run of three characters in a normalized name is a trigram. A substring search for a
+ * needle of three or more characters can then only match games that have every trigram of the
+ * needle, so the candidates are the intersection of those posting lists. Candidates still have
+ * to be verified, as the trigrams do not have to be next to each other in the name.
+ *
+ * The index is stored as three flat arrays (sorted trigrams, offsets and postings), so it holds
+ * no per-trigram objects once built.
+ */
+public final class TrigramIndex {
+    /** Length of a gram. Needles shorter than this can not use the index. */
+    public static final int GRAM = 3;
+
+    /** Distinct trigrams, ascending. */
+    private final long[] grams;
+    /** Start of each trigram's postings, with one extra entry for the end. */
+    private final int[] offsets;
+    /** Ordinals for every trigram, ascending within each trigram. */
+    private final int[] postings;
+
+    /**
+     * Constructor for the index. Use {@link #build(String[])} to create one.
+     *
+     * @param grams    the sorted trigrams
+     * @param offsets  the start of each trigram's postings
+     * @param postings the ordinals for each trigram
+     */
+    private TrigramIndex(long[] grams, int[] offsets, int[] postings) {
+        this.grams = grams;
+        this.offsets = offsets;
+        this.postings = postings;
+    }
+
+    /**
+     * Builds the index over normalized names.
+     *
+     * @param names the normalized names, indexed by ordinal
+     * @return the new index
+     */
+    static TrigramIndex build(String[] names) {
+        Map<Long, Postings> lists = new HashMap<>();
+        int total = 0;
+        for (int ordinal = 0; ordinal < names.length; ordinal++) {
+            String name = names[ordinal];
+            for (int i = 0; i + GRAM <= name.length(); i++) {
+                Postings list = lists.computeIfAbsent(gram(name, i), k -> new Postings());
+                if (list.add(ordinal)) {
+                    total++;
+                }
+            }
+        }
+
+        long[] grams = new long[lists.size()];
+        int g = 0;
+        for (long gram : lists.keySet()) {
+            grams[g++] = gram;
+        }
+        Arrays.sort(grams);
+        int[] offsets = new int[grams.length + 1];
+        int[] postings = new int[total];
+        int pos = 0;
+        for (int i = 0; i < grams.length; i++) {
+            Postings list = lists.get(grams[i]);
+            offsets[i] = pos;
+            System.arraycopy(list.ordinals, 0, postings, pos, list.size);
+            pos += list.size;
+        }
+        offsets[grams.length] = pos;
+        return new TrigramIndex(grams, offsets, postings);
+    }
+
+    /**
+     * Packs the three characters starting at a position into one key.
+     *
+     * @param text the text
+     * @param i    the position of the first character
+     * @return the trigram key
+     */
+    private static long gram(String text, int i) {
+        return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+    }
+
+    /**
+     * Checks if a needle is long enough to use the index.
+     *
+     * @param needle the normalized text to search for
+     * @return true if it has at least one trigram
+     */
+    public static boolean canSearch(String needle) {
+        return needle.length() >= GRAM;
+    }
+
+    /**
+     * Get the number of distinct trigrams.
+     *
+     * @return the number of trigrams
+     */
+    public int gramCount() {
+        return grams.length;
+    }
+
+    /**
+     * Finds the position of a trigram.
+     *
+     * @param gram the trigram key
+     * @return the position in grams, negative if absent
+     */
+    private int find(long gram) {
+        return Arrays.binarySearch(grams, gram);
+    }
+
+    /**
+     * Estimates the number of candidates for a needle, as its shortest posting list.
+     *
+     * @param needle the normalized text to search for, at least three characters
+     * @return an upper bound on the number of games containing the needle
+     */
+    public int estimate(String needle) {
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i + GRAM <= needle.length(); i++) {
+            int pos = find(gram(needle, i));
+            if (pos < 0) {
+                return 0;
+            }
+            best = Math.min(best, offsets[pos + 1] - offsets[pos]);
+        }
+        return best;
+    }
+
+    /**
+     * Finds the games that have every trigram of the needle.
+     *
+     * Posting lists are intersected shortest first. The result is a superset of the games whose
+     * name contains the needle, and must be verified against the names.
+     *
+     * @param needle the normalized text to search for, at least three characters
+     * @return the candidate ordinals, ascending
+     */
+    public int[] candidates(String needle) {
+        int count = needle.length() - GRAM + 1;
+        int[] lists = new int[count];
+        for (int i = 0; i < count; i++) {
+            int pos = find(gram(needle, i));
+            if (pos < 0) {
+                return new int[0];
+            }
+            lists[i] = pos;
+        }
+        // drop repeated trigrams, then go shortest list first to keep every intersection small
+        Arrays.sort(lists);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || lists[i] != lists[i - 1]) {
+                lists[unique++] = lists[i];
+            }
+        }
+        Integer[] byLength = new Integer[unique];
+        for (int i = 0; i < unique; i++) {
+            byLength[i] = lists[i];
+        }
+        Arrays.sort(byLength, (a, b) -> Integer.compare(offsets[a + 1] - offsets[a],
+                offsets[b + 1] - offsets[b]));
+
+        int first = byLength[0];
+        int[] result = Arrays.copyOfRange(postings, offsets[first], offsets[first + 1]);
+        int n = result.length;
+        for (int i = 1; i < unique && n > 0; i++) {
+            n = intersect(result, n, offsets[byLength[i]], offsets[byLength[i] + 1]);
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Intersects the start of an array with a posting list, in place.
+     *
+     * @param result ascending ordinals, compacted in place
+     * @param n      the number of ordinals in use in result
+     * @param from   the start of the posting list
+     * @param to     the end of the posting list
+     * @return the number of ordinals left in result
+     */
+    private int intersect(int[] result, int n, int from, int to) {
+        int k = 0;
+        int i = 0;
+        int j = from;
+        while (i < n && j < to) {
+            if (result[i] < postings[j]) {
+                i++;
+            } else if (result[i] > postings[j]) {
+                j++;
+            } else {
+                result[k++] = result[i];
+                i++;
+                j++;
+            }
+        }
+        return k;
+    }
+
+    /**
+     * Growable list of ordinals for one trigram, used while building.
+     */
+    private static final class Postings {
+        /** The ordinals, ascending. */
+        private int[] ordinals = new int[4];
+        /** The number of ordinals in use. */
+        private int size;
+
+        /**
+         * Adds an ordinal, unless it is already the last one added.
+         *
+         * @param ordinal the ordinal, never smaller than the last one added
+         * @return true if it was added
+         */
+        boolean add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] == ordinal) {
+                return false; // same trigram twice in one name
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+            return true;
+        }
+    }
+}
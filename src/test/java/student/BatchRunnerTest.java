@@ -0,0 +1,129 @@
+package student;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRunnerTest {
+    private GameCatalog catalog;
+    private Path dir;
+    private Path input;
+    private Path output;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        catalog = GamesLoader.loadCatalog("/collection.csv");
+        dir = Files.createTempDirectory("batch");
+        input = dir.resolve("queries.txt");
+        output = dir.resolve("results.txt");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+        Files.deleteIfExists(dir);
+    }
+
+    /** Splits the output into blocks, each the header line followed by the names. */
+    private static List<List<String>> blocks(List<String> lines) {
+        List<List<String>> blocks = new ArrayList<>();
+        for (String line : lines.subList(0, lines.size() - 1)) {
+            if (line.startsWith("# ")) {
+                blocks.add(new ArrayList<>());
+            }
+            blocks.get(blocks.size() - 1).add(line);
+        }
+        return blocks;
+    }
+
+    @Test
+    void testResultsMatchConsoleOrder() throws IOException {
+        String[] queries = {"minPlayers > 2", "name~=catan sort:rating desc",
+            "maxPlayers<4, rank<500 sort:year asc", "", "# a comment", "rating>100 sort:rank",
+            "rank<10 sort:nope"};
+        Files.write(input, List.of(queries));
+        BatchRunner.Report report = new BatchRunner(catalog, 4).run(input, output);
+        assertEquals(5, report.getQueries());
+        assertEquals(1, report.getErrors());
+
+        List<String> lines = Files.readAllLines(output);
+        assertTrue(lines.get(lines.size() - 1).startsWith("# 5 queries, 1 errors"));
+        List<List<String>> blocks = blocks(lines);
+        assertEquals(5, blocks.size());
+        int[] lineNumbers = {1, 2, 3, 6, 7};
+        for (int i = 0; i < blocks.size(); i++) {
+            String[] head = blocks.get(i).get(0).split("\t");
+            assertEquals("# " + lineNumbers[i], head[0]);
+            String query = queries[lineNumbers[i] - 1];
+            assertEquals(query, head[head.length - 1]);
+            if (i == 4) {
+                assertEquals("error", head[1]);
+                continue;
+            }
+            Planner planner = new Planner(catalog);
+            List<String> expected = new ArrayList<>();
+            var games = FilterQuery.parse(query).run(planner);
+            if (games != null) {
+                games.forEach(g -> expected.add(g.getName()));
+            }
+            assertEquals(String.valueOf(expected.size()), head[1]);
+            assertEquals(expected, blocks.get(i).subList(1, blocks.get(i).size()));
+        }
+    }
+
+    @Test
+    void testParallelMatchesSerial() throws IOException {
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            queries.add("minPlayers>" + (i % 4) + ", rank<" + (i * 5) + " sort:rating desc");
+        }
+        Files.write(input, queries);
+        new BatchRunner(catalog, 1).run(input, output);
+        List<List<String>> serial = blocks(Files.readAllLines(output));
+        new BatchRunner(catalog, 8).run(input, output);
+        List<List<String>> parallel = blocks(Files.readAllLines(output));
+        assertEquals(serial.size(), parallel.size());
+        for (int i = 0; i < serial.size(); i++) {
+            // many more queries than the window, still written in input order
+            assertTrue(parallel.get(i).get(0).startsWith("# " + (i + 1) + "\t"));
+            assertEquals(serial.get(i).subList(1, serial.get(i).size()),
+                    parallel.get(i).subList(1, parallel.get(i).size()));
+        }
+    }
+
+    @Test
+    void testParseMatchesConsoleSyntax() {
+        FilterQuery plain = FilterQuery.parse("Min Players > 2");
+        assertEquals("minplayers>2", plain.getFilter());
+        assertFalse(plain.isSorted());
+        assertEquals(GameData.NAME, plain.getSortOn());
+
+        FilterQuery sorted = FilterQuery.parse("name~=catan sort:Rating DESC");
+        assertEquals("name~=catan", sorted.getFilter());
+        assertTrue(sorted.isSorted());
+        assertEquals(GameData.RATING, sorted.getSortOn());
+        assertFalse(sorted.isAscending());
+
+        FilterQuery onlySort = FilterQuery.parse("sort:rank");
+        assertEquals("", onlySort.getFilter());
+        assertEquals(GameData.RANK, onlySort.getSortOn());
+        assertTrue(onlySort.isAscending());
+
+        assertEquals("", FilterQuery.parse("sort:").getFilter());
+        assertThrows(IllegalArgumentException.class, () -> FilterQuery.parse("sort:nope"));
+    }
+
+    @Test
+    void testParallelismMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(catalog, 0));
+    }
+}
@@ -0,0 +1,30 @@
+package student;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardGameTest {
+
+    @Test
+    void testEqualityUsesIdAndName() {
+        BoardGame game = new BoardGame("Catan", 1, 3, 4, 60, 30, 2.5, 1, 4.5, 1995);
+        BoardGame sameIdentity = new BoardGame("Catan", 1, 2, 6, 10, 20, 1.0, 9, 9.5, 2001);
+        BoardGame otherId = new BoardGame("Catan", 2, 3, 4, 60, 30, 2.5, 1, 4.5, 1995);
+        BoardGame otherName = new BoardGame("catan", 1, 3, 4, 60, 30, 2.5, 1, 4.5, 1995);
+        assertEquals(game, game);
+        assertEquals(game, sameIdentity);
+        assertEquals(game.hashCode(), sameIdentity.hashCode());
+        assertNotEquals(game, otherId);
+        assertNotEquals(game, otherName);
+        assertNotEquals(game, null);
+        assertNotEquals(game, "Catan");
+    }
+
+    @Test
+    void testHashMatchesEarlierReflectionHash() {
+        // HashCodeBuilder(17, 37) over the id and name fields, in field name order
+        BoardGame game = new BoardGame("Catan", 5, 3, 4, 60, 30, 2.5, 1, 4.5, 1995);
+        assertEquals(64903685, game.hashCode());
+    }
+}
@@ -0,0 +1,80 @@
+package student;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogGeneratorTest {
+    private Path file;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static String generate(long seed, int rows) throws IOException {
+        StringWriter out = new StringWriter();
+        new CatalogGenerator(seed).write(out, rows);
+        return out.toString();
+    }
+
+    @Test
+    void testSameSeedSameOutput() throws IOException {
+        assertEquals(generate(7, 500), generate(7, 500));
+        assertNotEquals(generate(7, 500), generate(8, 500));
+        // a longer run starts with the same games as a shorter one
+        assertTrue(generate(7, 600).startsWith(generate(7, 500)));
+    }
+
+    @Test
+    void testHeaderMatchesBundledCollection() throws IOException {
+        String bundled;
+        try (InputStream in = getClass().getResourceAsStream("/collection.csv")) {
+            bundled = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String header = bundled.substring(0, bundled.indexOf('\n')).strip();
+        if (header.startsWith("﻿")) {
+            header = header.substring(1);
+        }
+        String generated = generate(CatalogGenerator.DEFAULT_SEED, 0);
+        assertEquals(header, generated.strip());
+        assertEquals(48, header.split(",", -1).length);
+    }
+
+    @Test
+    void testLoadsWithSaneValues() throws IOException {
+        file = new CatalogGenerator().writeTemp(5000);
+        Set<BoardGame> games = GamesLoader.loadGamesFile(file.toString());
+        assertEquals(5000, games.size());
+        Set<Integer> ids = new HashSet<>();
+        for (BoardGame g : games) {
+            assertTrue(ids.add(g.getId()));
+            assertFalse(g.getName().isEmpty());
+            assertTrue(g.getMinPlayers() <= g.getMaxPlayers());
+            // like the real file, a max time of 0 means unknown
+            assertTrue(g.getMaxPlayTime() == 0 || g.getMinPlayTime() <= g.getMaxPlayTime());
+            assertTrue(g.getRating() >= 1 && g.getRating() <= 10);
+            assertTrue(g.getDifficulty() >= 0 && g.getDifficulty() <= 5);
+            assertTrue(g.getRank() >= 0);
+            assertTrue(g.getYearPublished() <= 2025);
+        }
+    }
+
+    @Test
+    void testRejectsNegativeRows() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new CatalogGenerator().write(new StringWriter(), -1));
+    }
+}
@@ -0,0 +1,95 @@
+package student;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogSnapshotTest {
+    private static final String HEADER = "objectid,objectname,minplayers,maxplayers,minplaytime,"
+            + "maxplaytime,avgweight,rank,average,yearpublished\n";
+
+    private Path dir;
+    private Path csv;
+    private Path snapshot;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("snapshot");
+        csv = dir.resolve("games.csv");
+        snapshot = dir.resolve("games.snapshot");
+        Files.writeString(csv, HEADER
+                + "1,\"Catan, 5th Edition\",3,4,60,90,2.5,300,8.2,1995\n"
+                + "2,Chess,2,2,10,20,10.0,700,10.0,2006\n"
+                + "3,Straße,2,5,30,30,1.75,100,7.5,2000\n"
+                + "4,Chess,2,2,10,20,10.0,701,9.0,2007\n");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(snapshot);
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    void testSnapshotIsWrittenAndLoaded() throws IOException {
+        GameCatalog parsed = GamesLoader.loadCatalog(csv.toString());
+        GameCatalog first = GamesLoader.loadCatalog(csv.toString(), snapshot);
+        assertTrue(Files.isRegularFile(snapshot));
+        assertEquals(parsed.games(), first.games());
+
+        CatalogSnapshot.Fingerprint fingerprint = fingerprint();
+        GameCatalog loaded = CatalogSnapshot.read(snapshot, fingerprint);
+        assertNotNull(loaded);
+        assertEquals(parsed.games(), loaded.games());
+        assertEquals(8.2, loaded.get(0).getRating());
+        assertEquals(1.75, loaded.get(2).getDifficulty());
+        assertEquals("Straße", loaded.get(2).getName());
+        assertEquals(parsed.games(), GamesLoader.loadCatalog(csv.toString(), snapshot).games());
+    }
+
+    @Test
+    void testStaleSnapshotIsRebuilt() throws IOException {
+        GamesLoader.loadCatalog(csv.toString(), snapshot);
+        CatalogSnapshot.Fingerprint before = fingerprint();
+        Files.writeString(csv, HEADER + "9,Go,2,2,30,30,8.0,100,7.5,2000\n");
+        Files.setLastModifiedTime(csv, FileTime.fromMillis(1_000_000));
+        assertNull(CatalogSnapshot.read(snapshot, fingerprint()));
+        assertNotNull(CatalogSnapshot.read(snapshot, before));
+
+        GameCatalog catalog = GamesLoader.loadCatalog(csv.toString(), snapshot);
+        assertEquals(1, catalog.size());
+        assertEquals("Go", catalog.get(0).getName());
+        assertNotNull(CatalogSnapshot.read(snapshot, fingerprint()));
+    }
+
+    @Test
+    void testDamagedSnapshotFallsBackToCsv() throws IOException {
+        GamesLoader.loadCatalog(csv.toString(), snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 3));
+        assertNull(CatalogSnapshot.read(snapshot, fingerprint()));
+        assertEquals(4, GamesLoader.loadCatalog(csv.toString(), snapshot).size());
+        assertNotNull(CatalogSnapshot.read(snapshot, fingerprint()));
+    }
+
+    @Test
+    void testMissingSnapshot() throws IOException {
+        assertNull(CatalogSnapshot.read(snapshot, fingerprint()));
+    }
+
+    private CatalogSnapshot.Fingerprint fingerprint() throws IOException {
+        try (CsvSource source = CsvSource.of(Files.readAllBytes(csv))) {
+            return CatalogSnapshot.Fingerprint.of(source,
+                    Files.getLastModifiedTime(csv).toMillis());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnIndexTest {
+    private GameCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        List<BoardGame> games = new ArrayList<>();
+        games.add(new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700, 10.0, 2006));
+        games.add(new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000));
+        games.add(new BoardGame("Go Fish", 2, 2, 10, 20, 120, 3.0, 200, 6.5, 2001));
+        games.add(new BoardGame("Catan", 6, 3, 4, 60, 90, 2.5, 300, 8.2, 1995));
+        catalog = GameCatalog.of(games);
+    }
+
+    @Test
+    void testOrderIsSortedAndStable() {
+        ColumnIndex index = catalog.index(GameData.MIN_PLAYERS);
+        assertEquals(4, index.size());
+        assertEquals(0, index.ordinalAt(0));
+        assertEquals(1, index.ordinalAt(1));
+        assertEquals(2, index.ordinalAt(2));
+        assertEquals(3, index.ordinalAt(3));
+        assertSame(index, catalog.index(GameData.MIN_PLAYERS));
+    }
+
+    @Test
+    void testBounds() {
+        ColumnIndex index = catalog.index(GameData.RANK);
+        assertEquals(0, index.lowerBound(100));
+        assertEquals(1, index.upperBound(100));
+        assertEquals(2, index.lowerBound(250));
+        assertEquals(4, index.upperBound(1000));
+    }
+
+    @Test
+    void testCountAndSelect() {
+        ColumnIndex index = catalog.index(GameData.RATING);
+        FilterTerm term = FilterTerm.parse("rating>7.5");
+        assertEquals(2, index.count(term));
+        assertArrayEquals(new int[] {0, 3}, index.select(term));
+        FilterTerm notEqual = FilterTerm.parse("rating!=7.5");
+        assertEquals(3, index.count(notEqual));
+        assertArrayEquals(new int[] {0, 2, 3}, index.select(notEqual));
+    }
+
+    @Test
+    void testNameIsNotIndexed() {
+        assertThrows(IllegalArgumentException.class, () -> catalog.index(GameData.NAME));
+    }
+
+    @Test
+    void testIndexMatchesScanOnCollection() {
+        GameCatalog full = GamesLoader.loadCatalog("/collection.csv");
+        String[] ops = {"==", "!=", ">", ">=", "<", "<="};
+        String[][] probes = {{"rank", "50"}, {"rank", "0"}, {"minplayers", "2"},
+            {"maxplaytime", "60"}, {"rating", "7.5"}, {"difficulty", "2.5"}, {"year", "2020"}};
+        for (String[] probe : probes) {
+            for (String op : ops) {
+                FilterTerm term = FilterTerm.parse(probe[0] + op + probe[1]);
+                int[] expected = new int[full.size()];
+                int n = term.select(full, full.allOrdinals(), full.size(), expected);
+                int[] actual = full.index(term.getColumn()).select(term);
+                assertEquals(n, actual.length, term.toString());
+                for (int i = 0; i < n; i++) {
+                    assertEquals(expected[i], actual[i], term.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testPlanUsesIndexOnSubset() {
+        GameCatalog full = GamesLoader.loadCatalog("/collection.csv");
+        int[] subset = FilterPlan.compile("minplayers<=2").select(full, full.allOrdinals());
+        int[] viaPlan = FilterPlan.compile("rank>0,rank<50").select(full, subset);
+        for (int o : viaPlan) {
+            BoardGame game = full.get(o);
+            assertTrue(game.getRank() > 0 && game.getRank() < 50 && game.getMinPlayers() <= 2);
+        }
+        long expected = full.games().stream()
+                .filter(g -> g.getRank() > 0 && g.getRank() < 50 && g.getMinPlayers() <= 2).count();
+        assertEquals(expected, viaPlan.length);
+    }
+}
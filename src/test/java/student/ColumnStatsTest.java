@@ -0,0 +1,132 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnStatsTest {
+    private GameCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = GamesLoader.loadCatalog("/collection.csv");
+    }
+
+    /** Counts the games of the catalog a term matches, by scanning. */
+    private int exact(String filter) {
+        FilterTerm term = FilterTerm.parse(filter);
+        int n = 0;
+        for (BoardGame g : catalog.games()) {
+            if (term.test(g)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Test
+    void testSummaryMatchesColumns() {
+        for (GameData column : GameData.values()) {
+            if (column == GameData.NAME || column == GameData.ID) {
+                assertThrows(IllegalArgumentException.class, () -> catalog.stats(column));
+                continue;
+            }
+            ColumnStats stats = catalog.stats(column);
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            int zeros = 0;
+            Set<Double> distinct = new HashSet<>();
+            for (int i = 0; i < catalog.size(); i++) {
+                double v = catalog.value(i, column);
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+                zeros += v == 0 ? 1 : 0;
+                distinct.add(v);
+            }
+            assertEquals(column, stats.getColumn());
+            assertEquals(catalog.size(), stats.getCount());
+            assertEquals(min, stats.getMin(), column.name());
+            assertEquals(max, stats.getMax(), column.name());
+            assertEquals(zeros, stats.getZeros(), column.name());
+            assertEquals(distinct.size(), stats.getDistinct(), column.name());
+            assertEquals(0, stats.getNulls());
+
+            int total = 0;
+            for (int b = 0; b < stats.getBuckets(); b++) {
+                total += stats.getBucketCount(b);
+                assertTrue(stats.getBucketLow(b) <= stats.getBucketHigh(b));
+                if (b > 0) {
+                    // a value is only ever in one bucket
+                    assertTrue(stats.getBucketLow(b) > stats.getBucketHigh(b - 1));
+                }
+            }
+            assertEquals(catalog.size(), total);
+            assertTrue(stats.getBuckets() <= ColumnStats.DEFAULT_BUCKETS);
+        }
+    }
+
+    @Test
+    void testEquiDepthBuckets() {
+        double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 10 == 0 ? Double.NaN : i * i;
+        }
+        ColumnStats stats = ColumnStats.build(GameData.RATING, values, 10);
+        assertEquals(1000, stats.getCount());
+        assertEquals(100, stats.getNulls());
+        assertEquals(0, stats.getZeros()); // 0 is NaN here
+        assertEquals(10, stats.getBuckets());
+        for (int b = 0; b < stats.getBuckets(); b++) {
+            assertEquals(90, stats.getBucketCount(b));
+        }
+        assertEquals(900, stats.getDistinct());
+    }
+
+    @Test
+    void testEstimatesAreClose() {
+        String[] filters = {"rating>7", "rating<=6.5", "minplayers==2", "maxplayers!=4",
+            "year>=2015", "rank<1000", "difficulty>3", "maxplaytime<60", "rank==0",
+            "rating>100"};
+        for (String filter : filters) {
+            FilterTerm term = FilterTerm.parse(filter);
+            int estimate = catalog.stats(term.getColumn()).estimate(term);
+            int exact = exact(filter);
+            assertTrue(Math.abs(estimate - exact) <= Math.max(10, catalog.size() / 20),
+                    filter + " estimate " + estimate + " exact " + exact);
+            double selectivity = catalog.stats(term.getColumn()).selectivity(term);
+            assertEquals((double) estimate / catalog.size(), selectivity, 1e-9);
+        }
+        FilterTerm none = FilterTerm.parse("rating>100");
+        assertEquals(0, catalog.stats(GameData.RATING).estimate(none));
+        assertThrows(IllegalArgumentException.class,
+            () -> catalog.stats(GameData.RANK).estimate(none));
+    }
+
+    @Test
+    void testIntBucketEdgesAreInclusive() {
+        // one bucket [5, 8] holding 5, 6, 7 and 8 once each
+        ColumnStats stats = ColumnStats.build(GameData.YEAR, new double[] {5, 6, 7, 8}, 1);
+        assertEquals(1, stats.getBuckets());
+        assertEquals(1, stats.estimate(FilterTerm.parse("year>=8")));
+        assertEquals(1, stats.estimate(FilterTerm.parse("year>7")));
+        assertEquals(2, stats.estimate(FilterTerm.parse("year>=7")));
+        assertEquals(1, stats.estimate(FilterTerm.parse("year<=5")));
+        assertEquals(3, stats.estimate(FilterTerm.parse("year<8")));
+        assertEquals(0, stats.estimate(FilterTerm.parse("year>8")));
+    }
+
+    @Test
+    void testReportHasEveryNumericColumn() {
+        String report = catalog.statsReport();
+        String[] lines = report.split("\\R");
+        // a header, then every column but the name and the id
+        assertEquals(GameData.values().length - 1, lines.length);
+        assertTrue(lines[0].startsWith("column"));
+        assertFalse(report.contains(System.lineSeparator() + GameData.ID.getColumnName() + " "));
+        assertTrue(report.contains(GameData.RATING.getColumnName()));
+    }
+}
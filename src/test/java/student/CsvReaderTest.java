@@ -0,0 +1,115 @@
+package student;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvReaderTest {
+    /** Header with the loader's columns in an unusual order, plus an ignored one. */
+    private static final String HEADER = "objectid,objectname,extra,minplayers,maxplayers,"
+            + "minplaytime,maxplaytime,avgweight,rank,average,yearpublished\n";
+
+    private static CsvReader reader(String text, boolean last) {
+        return new CsvReader(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), last);
+    }
+
+    @Test
+    void testPlainAndQuotedFields() {
+        CsvReader reader = reader("a,\"b,c\",\"say \"\"hi\"\"\"\r\nd,,\"line\nbreak\"", true);
+        assertTrue(reader.next());
+        assertEquals(3, reader.fieldCount());
+        assertEquals("a", reader.text(0));
+        assertEquals("b,c", reader.text(1));
+        assertEquals("say \"hi\"", reader.text(2));
+        assertTrue(reader.next());
+        assertEquals(3, reader.fieldCount());
+        assertEquals("", reader.text(1));
+        assertEquals("line\nbreak", reader.text(2));
+        assertFalse(reader.next());
+    }
+
+    @Test
+    void testUtf8Text() {
+        CsvReader reader = reader("Straße,Ökö\n", true);
+        assertTrue(reader.next());
+        assertEquals("Straße", reader.text(0));
+        assertEquals("Ökö", reader.text(1));
+    }
+
+    @Test
+    void testNumbers() {
+        CsvReader reader = reader("42,-7,0,12345678901,x,,7.5,-0.25,3.14159,1e3,.5,5.\n", true);
+        assertTrue(reader.next());
+        assertEquals(42, reader.parseInt(0));
+        assertEquals(-7, reader.parseInt(1));
+        assertEquals(0, reader.parseInt(2));
+        assertThrows(NumberFormatException.class, () -> reader.parseInt(3));
+        assertThrows(NumberFormatException.class, () -> reader.parseInt(4));
+        assertThrows(NumberFormatException.class, () -> reader.parseInt(5));
+        assertThrows(NumberFormatException.class, () -> reader.parseDouble(5));
+        assertEquals(7.5, reader.parseDouble(6));
+        assertEquals(-0.25, reader.parseDouble(7));
+        assertEquals(Double.parseDouble("3.14159"), reader.parseDouble(8));
+        assertEquals(1000.0, reader.parseDouble(9));
+        assertEquals(0.5, reader.parseDouble(10));
+        assertEquals(5.0, reader.parseDouble(11));
+    }
+
+    @Test
+    void testIncompleteRecordIsLeftForNextWindow() {
+        CsvReader reader = reader("a,b\n\"c,d", false);
+        assertTrue(reader.next());
+        assertFalse(reader.next());
+        assertEquals(4, reader.position());
+    }
+
+    @Test
+    void testQuotedCommaNameIsLoaded() throws IOException {
+        Path file = Files.createTempFile("games", ".csv");
+        try {
+            Files.writeString(file, HEADER
+                    + "1,\"Catan, 5th Edition\",x,3,4,60,90,2.5,300,8.2,1995\n"
+                    + "2,Chess,x,2,2,10,20,10.0,700,10.0,2006\r\n"
+                    + "3,Short Row,x,2\n"
+                    + "4,Bad Number,x,two,2,10,20,1.0,1,1.0,2000\n"
+                    + "5,\"Go \"\"Fish\"\"\",x,2,10,20,120,3.0,200,6.5,2001");
+            GameCatalog catalog = GamesLoader.loadCatalog(file.toString());
+            assertEquals(3, catalog.size());
+            assertEquals("Catan, 5th Edition", catalog.get(0).getName());
+            assertEquals(8.2, catalog.get(0).getRating());
+            assertEquals(2006, catalog.get(1).getYearPublished());
+            assertEquals("Go \"Fish\"", catalog.get(2).getName());
+
+            // a tiny window makes records span many mapped windows
+            GamesLoader.Rows rows = new GamesLoader.Rows();
+            try (CsvSource source = CsvSource.of(FileChannel.open(file, StandardOpenOption.READ))) {
+                GamesLoader.readRange(source, 0, source.size(), 128, rows);
+            }
+            assertEquals(catalog.games(), rows.games);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testRecordLongerThanWindow() throws IOException {
+        Path file = Files.createTempFile("games", ".csv");
+        try {
+            Files.writeString(file, HEADER + "1,Chess,x,2,2,10,20,10.0,700,10.0,2006\n");
+            try (CsvSource source = CsvSource.of(FileChannel.open(file, StandardOpenOption.READ))) {
+                assertThrows(IOException.class, () -> GamesLoader.readRange(source, 0,
+                        source.size(), 16, new GamesLoader.Rows()));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
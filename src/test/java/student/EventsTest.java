@@ -0,0 +1,127 @@
+package student;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventsTest {
+    private Path file;
+    private Path snapshot;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+        if (snapshot != null) {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    /** Records the events of a piece of work, on this thread. */
+    private List<RecordedEvent> record(Runnable work) throws IOException {
+        file = Files.createTempFile("events", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] {"Query", "Filter", "Sort", "Load"}) {
+                recording.enable("student." + name).withoutThreshold();
+            }
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = new ArrayList<>();
+        for (RecordedEvent e : RecordingFile.readAllEvents(file)) {
+            if (e.getThread() != null
+                    && e.getThread().getJavaThreadId() == Thread.currentThread().getId()) {
+                events.add(e);
+            }
+        }
+        return events;
+    }
+
+    /** Finds the events of a type. */
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+    }
+
+    @Test
+    void testQueryLifecycle() throws IOException {
+        GameCatalog catalog = GamesLoader.loadCatalog("/collection.csv");
+        List<RecordedEvent> events = record(() -> {
+            Planner planner = new Planner(catalog, 0);
+            planner.filter("minplayers>2, bogus", GameData.RATING, false).count();
+        });
+
+        List<RecordedEvent> queries = named(events, "student.Query");
+        assertEquals(1, queries.size());
+        RecordedEvent query = queries.get(0);
+        assertEquals("minplayers>2, bogus", query.getString("filter"));
+        assertEquals(GameData.RATING.getColumnName(), query.getString("sortColumn"));
+        assertFalse(query.getBoolean("ascending"));
+        assertEquals(catalog.size(), query.getInt("rowsIn"));
+        int out = query.getInt("rowsOut");
+        assertTrue(out > 0 && out < catalog.size());
+        assertFalse(query.getBoolean("cacheHit"));
+
+        List<RecordedEvent> filters = named(events, "student.Filter");
+        assertEquals(1, filters.size());
+        assertEquals(1, filters.get(0).getInt("terms"));
+        assertEquals(out, filters.get(0).getInt("rowsOut"));
+        assertTrue(filters.get(0).getLong("evaluateDuration") >= 0);
+
+        List<RecordedEvent> sorts = named(events, "student.Sort");
+        assertEquals(1, sorts.size());
+        assertEquals(out, sorts.get(0).getInt("rows"));
+    }
+
+    @Test
+    void testSortGamesAndLoad() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            List<BoardGame> games = new ArrayList<>(GamesLoader.loadGamesFile("/collection.csv"));
+            Planner.sortGames(games, "rank", true);
+        });
+        List<RecordedEvent> loads = named(events, "student.Load");
+        assertEquals(1, loads.size());
+        assertEquals("/collection.csv", loads.get(0).getString("file"));
+        assertTrue(loads.get(0).getInt("rows") > 0);
+        assertTrue(loads.get(0).getLong("bytes") > 0);
+
+        List<RecordedEvent> sorts = named(events, "student.Sort");
+        assertEquals(1, sorts.size());
+        assertEquals("rank", sorts.get(0).getString("column"));
+        assertTrue(sorts.get(0).getBoolean("ascending"));
+    }
+
+    @Test
+    void testCatalogLoadsFromCsvSnapshotAndParallel() throws IOException {
+        snapshot = Files.createTempFile("catalog", ".snap");
+        Files.delete(snapshot);
+        List<RecordedEvent> events = record(() -> {
+            GamesLoader.loadCatalog("/collection.csv", snapshot); // parses, writes the snapshot
+            GamesLoader.loadCatalog("/collection.csv", snapshot); // reads the snapshot
+            GamesLoader.loadCatalogParallel("/collection.csv", 2);
+        });
+        List<RecordedEvent> loads = named(events, "student.Load");
+        assertEquals(3, loads.size());
+        int rows = loads.get(0).getInt("rows");
+        assertTrue(rows > 0);
+        for (RecordedEvent load : loads) {
+            assertEquals("/collection.csv", load.getString("file"));
+            assertTrue(load.getLong("bytes") > 0);
+            assertEquals(rows, load.getInt("rows"));
+        }
+        assertEquals(loads.get(0).getInt("rejected"), loads.get(2).getInt("rejected"));
+    }
+}
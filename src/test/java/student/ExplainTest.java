@@ -0,0 +1,87 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExplainTest {
+    private GameCatalog catalog;
+    private Planner planner;
+
+    @BeforeEach
+    void setUp() {
+        catalog = GamesLoader.loadCatalog("/collection.csv");
+        planner = new Planner(catalog);
+    }
+
+    @Test
+    void testDroppedCommandsHaveReasons() {
+        Explain explain = planner.explain("colour==red, rank<abc, id==1, rank<300, bogus",
+                GameData.NAME, true);
+        assertEquals(1, explain.getPlan().getTerms().size());
+        List<String> dropped = explain.getDropped();
+        assertEquals(4, dropped.size());
+        assertTrue(dropped.get(0).startsWith("colour==red (no column colour"));
+        assertTrue(dropped.get(1).contains("not a number"));
+        assertTrue(dropped.get(2).contains("id"));
+        assertEquals("bogus (no operator)", dropped.get(3));
+        assertTrue(explain.toString().contains("dropped: bogus (no operator)"));
+    }
+
+    @Test
+    void testStepsRunMostSelectiveFirst() {
+        Explain explain = planner.explain("minplayers>0, name~=catan", GameData.RATING, false);
+        List<Explain.Step> steps = explain.getSteps();
+        assertEquals(2, steps.size());
+        assertEquals(GameData.NAME, steps.get(0).getTerm().getColumn());
+        assertEquals(Explain.Access.INDEX, steps.get(0).getAccess());
+        assertEquals(catalog.size(), steps.get(0).getRowsIn());
+        assertTrue(steps.get(0).getEstimate() <= steps.get(1).getEstimate());
+        assertEquals(steps.get(0).getRowsOut(), steps.get(1).getRowsIn());
+        assertEquals(Explain.Access.SCAN, steps.get(1).getAccess());
+        assertEquals(steps.get(1).getRowsOut(), explain.getRowsOut());
+
+        long expected = planner.filter("minplayers>0, name~=catan").count();
+        assertEquals(expected, explain.getRowsOut());
+        assertTrue(explain.isSortable());
+        assertTrue(explain.getTotalNanos() >= explain.getSortNanos());
+    }
+
+    @Test
+    void testEmptyResultSkipsLaterTerms() {
+        Explain explain = planner.explain("rating>100, minplayers>1", GameData.NAME, true);
+        List<Explain.Step> steps = explain.getSteps();
+        assertEquals(2, steps.size());
+        assertEquals(0, steps.get(0).getRowsOut());
+        assertEquals(Explain.Access.SKIPPED, steps.get(1).getAccess());
+        assertEquals(0, explain.getRowsOut());
+    }
+
+    @Test
+    void testWorkingSetIsUnchanged() {
+        planner.filter("minplayers>2");
+        OrdinalBitmap before = planner.getHistory().members();
+        int depth = planner.getHistory().depth();
+        Explain explain = planner.explain("maxplayers<4", GameData.ID, true);
+        assertSame(before, planner.getHistory().members());
+        assertEquals(depth, planner.getHistory().depth());
+        assertEquals(before.cardinality(), explain.getRowsIn());
+        assertFalse(explain.isSortable());
+        assertTrue(explain.toString().contains("can not be sorted on"));
+    }
+
+    @Test
+    void testExplainIsNotCountedInMetrics() {
+        Metrics metrics = Metrics.global();
+        long terms = metrics.terms(GameData.DIFFICULTY);
+        long scanned = metrics.scanned(GameData.DIFFICULTY);
+        planner.explain("difficulty>2", GameData.NAME, true);
+        assertEquals(terms, metrics.terms(GameData.DIFFICULTY));
+        assertEquals(scanned, metrics.scanned(GameData.DIFFICULTY));
+        planner.filter("difficulty>2").count();
+        assertEquals(terms + 1, metrics.terms(GameData.DIFFICULTY));
+    }
+}
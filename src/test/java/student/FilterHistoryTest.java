@@ -0,0 +1,106 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FilterHistoryTest {
+    private Planner planner;
+
+    @BeforeEach
+    void setUp() {
+        planner = new Planner(GamesLoader.loadCatalog("/collection.csv"));
+    }
+
+    @Test
+    void testBackRestoresEachStage() {
+        List<BoardGame> all = planner.filter("").toList();
+        List<BoardGame> two = planner.filter("minPlayers>1", GameData.RATING, false).toList();
+        List<BoardGame> three = planner.filter("maxPlayers>4", GameData.RANK).toList();
+        assertTrue(three.size() < two.size());
+        assertEquals(2, planner.getHistory().depth());
+        assertEquals(List.of("minPlayers>1", "maxPlayers>4"), planner.getHistory().filters());
+
+        long hits = planner.getResultCache().hits();
+        assertTrue(planner.back());
+        assertEquals(hits + 1, planner.getResultCache().hits());
+        assertEquals(two, planner.getCurList().toList());
+        assertTrue(planner.back());
+        assertEquals(all, planner.getCurList().toList());
+        assertFalse(planner.back());
+        assertEquals(all, planner.getCurList().toList());
+    }
+
+    @Test
+    void testFilterAfterBackBranches() {
+        List<BoardGame> first = planner.filter("minPlayers>1").toList();
+        planner.filter("maxPlayers>4").count();
+        assertTrue(planner.back());
+        List<BoardGame> other = planner.filter("rank<100").toList();
+        Planner fresh = new Planner(planner.getCatalog());
+        assertEquals(fresh.filter("minPlayers>1, rank<100").toList(), other);
+        assertEquals(List.of("minPlayers>1", "rank<100"), planner.getHistory().filters());
+        assertTrue(planner.back());
+        assertEquals(first, planner.getCurList().toList());
+    }
+
+    @Test
+    void testSortOnlyFilterDoesNotAddStage() {
+        planner.filter("minPlayers>1").count();
+        planner.filter("", GameData.RATING, false).count();
+        assertEquals(1, planner.getHistory().depth());
+        assertEquals(GameData.RATING, planner.getHistory().sortOn());
+        assertTrue(planner.back());
+        assertTrue(planner.getHistory().isStart());
+    }
+
+    @Test
+    void testResetStartsOver() {
+        planner.filter("minPlayers>1").count();
+        planner.reset();
+        assertTrue(planner.getHistory().isStart());
+        assertFalse(planner.back());
+    }
+
+    @Test
+    void testStagesShareUnchangedChunks() {
+        int[] thirds = new int[100_000];
+        for (int i = 0; i < thirds.length; i++) {
+            thirds[i] = 3 * i;
+        }
+        OrdinalBitmap all = OrdinalBitmap.fromSorted(thirds);
+        // only the last of the five chunks changes
+        OrdinalBitmap narrowed = all.filter((ordinals, n) -> {
+            int m = 0;
+            for (int i = 0; i < n; i++) {
+                if (ordinals[i] < 280_000) {
+                    ordinals[m++] = ordinals[i];
+                }
+            }
+            return m;
+        });
+        assertTrue(narrowed.cardinality() < all.cardinality());
+        assertEquals(0, all.sizeInBytes(all));
+        assertTrue(narrowed.sizeInBytes(all) * 3 < narrowed.sizeInBytes());
+
+        FilterHistory start = FilterHistory.start(all);
+        FilterHistory next = start.push("a", narrowed, null, true);
+        assertSame(start, next.back());
+        assertSame(all, next.start());
+        assertTrue(next.sizeInBytes() - start.sizeInBytes() < narrowed.sizeInBytes() / 3);
+        assertSame(start, start.back());
+    }
+
+    @Test
+    void testUnsortableColumnEmptiesWorkingSet() {
+        List<BoardGame> first = planner.filter("minPlayers>1").toList();
+        assertNull(planner.filter("maxPlayers>4", GameData.ID, true));
+        assertEquals(0, planner.getCurList().count());
+        assertEquals(0, planner.filter("", GameData.ID, true, 0, 10).count());
+        assertTrue(planner.back());
+        assertEquals(first, planner.getCurList().toList());
+    }
+}
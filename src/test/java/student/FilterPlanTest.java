@@ -0,0 +1,94 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FilterPlanTest {
+    private List<BoardGame> games;
+
+    @BeforeEach
+    void setUp() {
+        games = new ArrayList<>();
+        games.add(new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700, 10.0, 2006));
+        games.add(new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000));
+        games.add(new BoardGame("Go Fish", 2, 2, 10, 20, 120, 3.0, 200, 6.5, 2001));
+        games.add(new BoardGame("Catan", 6, 3, 4, 60, 90, 2.5, 300, 8.2, 1995));
+    }
+
+    @Test
+    void testCompileParsesTerms() {
+        FilterPlan plan = FilterPlan.compile("minPlayers >= 2, name ~= Go Fish");
+        assertEquals(2, plan.getTerms().size());
+        FilterTerm first = plan.getTerms().get(0);
+        assertEquals(GameData.MIN_PLAYERS, first.getColumn());
+        assertEquals(Operations.GREATER_THAN_EQUALS, first.getOperation());
+        assertEquals(2.0, first.getNumber());
+        FilterTerm second = plan.getTerms().get(1);
+        assertEquals(GameData.NAME, second.getColumn());
+        assertEquals(Operations.CONTAINS, second.getOperation());
+        assertEquals("gofish", second.getValue());
+    }
+
+    @Test
+    void testCompileIsCachedOnNormalizedText() {
+        FilterPlan plan = FilterPlan.compile("rating > 7");
+        assertSame(plan, FilterPlan.compile("RATING>7"));
+        assertEquals("rating>7", plan.getText());
+    }
+
+    @Test
+    void testInvalidTermsAreDropped() {
+        FilterPlan plan = FilterPlan.compile("colour==red, rank<abc, id==1, rank<300");
+        assertEquals(1, plan.getTerms().size());
+        assertEquals(GameData.RANK, plan.getTerms().get(0).getColumn());
+    }
+
+    @Test
+    void testApplyKeepsOrder() {
+        List<BoardGame> result = FilterPlan.compile("maxplaytime<=90").apply(games);
+        assertEquals(3, result.size());
+        assertEquals("Chess", result.get(0).getName());
+        assertEquals("Go", result.get(1).getName());
+        assertEquals("Catan", result.get(2).getName());
+    }
+
+    @Test
+    void testEmptyPlanMatchesAll() {
+        assertTrue(FilterPlan.compile("").isEmpty());
+        assertEquals(4, FilterPlan.compile(null).apply(games).size());
+    }
+
+    @Test
+    void testColumnAliases() {
+        assertEquals(1, FilterPlan.compile("year<2000").apply(games).size());
+        assertEquals(1, FilterPlan.compile("yearpublished<2000").apply(games).size());
+        assertEquals(2, FilterPlan.compile("min_time>=30").apply(games).size());
+        assertEquals(2, FilterPlan.compile("minplaytime>=30").apply(games).size());
+    }
+
+    @Test
+    void testContainsOnNumberMatchesNothing() {
+        assertTrue(FilterPlan.compile("rank~=1").apply(games).isEmpty());
+    }
+
+    @Test
+    void testDifficultyAcceptsDecimals() {
+        assertEquals(1, FilterPlan.compile("difficulty<2.75").apply(games).size());
+    }
+
+    @Test
+    void testCacheKeepsRecentlyUsedPlans() {
+        FilterPlan hot = FilterPlan.compile("rank<12345");
+        FilterPlan cold = FilterPlan.compile("rank<54321");
+        for (int i = 0; i < 3000; i++) {
+            FilterPlan.compile("rank<" + (100000 + i));
+            assertSame(hot, FilterPlan.compile("rank<12345"));
+        }
+        assertNotSame(cold, FilterPlan.compile("rank<54321"));
+    }
+}
@@ -0,0 +1,109 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameCatalogTest {
+    private List<BoardGame> games;
+    private GameCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        games = new ArrayList<>();
+        games.add(new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700, 10.0, 2006));
+        games.add(new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000));
+        games.add(new BoardGame("Go Fish", 2, 2, 10, 20, 120, 3.0, 200, 6.5, 2001));
+        games.add(new BoardGame("Catan", 6, 3, 4, 60, 90, 2.5, 300, 8.2, 1995));
+        catalog = GameCatalog.of(games);
+    }
+
+    @Test
+    void testColumnsMatchGames() {
+        assertEquals(4, catalog.size());
+        for (int i = 0; i < catalog.size(); i++) {
+            BoardGame game = catalog.get(i);
+            assertEquals(game.getMaxPlayers(), catalog.intColumn(GameData.MAX_PLAYERS)[i]);
+            assertEquals(game.getYearPublished(), catalog.intColumn(GameData.YEAR)[i]);
+            assertEquals(game.getRating(), catalog.doubleColumn(GameData.RATING)[i]);
+            assertEquals(game.getDifficulty(), catalog.value(i, GameData.DIFFICULTY));
+        }
+        assertEquals("gofish", catalog.normalizedName(2));
+    }
+
+    @Test
+    void testDuplicatesDropped() {
+        games.add(new BoardGame("Go", 1, 9, 9, 9, 9, 9.0, 9, 9.0, 1999));
+        assertEquals(4, GameCatalog.of(games).size());
+    }
+
+    @Test
+    void testWrongColumnType() {
+        assertThrows(IllegalArgumentException.class, () -> catalog.intColumn(GameData.RATING));
+        assertThrows(IllegalArgumentException.class, () -> catalog.doubleColumn(GameData.RANK));
+    }
+
+    @Test
+    void testSelectMatchesListFilter() {
+        String[] filters = {"minplayers>=2,rating>=8.0", "name~=go", "maxplaytime!=30",
+            "difficulty<3", "name>=d", ""};
+        for (String filter : filters) {
+            FilterPlan plan = FilterPlan.compile(filter);
+            int[] selected = plan.select(catalog, catalog.allOrdinals());
+            List<BoardGame> expected = plan.apply(games);
+            assertEquals(expected.size(), selected.length, filter);
+            for (int i = 0; i < selected.length; i++) {
+                assertSame(expected.get(i), catalog.get(selected[i]));
+            }
+        }
+    }
+
+    @Test
+    void testLoadCatalog() {
+        Set<BoardGame> loaded = GamesLoader.loadGamesFile("/collection.csv");
+        GameCatalog fromFile = GamesLoader.loadCatalog("/collection.csv");
+        assertEquals(loaded.size(), fromFile.size());
+        assertEquals(loaded, new HashSet<>(fromFile.games()));
+    }
+
+    @Test
+    void testSortedWalksTheColumnOrder() {
+        OrdinalBitmap all = OrdinalBitmap.range(catalog.size());
+        // min players ties: chess, go and go fish all have 2
+        assertArrayEquals(new int[] {0, 1, 2, 3}, catalog.sorted(all, GameData.MIN_PLAYERS, true));
+        assertArrayEquals(new int[] {3, 0, 1, 2},
+                catalog.sorted(all, GameData.MIN_PLAYERS, false));
+        assertArrayEquals(new int[] {3, 0, 1, 2}, catalog.sorted(all, GameData.NAME, true));
+        assertArrayEquals(new int[] {2, 1, 0, 3}, catalog.sorted(all, GameData.NAME, false));
+    }
+
+    @Test
+    void testSortedMatchesComparatorSort() {
+        GameCatalog full = GamesLoader.loadCatalog("/collection.csv");
+        OrdinalBitmap broad = OrdinalBitmap.range(full.size());
+        OrdinalBitmap narrow = OrdinalBitmap.fromSorted(new int[] {3, 40, 41, 500, 700});
+        for (OrdinalBitmap members : new OrdinalBitmap[] {broad, narrow}) {
+            for (GameData column : GameData.values()) {
+                if (column == GameData.ID) {
+                    continue;
+                }
+                for (boolean asc : new boolean[] {true, false}) {
+                    List<BoardGame> expected = new ArrayList<>();
+                    members.stream().forEach(o -> expected.add(full.get(o)));
+                    expected.sort(Planner.sortComparator(column.name().toLowerCase(), asc));
+                    List<BoardGame> actual = new ArrayList<>();
+                    for (int o : full.sorted(members, column, asc)) {
+                        actual.add(full.get(o));
+                    }
+                    assertEquals(expected, actual, column + " " + asc);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameRegistryTest {
+    private GameRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new GameRegistry();
+    }
+
+    @Test
+    void testInternGivesDenseOrdinalsAndCanonicalGames() {
+        BoardGame chess = new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700, 10.0, 2006);
+        BoardGame go = new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000);
+        BoardGame chessAgain = new BoardGame("Chess", 7, 1, 1, 1, 1, 1.0, 1, 1.0, 1);
+        assertEquals(0, registry.intern(chess));
+        assertEquals(1, registry.intern(go));
+        assertEquals(0, registry.intern(chessAgain));
+        assertEquals(2, registry.size());
+        assertSame(chess, registry.get(0));
+        assertEquals(1, registry.ordinalOf(go));
+        assertEquals(-1, registry.ordinalOf(new BoardGame("Go", 2, 2, 5, 30, 30, 8.0, 100, 7.5,
+                2000)));
+        assertThrows(IndexOutOfBoundsException.class, () -> registry.get(2));
+    }
+
+    @Test
+    void testDuplicateIds() {
+        BoardGame first = new BoardGame("17 days", 8, 1, 8, 70, 70, 9.0, 600, 9.0, 2005);
+        BoardGame second = new BoardGame("Chess", 8, 2, 2, 10, 20, 10.0, 700, 10.0, 2006);
+        registry.intern(first);
+        registry.intern(new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000));
+        registry.intern(second);
+        assertSame(first, registry.byId(8));
+        assertEquals(0, registry.ordinalById(8));
+        assertEquals(List.of(first, second), registry.allById(8));
+        assertEquals(2, registry.ordinalOf(second));
+        assertNull(registry.byId(99));
+        assertEquals(-1, registry.ordinalById(99));
+        assertTrue(registry.allById(99).isEmpty());
+    }
+
+    @Test
+    void testGrowsPastInitialCapacity() {
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i, registry.intern(new BoardGame("Game " + i, i * 31, 1, 2, 3, 4, 1.0, i,
+                    5.0, 2000)));
+        }
+        assertEquals(5000, registry.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i, registry.ordinalById(i * 31));
+        }
+    }
+
+    @Test
+    void testCatalogAndGameListShareOrdinals() {
+        List<BoardGame> games = new ArrayList<>();
+        games.add(new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700, 10.0, 2006));
+        games.add(new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000));
+        games.add(new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700, 10.0, 2006));
+        GameCatalog catalog = GameCatalog.of(games);
+        assertEquals(2, catalog.size());
+        assertSame(catalog.get(1), catalog.registry().byId(1));
+
+        GameList list = new GameList(catalog.registry());
+        list.addToList("all", Stream.of(catalog.get(1), catalog.get(0)));
+        assertEquals(List.of("Chess", "Go"), list.getGameNames());
+        assertEquals(2, catalog.registry().size());
+        list.removeFromList("1");
+        assertEquals(List.of("Go"), list.getGameNames());
+    }
+
+    @Test
+    void testConcurrentInternAndReads() throws Exception {
+        int threads = 4;
+        int perThread = 5000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads * 2);
+        try {
+            List<Future<?>> work = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                work.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        // every thread interns the shared games, and some of its own
+                        int id = i % 2 == 0 ? i : perThread * (thread + 1) + i;
+                        BoardGame game = new BoardGame("Game " + id, id, 1, 2, 3, 4, 1.0, id,
+                                5.0, 2000);
+                        int ordinal = registry.intern(game);
+                        assertEquals(game, registry.get(ordinal));
+                        assertEquals(ordinal, registry.ordinalOf(game));
+                    }
+                }));
+                work.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        int n = registry.size();
+                        for (int o = Math.max(0, n - 8); o < n; o++) {
+                            BoardGame game = registry.get(o);
+                            assertNotNull(game);
+                            assertEquals(o, registry.ordinalOf(game));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : work) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        int shared = perThread / 2;
+        assertEquals(shared + threads * shared, registry.size());
+        for (int i = 0; i < perThread; i += 2) {
+            assertEquals(1, registry.allById(i).size());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+    private GameCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = GamesLoader.loadCatalog("/collection.csv");
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        Metrics metrics = new Metrics();
+        Metrics.Histogram h = metrics.latency(Metrics.Stage.PARSE);
+        assertEquals(0, h.percentile(0.99));
+        for (int i = 0; i < 99; i++) {
+            h.record(1000);
+        }
+        h.record(1_000_000);
+        assertEquals(100, h.count());
+        assertEquals(1_000_000, h.maxNanos());
+        assertEquals((99 * 1000 + 1_000_000) / 100.0, h.meanNanos(), 1e-9);
+        // within a factor of two of the true value
+        long p50 = h.percentile(0.5);
+        assertTrue(p50 >= 1000 && p50 < 2000, "p50 " + p50);
+        long p99 = h.percentile(0.99);
+        assertTrue(p99 >= 1000 && p99 < 2000, "p99 " + p99);
+        assertEquals(1_000_000, h.percentile(1));
+        h.record(-5);
+        assertEquals(101, h.count());
+        assertEquals(0, h.percentile(0));
+    }
+
+    @Test
+    void testCountsFromConcurrentThreads() throws InterruptedException {
+        Metrics metrics = new Metrics();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    metrics.query();
+                    metrics.term(GameData.RATING, false, 10, 3);
+                    metrics.latency(Metrics.Stage.SORT).record(i);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(80_000, metrics.getQueries());
+        assertEquals(80_000, metrics.terms(GameData.RATING));
+        assertEquals(800_000, metrics.scanned(GameData.RATING));
+        assertEquals(240_000, metrics.returned(GameData.RATING));
+        assertEquals(0, metrics.probes(GameData.RATING));
+        assertEquals(80_000, metrics.latency(Metrics.Stage.SORT).count());
+        metrics.reset();
+        assertEquals(0, metrics.getQueries());
+        assertEquals(0, metrics.latency(Metrics.Stage.SORT).count());
+    }
+
+    @Test
+    void testPlannerAndLoaderRecord() {
+        Metrics metrics = Metrics.global();
+        long queries = metrics.getQueries();
+        long parses = metrics.latency(Metrics.Stage.PARSE).count();
+        long sorts = metrics.latency(Metrics.Stage.SORT).count();
+        long ratingTerms = metrics.terms(GameData.RATING);
+        long loads = metrics.getLoads();
+        long rows = metrics.getRowsLoaded();
+
+        Planner planner = new Planner(catalog, 0);
+        planner.filter("rating>7, minplayers>1", GameData.RATING, false).count();
+        assertTrue(metrics.getQueries() > queries);
+        assertTrue(metrics.latency(Metrics.Stage.PARSE).count() > parses);
+        assertTrue(metrics.latency(Metrics.Stage.SORT).count() > sorts);
+        assertTrue(metrics.terms(GameData.RATING) > ratingTerms);
+        assertTrue(metrics.scanned(GameData.RATING) >= metrics.returned(GameData.RATING));
+
+        GamesLoader.loadCatalog("/collection.csv");
+        assertTrue(metrics.getLoads() > loads);
+        assertTrue(metrics.getRowsLoaded() >= rows + catalog.size());
+    }
+
+    @Test
+    void testDumpAndJmx() throws Exception {
+        String dump = Metrics.global().dump();
+        assertTrue(dump.startsWith("queries "));
+        for (Metrics.Stage stage : Metrics.Stage.values()) {
+            assertTrue(dump.contains(stage.name().toLowerCase()));
+        }
+        assertTrue(dump.contains(GameData.RATING.getColumnName()));
+
+        Metrics.register();
+        assertFalse(Metrics.register());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(Metrics.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+        assertTrue((Long) server.getAttribute(name, "Queries") >= 0);
+        Object counts = server.getAttribute(name, "LatencyCounts");
+        assertNotNull(counts);
+        Map<String, Long> scanned = Metrics.global().getRowsScanned();
+        assertEquals(GameData.values().length, scanned.size());
+        assertTrue(((String) server.invoke(name, "dump", null, null)).startsWith("queries "));
+    }
+}
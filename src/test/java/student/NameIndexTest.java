@@ -0,0 +1,93 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NameIndexTest {
+    private GameCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        List<BoardGame> games = new ArrayList<>();
+        games.add(new BoardGame("Go Fish", 2, 2, 10, 20, 120, 3.0, 200, 6.5, 2001));
+        games.add(new BoardGame("Chess", 7, 2, 2, 10, 20, 10.0, 700, 10.0, 2006));
+        games.add(new BoardGame("Go", 1, 2, 5, 30, 30, 8.0, 100, 7.5, 2000));
+        games.add(new BoardGame("Catan", 6, 3, 4, 60, 90, 2.5, 300, 8.2, 1995));
+        games.add(new BoardGame("GoFish", 3, 2, 10, 20, 120, 3.0, 210, 6.4, 2002));
+        catalog = GameCatalog.of(games);
+    }
+
+    @Test
+    void testOrderIsSortedAndStable() {
+        NameIndex index = catalog.nameIndex();
+        assertEquals(5, index.size());
+        assertEquals(3, index.ordinalAt(0)); // catan
+        assertEquals(1, index.ordinalAt(1)); // chess
+        assertEquals(2, index.ordinalAt(2)); // go
+        assertEquals(0, index.ordinalAt(3)); // gofish, first in the catalog
+        assertEquals(4, index.ordinalAt(4)); // gofish
+        assertSame(index, catalog.nameIndex());
+    }
+
+    @Test
+    void testBounds() {
+        NameIndex index = catalog.nameIndex();
+        assertEquals(2, index.lowerBound("go"));
+        assertEquals(3, index.upperBound("go"));
+        assertEquals(3, index.lowerBound("gofish"));
+        assertEquals(5, index.upperBound("gofish"));
+        assertEquals(5, index.lowerBound("zzz"));
+    }
+
+    @Test
+    void testCountAndSelect() {
+        NameIndex index = catalog.nameIndex();
+        FilterTerm equal = FilterTerm.parse("name==Go Fish");
+        assertEquals(2, index.count(equal));
+        assertArrayEquals(new int[] {0, 4}, index.select(equal));
+        FilterTerm notEqual = FilterTerm.parse("name!=gofish");
+        assertEquals(3, index.count(notEqual));
+        assertArrayEquals(new int[] {1, 2, 3}, index.select(notEqual));
+        FilterTerm less = FilterTerm.parse("name<go");
+        assertArrayEquals(new int[] {1, 3}, index.select(less));
+        FilterTerm atLeast = FilterTerm.parse("name>=go");
+        assertArrayEquals(new int[] {0, 2, 4}, index.select(atLeast));
+    }
+
+    @Test
+    void testPrefix() {
+        NameIndex index = catalog.nameIndex();
+        assertArrayEquals(new int[] {2, 0, 4}, index.prefix("go", 10, null));
+        assertArrayEquals(new int[] {2, 0}, index.prefix("go", 2, null));
+        assertArrayEquals(new int[] {3, 1}, index.prefix("c", 10, null));
+        assertArrayEquals(new int[0], index.prefix("x", 10, null));
+        assertArrayEquals(new int[] {2, 4},
+                index.prefix("go", 10, OrdinalBitmap.fromSorted(new int[] {1, 2, 4})));
+    }
+
+    @Test
+    void testRangeTermsUseTheIndex() {
+        FilterTerm term = FilterTerm.parse("name>chess");
+        assertTrue(term.isIndexable());
+        assertEquals(3, term.estimate(catalog));
+        OrdinalBitmap all = OrdinalBitmap.range(catalog.size());
+        assertEquals(term.select(catalog, all), term.probe(catalog, all));
+        assertEquals(OrdinalBitmap.fromSorted(new int[] {0, 2, 4}), term.probe(catalog, all));
+    }
+
+    @Test
+    void testPlannerSuggest() {
+        Planner planner = new Planner(catalog);
+        List<BoardGame> games = planner.suggest("Go F", 5);
+        assertEquals(2, games.size());
+        assertEquals("Go Fish", games.get(0).getName());
+        assertEquals("GoFish", games.get(1).getName());
+        planner.filter("minPlayers>2").count();
+        assertTrue(planner.suggest("go", 5).isEmpty());
+    }
+}
@@ -0,0 +1,35 @@
+package student;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NameKeyTest {
+
+    @Test
+    void testAsciiKeys() {
+        assertEquals("gofish", NameKey.of("Go Fish"));
+        assertEquals("7wonders:duel", NameKey.of(" 7 Wonders:\tDuel "));
+        assertEquals("", NameKey.of("   "));
+    }
+
+    @Test
+    void testAlreadyNormalizedIsReused() {
+        String key = "catan";
+        assertSame(key, NameKey.of(key));
+    }
+
+    @Test
+    void testUnicodeCaseFolding() {
+        assertEquals("strasse", NameKey.of("Straße"));
+        assertEquals(NameKey.of("STRASSE"), NameKey.of("Straße"));
+        assertEquals("café", NameKey.of("CAFÉ"));
+        assertEquals("trek12:athomeàsemaine1", NameKey.of("Trek 12: At Home À Semaine 1"));
+    }
+
+    @Test
+    void testBoardGameKey() {
+        BoardGame game = new BoardGame("Terraforming Mars", 8, 1, 5, 90, 120, 3.2, 200, 8.5, 2016);
+        assertEquals("terraformingmars", game.getNameKey());
+    }
+}
@@ -0,0 +1,104 @@
+package student;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrdinalBitmapTest {
+
+    private static int[] randomSorted(Random rnd, int bound, double density) {
+        return rnd.ints(0, bound).limit((long) (bound * density)).distinct().sorted().toArray();
+    }
+
+    private static BitSet toBitSet(int[] ordinals) {
+        BitSet bits = new BitSet();
+        for (int o : ordinals) {
+            bits.set(o);
+        }
+        return bits;
+    }
+
+    @Test
+    void testRange() {
+        OrdinalBitmap full = OrdinalBitmap.range(200_000);
+        assertEquals(200_000, full.cardinality());
+        assertTrue(full.contains(0));
+        assertTrue(full.contains(199_999));
+        assertFalse(full.contains(200_000));
+        assertEquals(4, full.containerCount());
+        assertTrue(OrdinalBitmap.range(0).isEmpty());
+    }
+
+    @Test
+    void testFromSortedRoundTrip() {
+        Random rnd = new Random(42);
+        for (double density : new double[] {0.001, 0.05, 0.5}) {
+            int[] values = randomSorted(rnd, 300_000, density);
+            OrdinalBitmap bitmap = OrdinalBitmap.fromSorted(values);
+            assertEquals(values.length, bitmap.cardinality());
+            assertArrayEquals(values, bitmap.toArray());
+            assertArrayEquals(values, bitmap.stream().toArray());
+        }
+    }
+
+    @Test
+    void testAndMatchesBitSet() {
+        Random rnd = new Random(7);
+        double[] densities = {0.01, 0.2, 0.9};
+        for (double da : densities) {
+            for (double db : densities) {
+                int[] a = randomSorted(rnd, 250_000, da);
+                int[] b = randomSorted(rnd, 250_000, db);
+                BitSet expected = toBitSet(a);
+                expected.and(toBitSet(b));
+                OrdinalBitmap result = OrdinalBitmap.fromSorted(a).and(OrdinalBitmap.fromSorted(b));
+                assertArrayEquals(expected.stream().toArray(), result.toArray());
+                assertEquals(expected.cardinality(), result.cardinality());
+            }
+        }
+    }
+
+    @Test
+    void testAndWithFullSharesInput() {
+        int[] values = randomSorted(new Random(1), 100_000, 0.3);
+        OrdinalBitmap bitmap = OrdinalBitmap.fromSorted(values);
+        assertSame(bitmap, OrdinalBitmap.range(100_000).and(bitmap));
+        assertSame(bitmap, bitmap.and(OrdinalBitmap.range(100_000)));
+    }
+
+    @Test
+    void testFilter() {
+        OrdinalBitmap full = OrdinalBitmap.range(150_000);
+        OrdinalBitmap even = full.filter((ordinals, n) -> {
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                if (ordinals[i] % 2 == 0) {
+                    ordinals[k++] = ordinals[i];
+                }
+            }
+            return k;
+        });
+        assertEquals(75_000, even.cardinality());
+        assertTrue(even.contains(149_998));
+        assertFalse(even.contains(149_999));
+        assertSame(full, full.filter((ordinals, n) -> n));
+        assertTrue(full.filter((ordinals, n) -> 0).isEmpty());
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        int[] values = {1, 5, 70_000, 140_000};
+        OrdinalBitmap a = OrdinalBitmap.fromSorted(values);
+        OrdinalBitmap b = OrdinalBitmap.range(200_000).and(OrdinalBitmap.fromSorted(values));
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, OrdinalBitmap.fromSorted(Arrays.copyOf(values, 3)));
+        // the kept hash gives the same answer on every call
+        assertEquals(a.hashCode(), a.hashCode());
+        assertNotEquals(a, OrdinalBitmap.fromSorted(new int[] {1, 5, 70_000, 140_001}));
+    }
+}
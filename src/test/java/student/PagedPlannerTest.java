@@ -0,0 +1,62 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PagedPlannerTest {
+    private Planner planner;
+
+    @BeforeEach
+    void setUp() {
+        planner = new Planner(GamesLoader.loadCatalog("/collection.csv"));
+    }
+
+    @Test
+    void testPagesMatchFullSort() {
+        for (GameData column : GameData.values()) {
+            if (column == GameData.ID) {
+                continue;
+            }
+            for (boolean asc : new boolean[] {true, false}) {
+                planner.reset();
+                List<BoardGame> all = planner.filter("minPlayers>1", column, asc).toList();
+                int[][] pages = {{0, 20}, {20, 20}, {all.size() - 5, 20}, {0, all.size()}};
+                for (int[] page : pages) {
+                    planner.reset();
+                    List<BoardGame> got = planner.filter("minPlayers>1", column, asc, page[0],
+                            page[1]).toList();
+                    int end = Math.min(all.size(), page[0] + page[1]);
+                    assertEquals(all.subList(page[0], end), got, column + " " + asc);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testPageIsProgressive() {
+        planner.filter("minPlayers>1");
+        List<BoardGame> page = planner.filter("maxPlayers<4", GameData.RATING, false, 0, 5)
+                .toList();
+        assertEquals(5, page.size());
+        for (BoardGame game : page) {
+            assertTrue(game.getMinPlayers() > 1 && game.getMaxPlayers() < 4);
+        }
+        assertEquals(planner.getCurList().count(), planner.filter("", GameData.NAME, true)
+                .count());
+    }
+
+    @Test
+    void testEmptyAndInvalidPages() {
+        assertEquals(0, planner.filter("", GameData.NAME, true, 5000, 10).count());
+        assertEquals(0, planner.filter("", GameData.NAME, true, 0, 0).count());
+        assertEquals(0, planner.filter("minPlayers>100", GameData.NAME, true, 0, 10).count());
+        assertThrows(IllegalArgumentException.class,
+                () -> planner.filter("", GameData.NAME, true, -1, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> planner.filter("", GameData.NAME, true, 0, -1));
+    }
+}
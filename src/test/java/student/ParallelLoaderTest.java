@@ -0,0 +1,133 @@
+package student;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelLoaderTest {
+
+    private static final String HEADER = "objectid,objectname,minplayers,maxplayers,minplaytime,"
+            + "maxplaytime,avgweight,rank,average,yearpublished\n";
+
+    private static String row(int id, String name) {
+        return id + "," + name + ",2,4,30,60,2.0," + id + ",7.0,2000\n";
+    }
+
+    @Test
+    void testSameGamesAsSequentialLoad() {
+        GameCatalog sequential = GamesLoader.loadCatalog("/collection.csv");
+        LoadReport report = GamesLoader.loadCatalogParallel("/collection.csv", 4);
+        assertEquals(sequential.games(), report.getCatalog().games());
+        assertEquals(sequential.size(), report.getRows());
+        assertEquals(4, report.getParallelism());
+        assertTrue(report.getChunks() >= 1);
+        assertTrue(report.rowsPerSecondPerCore() > 0);
+    }
+
+    @Test
+    void testManyChunks() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 200; i++) {
+            csv.append(row(i, "Game " + i));
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        List<BoardGame> games = load(bytes, 37);
+        assertEquals(200, games.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, games.get(i).getId());
+        }
+    }
+
+    @Test
+    void testCutInsideQuotedLineBreak() throws IOException {
+        // long quoted names with line breaks, so most cuts land inside a quoted field
+        StringBuilder csv = new StringBuilder(HEADER);
+        String name = "\"A\nlong\nname\nwith\nbreaks\nand, a comma\"";
+        for (int i = 0; i < 50; i++) {
+            csv.append(row(i, name));
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        List<BoardGame> games = load(bytes, 23);
+        assertEquals(50, games.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, games.get(i).getId());
+            assertEquals("A\nlong\nname\nwith\nbreaks\nand, a comma", games.get(i).getName());
+        }
+    }
+
+    @Test
+    void testByteOrderMark() throws IOException {
+        StringBuilder csv = new StringBuilder("\uFEFF").append(HEADER);
+        for (int i = 0; i < 10; i++) {
+            csv.append(row(i, "Game " + i));
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        assertEquals((byte) 0xEF, bytes[0]);
+        try (CsvSource source = CsvSource.of(bytes)) {
+            List<BoardGame> games = new ParallelLoader(source, 2, 256).load();
+            assertEquals(10, games.size());
+            assertEquals("Game 0", games.get(0).getName());
+        }
+    }
+
+    @Test
+    void testRejectsCountedOnceWhenReparsed() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        String name = "\"A\nlong\nname\nwith\nbreaks\"";
+        for (int i = 0; i < 50; i++) {
+            csv.append(i % 5 == 0 ? i + "," + name + ",short\n" : row(i, name));
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        try (CsvSource source = CsvSource.of(bytes)) {
+            ParallelLoader loader = new ParallelLoader(source, 3, 256);
+            GamesLoader.Rows header = new GamesLoader.Rows();
+            long body = GamesLoader.readRange(source, 0, 1, 256, header);
+            assertEquals(40, loader.load(header, body, 23).size());
+            assertEquals(10, loader.rejectedCount());
+        }
+    }
+
+    @Test
+    void testFailedMisalignedChunkIsParsedAgain() throws IOException {
+        // a name whose line break is followed by its closing quote: a chunk starting after the
+        // break opens a quoted field there that runs over the plain rows, past one window
+        String quoted = "0,\"" + "N".repeat(100) + "\n\",2,4,30,60,2.0,0,7.0,2000\n";
+        StringBuilder plain = new StringBuilder();
+        for (int i = 1; i <= 20; i++) {
+            plain.append(row(i, "Game " + i));
+        }
+        for (int lead = 0; lead < 100; lead++) {
+            StringBuilder csv = new StringBuilder(HEADER);
+            for (int i = 0; i < lead; i++) {
+                csv.append(row(100 + i, "Lead " + i));
+            }
+            int at = csv.length();
+            csv.append(quoted).append(plain);
+            // cut in two, in the first line of the quoted row
+            int cut = HEADER.length() + (csv.length() - HEADER.length()) / 2;
+            if (cut <= at + 3 || cut >= at + 100) {
+                continue;
+            }
+            List<BoardGame> games = load(csv.toString().getBytes(StandardCharsets.UTF_8), 2);
+            assertEquals(lead + 21, games.size());
+            assertEquals("N".repeat(100) + "\n", games.get(lead).getName());
+            return;
+        }
+        fail("no lead put the cut in the quoted row");
+    }
+
+    private static List<BoardGame> load(byte[] bytes, int chunks) throws IOException {
+        try (CsvSource source = CsvSource.of(bytes)) {
+            ParallelLoader loader = new ParallelLoader(source, 3, 256);
+            GamesLoader.Rows header = new GamesLoader.Rows();
+            long body = GamesLoader.readRange(source, 0, 1, 256, header);
+            List<BoardGame> games = loader.load(header, body, chunks);
+            assertEquals(chunks, loader.chunkCount());
+            return games;
+        }
+    }
+}
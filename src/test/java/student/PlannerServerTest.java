@@ -0,0 +1,164 @@
+package student;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlannerServerTest {
+    private static final Pattern NAME = Pattern.compile("\"name\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private PlannerServer server;
+    private PlannerSessions sessions;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sessions = new PlannerSessions(GamesLoader.loadCatalog("/collection.csv"));
+        server = new PlannerServer(sessions, new InetSocketAddress("127.0.0.1", 0));
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private HttpResponse<String> send(String method, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://127.0.0.1:" + server.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody()).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String enc(String text) {
+        return URLEncoder.encode(text, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> names(String body) {
+        List<String> names = new ArrayList<>();
+        Matcher m = NAME.matcher(body);
+        while (m.find()) {
+            names.add(m.group(1).replace("\\\"", "\"").replace("\\\\", "\\"));
+        }
+        return names;
+    }
+
+    private static String field(String body, String name) {
+        Matcher m = Pattern.compile("\"" + name + "\":(\"[^\"]*\"|[^,}]*)").matcher(body);
+        assertTrue(m.find(), body);
+        return m.group(1).replace("\"", "");
+    }
+
+    @Test
+    void testStatelessFilterPages() throws Exception {
+        Planner planner = new Planner(sessions.getCatalog());
+        List<String> all = planner.filter("minPlayers>1", GameData.RATING, false)
+                .map(BoardGame::getName).toList();
+        HttpResponse<String> res = send("GET", "/filter?q=" + enc("minPlayers>1")
+                + "&sort=rating&order=desc&offset=10&limit=25");
+        assertEquals(200, res.statusCode());
+        assertTrue(res.headers().firstValue("Content-Type").orElse("").contains("json"));
+        assertEquals(String.valueOf(all.size()), field(res.body(), "total"));
+        assertEquals(all.subList(10, 35), names(res.body()));
+        assertEquals(0, sessions.size());
+    }
+
+    @Test
+    void testSessionIsProgressive() throws Exception {
+        String id = field(send("POST", "/sessions").body(), "session");
+        assertEquals(1, sessions.size());
+        String first = send("GET", "/filter?session=" + id + "&q=" + enc("minPlayers>1"))
+                .body();
+        String second = send("GET", "/filter?session=" + id + "&q=" + enc("maxPlayers<5"))
+                .body();
+        Planner planner = new Planner(sessions.getCatalog());
+        long both = planner.filter("minPlayers>1,maxPlayers<5").count();
+        assertEquals(String.valueOf(both), field(second, "total"));
+
+        String back = send("POST", "/back?session=" + id).body();
+        assertEquals("true", field(back, "undone"));
+        assertEquals(field(first, "total"), field(back, "total"));
+
+        String reset = send("POST", "/reset?session=" + id).body();
+        assertEquals(String.valueOf(sessions.getCatalog().size()), field(reset, "total"));
+
+        assertEquals(200, send("DELETE", "/sessions/" + id).statusCode());
+        assertEquals(404, send("POST", "/back?session=" + id).statusCode());
+    }
+
+    @Test
+    void testListOperations() throws Exception {
+        String id = field(send("POST", "/sessions").body(), "session");
+        String filtered = send("GET", "/filter?session=" + id + "&q=" + enc("name~=catan")
+                + "&limit=3").body();
+        List<String> top = names(filtered);
+        assertFalse(top.isEmpty());
+
+        String added = send("POST", "/list/add?session=" + id + "&game=1-3").body();
+        assertEquals(String.valueOf(top.size()), field(added, "count"));
+        String shown = send("GET", "/list?session=" + id).body();
+        assertEquals(field(added, "count"), field(shown, "count"));
+        assertTrue(shown.contains(Json.string(new StringBuilder(), top.get(0))));
+
+        String cleared = send("POST", "/list/clear?session=" + id).body();
+        assertEquals("0", field(cleared, "count"));
+    }
+
+    @Test
+    void testErrors() throws Exception {
+        HttpResponse<String> bad = send("GET", "/filter?sort=nope");
+        assertEquals(400, bad.statusCode());
+        assertTrue(bad.body().contains("\"error\""));
+        assertEquals(400, send("GET", "/filter?limit=-1").statusCode());
+        assertEquals(400, send("GET", "/filter?order=up").statusCode());
+        HttpResponse<String> unsortable = send("GET", "/filter?sort=objectid");
+        assertEquals(400, unsortable.statusCode());
+        assertTrue(unsortable.body().contains("Invalid sort column: objectid"));
+        String id = field(send("POST", "/sessions").body(), "session");
+        String narrowed = send("GET", "/filter?session=" + id + "&q=" + enc("minPlayers>1"))
+                .body();
+        assertEquals(400, send("GET", "/filter?session=" + id + "&sort=objectid").statusCode());
+        assertEquals(field(narrowed, "total"),
+                field(send("GET", "/filter?session=" + id).body(), "total"));
+        assertEquals(404, send("GET", "/filter?session=missing").statusCode());
+        assertEquals(400, send("POST", "/reset").statusCode());
+        assertEquals(405, send("GET", "/sessions").statusCode());
+        assertEquals(405, send("POST", "/filter").statusCode());
+    }
+
+    @Test
+    void testJsonEscapes() {
+        assertEquals("\"a\\\"b\\\\c\\n\\u0001\"",
+                Json.string(new StringBuilder(), "a\"b\\c\n\u0001").toString());
+        assertEquals("null", Json.number(new StringBuilder(), Double.NaN).toString());
+        assertEquals("7", Json.number(new StringBuilder(), 7.0).toString());
+        assertEquals("7.25", Json.number(new StringBuilder(), 7.25).toString());
+        assertEquals("b", PlannerServer.params("a=b").get("a"));
+        assertEquals("x y", PlannerServer.params("q=x+y&z").get("q"));
+        assertEquals("", PlannerServer.params("q=x+y&z").get("z"));
+    }
+
+    @Test
+    void testExecutorRuns() throws Exception {
+        var executor = PlannerServer.newExecutor();
+        try {
+            assertEquals(Integer.valueOf(4), executor.submit(() -> 2 + 2).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
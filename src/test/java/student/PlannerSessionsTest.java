@@ -0,0 +1,139 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlannerSessionsTest {
+    private PlannerSessions sessions;
+
+    @BeforeEach
+    void setUp() {
+        sessions = new PlannerSessions(GamesLoader.loadCatalog("/collection.csv"));
+    }
+
+    @Test
+    void testSessionsShareTheCatalog() {
+        Planner a = sessions.get(sessions.open());
+        Planner b = sessions.get(sessions.open());
+        assertNotSame(a, b);
+        assertSame(a.getCatalog(), b.getCatalog());
+        assertSame(a.getHistory().members(), b.getHistory().members());
+        assertSame(sessions.getCatalog().all(), a.getHistory().members());
+    }
+
+    @Test
+    void testSessionsKeepTheirOwnFilters() {
+        Planner a = sessions.get(sessions.open());
+        Planner b = sessions.get(sessions.open());
+        long narrowed = a.filter("minPlayers>2").count();
+        assertEquals(sessions.getCatalog().size(), b.filter("").count());
+        assertEquals(narrowed, a.getCurList().count());
+    }
+
+    @Test
+    void testOpenGetClose() {
+        String id = sessions.open();
+        assertEquals(1, sessions.size());
+        assertNotNull(sessions.get(id));
+        assertNull(sessions.get("nope"));
+        assertNull(sessions.get(null));
+        assertTrue(sessions.close(id));
+        assertFalse(sessions.close(id));
+        assertNull(sessions.get(id));
+        assertEquals(0, sessions.size());
+    }
+
+    @Test
+    void testCloseIdle() throws InterruptedException {
+        String old = sessions.open();
+        Thread.sleep(20);
+        String fresh = sessions.open();
+        assertEquals(1, sessions.closeIdle(TimeUnit.MILLISECONDS.toNanos(10)));
+        assertNull(sessions.get(old));
+        assertNotNull(sessions.get(fresh));
+    }
+
+    @Test
+    void testConcurrentSessionsMatchSerialResults() throws Exception {
+        String[] filters = {"minPlayers>1", "maxPlayers<6", "rating>7", "name~=the",
+            "year>2010", "difficulty<3"};
+        Planner serial = new Planner(sessions.getCatalog());
+        List<List<List<BoardGame>>> expected = new ArrayList<>();
+        for (int t = 0; t < filters.length; t++) {
+            serial.reset();
+            List<List<BoardGame>> steps = new ArrayList<>();
+            for (int i = 0; i < filters.length; i++) {
+                String f = filters[(t + i) % filters.length];
+                steps.add(serial.filter(f, GameData.RATING, false).toList());
+            }
+            expected.add(steps);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(filters.length);
+        try {
+            List<Future<List<List<BoardGame>>>> results = new ArrayList<>();
+            for (int t = 0; t < filters.length; t++) {
+                int start = t;
+                results.add(pool.submit(() -> {
+                    List<List<BoardGame>> steps = new ArrayList<>();
+                    for (int round = 0; round < 20; round++) {
+                        Planner p = sessions.get(sessions.open());
+                        steps.clear();
+                        for (int i = 0; i < filters.length; i++) {
+                            String f = filters[(start + i) % filters.length];
+                            steps.add(p.filter(f, GameData.RATING, false).toList());
+                        }
+                    }
+                    return steps;
+                }));
+            }
+            for (int t = 0; t < filters.length; t++) {
+                assertEquals(expected.get(t), results.get(t).get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(20 * filters.length, sessions.size());
+    }
+
+    @Test
+    void testSessionListsShareTheRegistry() throws Exception {
+        GameCatalog catalog = sessions.getCatalog();
+        int threads = 6;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int start = t;
+                results.add(pool.submit(() -> {
+                    IGameList list = new GameList(catalog.registry());
+                    for (int round = 0; round < 50; round++) {
+                        list.clear();
+                        list.addToList("1-" + catalog.size(), catalog.games().stream());
+                        list.removeFromList((start + 1) + "-" + (catalog.size() - 10));
+                    }
+                    return list.getGameNames();
+                }));
+            }
+            List<String> first = results.get(0).get(30, TimeUnit.SECONDS);
+            for (int t = 0; t < threads; t++) {
+                List<String> names = results.get(t).get(30, TimeUnit.SECONDS);
+                assertEquals(t + 10, names.size());
+                assertEquals(first.subList(first.size() - 10, first.size()),
+                        names.subList(names.size() - 10, names.size()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(catalog.size(), catalog.registry().size());
+    }
+}
@@ -0,0 +1,105 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultCacheTest {
+    private Planner planner;
+
+    @BeforeEach
+    void setUp() {
+        planner = new Planner(GamesLoader.loadCatalog("/collection.csv"));
+    }
+
+    @Test
+    void testRepeatQueryIsAHit() {
+        ResultCache cache = planner.getResultCache();
+        List<BoardGame> first = planner.filter("minPlayers>2", GameData.RATING, false).toList();
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.size());
+        planner.reset();
+        List<BoardGame> second = planner.filter(" MinPlayers > 2 ", GameData.RATING, false)
+                .toList();
+        assertEquals(1, cache.hits());
+        assertEquals(first, second);
+        assertEquals(first.size(), planner.getCurList().count());
+    }
+
+    @Test
+    void testKeyIncludesStartAndOrder() {
+        ResultCache cache = planner.getResultCache();
+        planner.filter("minPlayers>2", GameData.RATING, false).toList();
+        // same filter and order, but a different starting working set
+        List<BoardGame> narrowed = planner.filter("minPlayers>2", GameData.RATING, false)
+                .toList();
+        assertEquals(0, cache.hits());
+        planner.reset();
+        List<BoardGame> ascending = planner.filter("minPlayers>2", GameData.RATING, true)
+                .toList();
+        assertEquals(0, cache.hits());
+        assertEquals(narrowed.size(), ascending.size());
+        assertEquals(narrowed.get(0), ascending.get(ascending.size() - 1));
+    }
+
+    @Test
+    void testPagedQueryUsesCachedOrder() {
+        List<BoardGame> all = planner.filter("name~=a", GameData.YEAR, true).toList();
+        planner.reset();
+        List<BoardGame> page = planner.filter("name~=a", GameData.YEAR, true, 10, 5).toList();
+        assertEquals(1, planner.getResultCache().hits());
+        assertEquals(all.subList(10, 15), page);
+    }
+
+    @Test
+    void testReloadDropsResults() {
+        planner.filter("minPlayers>2", GameData.RATING, false).toList();
+        GameCatalog other = GameCatalog.of(List.of(
+                new BoardGame("Chess", 7, 3, 3, 10, 20, 10.0, 700, 10.0, 2006)));
+        planner.reload(other);
+        assertEquals(0, planner.getResultCache().size());
+        assertEquals(List.of(other.get(0)),
+                planner.filter("minPlayers>2", GameData.RATING, false).toList());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        OrdinalBitmap all = OrdinalBitmap.range(10);
+        ResultCache small = new ResultCache(1000);
+        for (int i = 0; i < 3; i++) {
+            OrdinalBitmap members = OrdinalBitmap.fromSorted(new int[] {i});
+            small.put(new ResultCache.Key("rank==" + i, GameData.NAME, true, all),
+                    new ResultCache.Result(members, new int[] {i}));
+        }
+        assertEquals(3, small.size());
+        assertNotNull(small.get(new ResultCache.Key("rank==0", GameData.NAME, true, all)));
+        small.put(new ResultCache.Key("rank>0", GameData.NAME, true, all),
+                new ResultCache.Result(all, new int[150]));
+        assertEquals(2, small.evictions());
+        assertTrue(small.bytes() <= 1000);
+        // rank==1 and rank==2 were the least recently used, rank==0 was just read
+        assertNull(small.get(new ResultCache.Key("rank==1", GameData.NAME, true, all)));
+        assertNull(small.get(new ResultCache.Key("rank==2", GameData.NAME, true, all)));
+        assertNotNull(small.get(new ResultCache.Key("rank==0", GameData.NAME, true, all)));
+        assertNotNull(small.get(new ResultCache.Key("rank>0", GameData.NAME, true, all)));
+    }
+
+    @Test
+    void testSharedStartIsNotWeighed() {
+        ResultCache cache = new ResultCache(1000);
+        OrdinalBitmap start = OrdinalBitmap.fromSorted(new int[] {1, 5, 70000, 140000, 900000});
+        assertTrue(start.sizeInBytes() > 0);
+        OrdinalBitmap small = OrdinalBitmap.fromSorted(new int[] {1});
+        cache.put(new ResultCache.Key("rank>0", GameData.NAME, true, small),
+                new ResultCache.Result(small, new int[0]));
+        long one = cache.bytes();
+        cache.put(new ResultCache.Key("rank>0", GameData.NAME, true, start),
+                new ResultCache.Result(start, new int[0]));
+        // both results are their start set, so each costs only its overhead and filter text
+        assertEquals(2, cache.size());
+        assertEquals(2 * one, cache.bytes());
+    }
+}
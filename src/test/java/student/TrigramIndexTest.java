@@ -0,0 +1,55 @@
+package student;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = TrigramIndex.build(new String[] {"catan", "catanjunior", "gofish", "pandemic",
+            "pandemiclegacy", "aaaa"});
+    }
+
+    @Test
+    void testCandidates() {
+        assertArrayEquals(new int[] {0, 1}, index.candidates("catan"));
+        assertArrayEquals(new int[] {3, 4}, index.candidates("demic"));
+        assertArrayEquals(new int[] {4}, index.candidates("legacy"));
+        assertArrayEquals(new int[0], index.candidates("xyz"));
+    }
+
+    @Test
+    void testRepeatedTrigrams() {
+        assertArrayEquals(new int[] {5}, index.candidates("aaaa"));
+        assertArrayEquals(new int[] {5}, index.candidates("aaa"));
+    }
+
+    @Test
+    void testEstimate() {
+        assertEquals(1, index.estimate("legacy"));
+        assertEquals(2, index.estimate("pandemic"));
+        assertEquals(0, index.estimate("zzz"));
+        assertFalse(TrigramIndex.canSearch("go"));
+    }
+
+    @Test
+    void testContainsMatchesScanOnCollection() {
+        GameCatalog catalog = GamesLoader.loadCatalog("/collection.csv");
+        String[] needles = {"cat", "wonders", "trek12", "expansion", "the", "qqq", "a", "go"};
+        for (String needle : needles) {
+            FilterTerm term = FilterTerm.parse("name~=" + needle);
+            int[] scanned = new int[catalog.size()];
+            int n = term.select(catalog, catalog.allOrdinals(), catalog.size(), scanned);
+            OrdinalBitmap full = OrdinalBitmap.range(catalog.size());
+            OrdinalBitmap planned = FilterPlan.compile("name~=" + needle).select(catalog, full);
+            assertEquals(n, planned.cardinality(), needle);
+            if (term.isIndexable()) {
+                assertEquals(n, term.probe(catalog, full).cardinality(), needle);
+            }
+        }
+    }
+}